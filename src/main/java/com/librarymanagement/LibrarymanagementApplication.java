@@ -4,6 +4,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 /**
@@ -12,6 +13,7 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 @SpringBootApplication
 @EnableTransactionManagement // Enable transaction management
+@EnableScheduling // Enable periodic jobs such as the genre statistics reconciliation
 public class LibrarymanagementApplication {
 	private static final Logger logger = LoggerFactory.getLogger(LibrarymanagementApplication.class);
 
@@ -0,0 +1,42 @@
+package com.librarymanagement.accesslog;
+
+import java.util.Collection;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import com.librarymanagement.controller.LibraryController;
+
+/**
+ * Records the number of rows in each {@link LibraryController} response body
+ * for the access log: the size of a returned collection, 1 for a single
+ * object.
+ */
+@ControllerAdvice(assignableTypes = LibraryController.class)
+@ConditionalOnProperty(prefix = "library.access-log", name = "enabled", matchIfMissing = true)
+public class AccessLogBodyAdvice implements ResponseBodyAdvice<Object> {
+
+	@Override
+	public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+		return true;
+	}
+
+	@Override
+	public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+			Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+			ServerHttpResponse response) {
+		if (body != null && request instanceof ServletServerHttpRequest servletRequest) {
+			int rows = body instanceof Collection<?> collection ? collection.size() : 1;
+			servletRequest.getServletRequest().setAttribute(AccessLogFilter.ROWS_ATTRIBUTE, rows);
+		}
+		return body;
+	}
+
+}
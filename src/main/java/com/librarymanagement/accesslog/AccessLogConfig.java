@@ -0,0 +1,53 @@
+package com.librarymanagement.accesslog;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Registers the access log filter in front of the library endpoints and the
+ * statement counter with Hibernate. Set {@code library.access-log.enabled=false}
+ * to turn it off.
+ */
+@Configuration
+@EnableConfigurationProperties(AccessLogProperties.class)
+@ConditionalOnProperty(prefix = "library.access-log", name = "enabled", matchIfMissing = true)
+public class AccessLogConfig {
+
+	@Bean
+	public SqlStatementCounter sqlStatementCounter() {
+		return new SqlStatementCounter();
+	}
+
+	@Bean
+	public HibernatePropertiesCustomizer sqlStatementCounterCustomizer(SqlStatementCounter sqlStatementCounter) {
+		return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlStatementCounter);
+	}
+
+	/**
+	 * Runs the filter first, so the latency covers admission control and error
+	 * handling as well.
+	 *
+	 * @param properties          The sampling and rate limit settings.
+	 * @param sqlStatementCounter Counts the statements of each request.
+	 * @param meterRegistry       The registry for the access log metrics.
+	 * @return The filter registration.
+	 */
+	@Bean
+	public FilterRegistrationBean<AccessLogFilter> accessLogFilter(AccessLogProperties properties,
+			SqlStatementCounter sqlStatementCounter, MeterRegistry meterRegistry) {
+		FilterRegistrationBean<AccessLogFilter> registration = new FilterRegistrationBean<>(
+				new AccessLogFilter(sqlStatementCounter, new AccessLogSampler(properties, meterRegistry)));
+		registration.addUrlPatterns("/library/*");
+		registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+		return registration;
+	}
+
+}
@@ -0,0 +1,101 @@
+package com.librarymanagement.accesslog;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Writes one structured event per request to the {@code library.access}
+ * logger: method, endpoint pattern, status, latency, rows returned and SQL
+ * statements issued on the request thread (see {@link SqlStatementCounter}),
+ * as a single JSON object. The logger is routed to an
+ * asynchronous appender in {@code logback-spring.xml}, so request threads only
+ * enqueue the event. Requests are sampled and rate limited by
+ * {@link AccessLogSampler}; an event that is not written is never formatted.
+ */
+public class AccessLogFilter extends OncePerRequestFilter {
+
+	/** Request attribute holding the number of rows in the response body. */
+	static final String ROWS_ATTRIBUTE = AccessLogFilter.class.getName() + ".rows";
+
+	private static final Logger accessLog = LoggerFactory.getLogger("library.access");
+
+	private final SqlStatementCounter sqlStatementCounter;
+	private final AccessLogSampler sampler;
+
+	/**
+	 * Constructs an AccessLogFilter.
+	 *
+	 * @param sqlStatementCounter Counts the statements of each request.
+	 * @param sampler             Decides which requests are logged.
+	 */
+	AccessLogFilter(SqlStatementCounter sqlStatementCounter, AccessLogSampler sampler) {
+		this.sqlStatementCounter = sqlStatementCounter;
+		this.sampler = sampler;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		if (!accessLog.isInfoEnabled()) {
+			chain.doFilter(request, response);
+			return;
+		}
+		long start = System.nanoTime();
+		sqlStatementCounter.start();
+		boolean failed = true;
+		try {
+			chain.doFilter(request, response);
+			failed = false;
+		} finally {
+			long latencyNanos = System.nanoTime() - start;
+			int statements = sqlStatementCounter.stop();
+			// An exception escaping the chain becomes a 500 further out
+			int status = failed ? 500 : response.getStatus();
+			if (sampler.shouldLog(status, latencyNanos)) {
+				accessLog.info(format(request, status, latencyNanos, statements));
+			}
+		}
+	}
+
+	private String format(HttpServletRequest request, int status, long latencyNanos, int statements) {
+		Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		Object rows = request.getAttribute(ROWS_ATTRIBUTE);
+		StringBuilder event = new StringBuilder(192);
+		event.append("{\"method\":\"").append(request.getMethod());
+		event.append("\",\"endpoint\":\"");
+		appendEscaped(event, pattern != null ? pattern.toString() : request.getRequestURI());
+		event.append("\",\"status\":").append(status);
+		event.append(",\"latencyMs\":").append(latencyNanos / 1_000_000).append('.')
+				.append(latencyNanos / 1_000 % 1_000 / 100).append(latencyNanos / 1_000 % 100 / 10)
+				.append(latencyNanos / 1_000 % 10);
+		if (rows != null) {
+			event.append(",\"rows\":").append(rows);
+		}
+		event.append(",\"sql\":").append(statements);
+		event.append(",\"sampleRate\":").append(sampler.getSampleRate()).append('}');
+		return event.toString();
+	}
+
+	private static void appendEscaped(StringBuilder out, String value) {
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"' || c == '\\') {
+				out.append('\\').append(c);
+			} else if (c < 0x20) {
+				out.append(String.format("\\u%04x", (int) c));
+			} else {
+				out.append(c);
+			}
+		}
+	}
+
+}
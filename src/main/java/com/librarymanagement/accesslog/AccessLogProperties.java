@@ -0,0 +1,32 @@
+package com.librarymanagement.accesslog;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Settings of the structured access log of the library endpoints, bound from
+ * the {@code library.access-log} prefix. The file and the queue of the
+ * asynchronous appender are configured in {@code logback-spring.xml} from the
+ * same prefix.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "library.access-log")
+public class AccessLogProperties {
+
+	private boolean enabled = true;
+
+	/** Share of ordinary requests that are logged, between 0 and 1. */
+	private double sampleRate = 1.0;
+
+	/** Most events written per second, 0 for no limit. */
+	private int maxEventsPerSecond = 1000;
+
+	/** Requests at least this slow are logged regardless of the sample rate. */
+	private Duration slowThreshold = Duration.ofMillis(500);
+
+}
@@ -0,0 +1,83 @@
+package com.librarymanagement.accesslog;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Decides which requests get an access log event. Ordinary requests are
+ * sampled at the configured rate; server errors and slow requests are always
+ * kept. Every kept event then counts against a per-second limit, so a burst of
+ * traffic or of failures cannot flood the log.
+ */
+class AccessLogSampler {
+
+	private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+	private final double sampleRate;
+	private final long maxEventsPerSecond;
+	private final long slowThresholdNanos;
+	/** The current second in the upper half, the events written in it in the lower half. */
+	private final AtomicLong window = new AtomicLong();
+	private final Counter written;
+	private final Counter sampledOut;
+	private final Counter rateLimited;
+
+	AccessLogSampler(AccessLogProperties properties, MeterRegistry meterRegistry) {
+		this.sampleRate = properties.getSampleRate();
+		this.maxEventsPerSecond = properties.getMaxEventsPerSecond();
+		this.slowThresholdNanos = properties.getSlowThreshold().toNanos();
+		this.written = Counter.builder("library.access.log.events").tag("result", "written")
+				.description("Access log events written").register(meterRegistry);
+		this.sampledOut = Counter.builder("library.access.log.events").tag("result", "sampled_out")
+				.description("Requests left out of the access log by sampling").register(meterRegistry);
+		this.rateLimited = Counter.builder("library.access.log.events").tag("result", "rate_limited")
+				.description("Access log events dropped by the rate limit").register(meterRegistry);
+	}
+
+	/**
+	 * Decides whether a finished request is logged.
+	 *
+	 * @param status       The response status.
+	 * @param latencyNanos The time taken to handle the request.
+	 * @return true if an event should be written.
+	 */
+	boolean shouldLog(int status, long latencyNanos) {
+		boolean notable = status >= 500 || latencyNanos >= slowThresholdNanos;
+		if (!notable && sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+			sampledOut.increment();
+			return false;
+		}
+		if (!tryAcquire()) {
+			rateLimited.increment();
+			return false;
+		}
+		written.increment();
+		return true;
+	}
+
+	double getSampleRate() {
+		return sampleRate;
+	}
+
+	private boolean tryAcquire() {
+		if (maxEventsPerSecond <= 0) {
+			return true;
+		}
+		long second = (System.nanoTime() / NANOS_PER_SECOND) & 0xFFFFFFFFL;
+		while (true) {
+			long current = window.get();
+			long count = (current >>> 32) == second ? current & 0xFFFFFFFFL : 0;
+			if (count >= maxEventsPerSecond) {
+				return false;
+			}
+			if (window.compareAndSet(current, (second << 32) | (count + 1))) {
+				return true;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,59 @@
+package com.librarymanagement.accesslog;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread while a
+ * request is being handled. Statements of other threads, and statements
+ * outside of {@link #start()} and {@link #stop()}, are not counted.
+ * <p>
+ * The count is therefore what the request thread itself sent through
+ * Hibernate, not everything the request caused:
+ * <ul>
+ * <li>A lookup that joins one already in flight in
+ * {@link com.librarymanagement.service.impl.CoalescingLibraryService} waits for
+ * the leading request's result and logs {@code sql:0}; the statements are
+ * counted on the leading request only.</li>
+ * <li>Work handed to other threads, such as bulk scan ranges, is not counted.
+ * </li>
+ * <li>Plain JDBC, for example through a {@code JdbcTemplate}, bypasses the
+ * inspector and is not counted. The request paths only use JPA
+ * repositories.</li>
+ * </ul>
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+	private static final long serialVersionUID = 1L;
+
+	/** The count of the current thread, -1 while not counting. */
+	private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[] { -1 });
+
+	/**
+	 * Starts counting on the current thread.
+	 */
+	public void start() {
+		COUNT.get()[0] = 0;
+	}
+
+	/**
+	 * Stops counting on the current thread.
+	 *
+	 * @return The number of statements since {@link #start()}.
+	 */
+	public int stop() {
+		int[] count = COUNT.get();
+		int statements = Math.max(count[0], 0);
+		count[0] = -1;
+		return statements;
+	}
+
+	@Override
+	public String inspect(String sql) {
+		int[] count = COUNT.get();
+		if (count[0] >= 0) {
+			count[0]++;
+		}
+		return sql;
+	}
+
+}
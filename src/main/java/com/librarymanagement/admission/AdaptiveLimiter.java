@@ -0,0 +1,95 @@
+package com.librarymanagement.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limiter whose limit follows the observed latency using additive
+ * increase, multiplicative decrease (AIMD). Every call that completes within
+ * the latency target while the limiter is busy raises the limit by
+ * {@code 1 / limit}, i.e. by about one per round trip; every slow or timed
+ * out call multiplies it by the backoff ratio. Other failures say nothing about
+ * congestion and leave the limit alone. When the database slows down the
+ * limit therefore shrinks quickly and excess requests are turned away instead
+ * of queueing on JDBC connections.
+ */
+public class AdaptiveLimiter {
+
+	private final int minLimit;
+	private final int maxLimit;
+	private final long latencyTargetNanos;
+	private final double backoffRatio;
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private volatile double limit;
+
+	/**
+	 * Constructs an AdaptiveLimiter.
+	 *
+	 * @param initialLimit       The limit to start with.
+	 * @param minLimit           The limit never drops below this value.
+	 * @param maxLimit           The limit never grows above this value.
+	 * @param latencyTargetNanos Calls slower than this count as congestion.
+	 * @param backoffRatio       The factor applied to the limit on congestion.
+	 */
+	public AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit, long latencyTargetNanos,
+			double backoffRatio) {
+		if (minLimit < 1 || maxLimit < minLimit) {
+			throw new IllegalArgumentException("Limits must satisfy 1 <= min <= max");
+		}
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.latencyTargetNanos = latencyTargetNanos;
+		this.backoffRatio = backoffRatio;
+		this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+	}
+
+	/**
+	 * Admits a call if the number of calls in flight is below the current limit.
+	 *
+	 * @return true if the call was admitted and {@link #release} must follow.
+	 */
+	public boolean tryAcquire() {
+		while (true) {
+			int current = inFlight.get();
+			if (current >= (int) limit) {
+				return false;
+			}
+			if (inFlight.compareAndSet(current, current + 1)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Completes an admitted call and adapts the limit to its outcome.
+	 *
+	 * @param latencyNanos How long the call took.
+	 * @param timedOut     Whether the call failed because a resource did not
+	 *                     answer in time.
+	 */
+	public void release(long latencyNanos, boolean timedOut) {
+		int busy = inFlight.getAndDecrement();
+		synchronized (this) {
+			if (timedOut || latencyNanos > latencyTargetNanos) {
+				limit = Math.max(minLimit, limit * backoffRatio);
+			} else if (busy * 2 >= limit) {
+				// Only grow while the limit is actually being used
+				limit = Math.min(maxLimit, limit + 1.0 / limit);
+			}
+		}
+	}
+
+	/**
+	 * @return The current concurrency limit.
+	 */
+	public int getLimit() {
+		return (int) limit;
+	}
+
+	/**
+	 * @return The number of admitted calls that have not completed yet.
+	 */
+	public int getInFlight() {
+		return inFlight.get();
+	}
+
+}
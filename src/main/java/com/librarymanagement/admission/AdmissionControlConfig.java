@@ -0,0 +1,42 @@
+package com.librarymanagement.admission;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Registers the admission control interceptor in front of the library
+ * endpoints. Set {@code library.admission.enabled=false} to turn it off.
+ */
+@Configuration
+@EnableConfigurationProperties(AdmissionControlProperties.class)
+@ConditionalOnProperty(prefix = "library.admission", name = "enabled", matchIfMissing = true)
+public class AdmissionControlConfig implements WebMvcConfigurer {
+
+	private final AdmissionControlInterceptor admissionControlInterceptor;
+
+	/**
+	 * Constructs an AdmissionControlConfig.
+	 *
+	 * @param properties         The configured limits.
+	 * @param meterRegistry      The registry for the admission metrics.
+	 * @param connectionPoolSize The maximum size of the Hikari connection pool,
+	 *                           10 unless configured.
+	 */
+	public AdmissionControlConfig(AdmissionControlProperties properties, MeterRegistry meterRegistry,
+			@Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize) {
+		this.admissionControlInterceptor = new AdmissionControlInterceptor(properties, connectionPoolSize,
+				meterRegistry);
+	}
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(admissionControlInterceptor).addPathPatterns("/library/**");
+	}
+
+}
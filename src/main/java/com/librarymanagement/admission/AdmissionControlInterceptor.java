@@ -0,0 +1,132 @@
+package com.librarymanagement.admission;
+
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.librarymanagement.exceptions.ServiceBusyException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Admits or sheds requests to {@link Bulkhead} annotated handler methods. Each
+ * bulkhead has its own {@link AdaptiveLimiter}, so slow listings can only ever
+ * exhaust the listing limit and lookups keep being served. The listing and
+ * write limits are also capped at a share of the connection pool, so that the
+ * connections they hold leave some for the lookups. Handlers without the
+ * annotation, such as the actuator health checks, are never limited.
+ * <p>
+ * Only latency above the target and database timeouts shrink a limit. Other
+ * failures, such as missing entities or requests shed while waiting for a
+ * coalesced read, are not a sign of overload.
+ */
+public class AdmissionControlInterceptor implements HandlerInterceptor {
+
+	private static final String LIMITER_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".limiter";
+	private static final String START_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".start";
+	private static final int MAX_CAUSE_DEPTH = 16;
+
+	private final Map<BulkheadType, AdaptiveLimiter> limiters = new EnumMap<>(BulkheadType.class);
+	private final Map<BulkheadType, Counter> rejections = new EnumMap<>(BulkheadType.class);
+	private final long retryAfterSeconds;
+
+	/**
+	 * Constructs an AdmissionControlInterceptor with one limiter per bulkhead.
+	 *
+	 * @param properties         The configured limits.
+	 * @param connectionPoolSize The maximum size of the database connection pool
+	 *                           the bulkheads share.
+	 * @param meterRegistry      The registry for the admission metrics.
+	 */
+	public AdmissionControlInterceptor(AdmissionControlProperties properties, int connectionPoolSize,
+			MeterRegistry meterRegistry) {
+		this.retryAfterSeconds = properties.getRetryAfterSeconds();
+		for (BulkheadType type : BulkheadType.values()) {
+			AdmissionControlProperties.Limits limits = properties.limitsOf(type);
+			AdaptiveLimiter limiter = new AdaptiveLimiter(limits.getInitialLimit(), limits.getMinLimit(),
+					limits.maxLimitFor(connectionPoolSize), limits.getLatencyTarget().toNanos(),
+					limits.getBackoffRatio());
+			String bulkhead = type.name().toLowerCase();
+			limiters.put(type, limiter);
+			rejections.put(type, Counter.builder("library.admission.rejected").tag("bulkhead", bulkhead)
+					.description("Requests shed by admission control").register(meterRegistry));
+			Gauge.builder("library.admission.limit", limiter, AdaptiveLimiter::getLimit).tag("bulkhead", bulkhead)
+					.description("Current adaptive concurrency limit").register(meterRegistry);
+			Gauge.builder("library.admission.in.flight", limiter, AdaptiveLimiter::getInFlight)
+					.tag("bulkhead", bulkhead).description("Admitted requests in progress").register(meterRegistry);
+		}
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		if (!(handler instanceof HandlerMethod handlerMethod)) {
+			return true;
+		}
+		Bulkhead bulkhead = handlerMethod.getMethodAnnotation(Bulkhead.class);
+		if (bulkhead == null) {
+			return true;
+		}
+		AdaptiveLimiter limiter = limiters.get(bulkhead.value());
+		if (!limiter.tryAcquire()) {
+			rejections.get(bulkhead.value()).increment();
+			throw new ServiceBusyException("605", "Too many concurrent requests", retryAfterSeconds);
+		}
+		request.setAttribute(LIMITER_ATTRIBUTE, limiter);
+		request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+		return true;
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+			Exception ex) {
+		Object limiter = request.getAttribute(LIMITER_ATTRIBUTE);
+		if (limiter == null) {
+			return;
+		}
+		request.removeAttribute(LIMITER_ATTRIBUTE);
+		long latency = System.nanoTime() - (Long) request.getAttribute(START_ATTRIBUTE);
+		// Exceptions handled by the controller advice are only exposed as a request attribute
+		Throwable failure = ex != null ? ex : (Throwable) request.getAttribute(DispatcherServlet.EXCEPTION_ATTRIBUTE);
+		((AdaptiveLimiter) limiter).release(latency, isTimeout(failure));
+	}
+
+	/**
+	 * Checks whether a request failed because the database did not answer in
+	 * time, a query timeout or no pooled connection becoming available.
+	 *
+	 * @param failure The exception the request failed with, or null.
+	 * @return true if the exception or one of its causes is a timeout.
+	 */
+	static boolean isTimeout(Throwable failure) {
+		Throwable cause = failure;
+		for (int depth = 0; cause != null && depth < MAX_CAUSE_DEPTH; depth++) {
+			if (cause instanceof QueryTimeoutException || cause instanceof jakarta.persistence.QueryTimeoutException
+					|| cause instanceof SQLTimeoutException || cause instanceof SQLTransientConnectionException) {
+				return true;
+			}
+			cause = cause.getCause();
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the limiter guarding a bulkhead.
+	 *
+	 * @param type The bulkhead.
+	 * @return The limiter of the bulkhead.
+	 */
+	public AdaptiveLimiter limiterOf(BulkheadType type) {
+		return limiters.get(type);
+	}
+
+}
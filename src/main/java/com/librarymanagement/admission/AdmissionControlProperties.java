@@ -0,0 +1,102 @@
+package com.librarymanagement.admission;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Settings of the admission control in front of the library endpoints, bound
+ * from the {@code library.admission} prefix.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "library.admission")
+public class AdmissionControlProperties {
+
+	private boolean enabled = true;
+
+	/** Retry-After value sent with rejected requests. */
+	private long retryAfterSeconds = 1;
+
+	private Limits lookup = new Limits(64, 8, 256, Duration.ofMillis(100));
+
+	private Limits listing = new Limits(8, 1, 32, Duration.ofMillis(1000), 0.25);
+
+	private Limits write = new Limits(16, 2, 64, Duration.ofMillis(250), 0.25);
+
+	/**
+	 * Returns the limits configured for a bulkhead.
+	 *
+	 * @param type The bulkhead.
+	 * @return The limits of the bulkhead.
+	 */
+	public Limits limitsOf(BulkheadType type) {
+		return switch (type) {
+		case LOOKUP -> lookup;
+		case LISTING -> listing;
+		case WRITE -> write;
+		};
+	}
+
+	/**
+	 * Concurrency limits of a single bulkhead.
+	 */
+	@Getter
+	@Setter
+	public static class Limits {
+
+		private int initialLimit;
+		private int minLimit;
+		private int maxLimit;
+
+		/** Calls slower than this shrink the limit. */
+		private Duration latencyTarget;
+
+		/** Factor applied to the limit when a call is slow or fails. */
+		private double backoffRatio = 0.9;
+
+		/**
+		 * Share of the database connection pool the bulkhead may hold at once. The
+		 * maximum limit is capped at this share of the pool, so that the expensive
+		 * bulkheads cannot take every connection and starve the lookups. 0 leaves
+		 * the limit uncapped, as for the lookups, which the read model mostly
+		 * answers without a connection.
+		 */
+		private double poolShare;
+
+		public Limits() {
+		}
+
+		public Limits(int initialLimit, int minLimit, int maxLimit, Duration latencyTarget) {
+			this(initialLimit, minLimit, maxLimit, latencyTarget, 0);
+		}
+
+		public Limits(int initialLimit, int minLimit, int maxLimit, Duration latencyTarget, double poolShare) {
+			this.initialLimit = initialLimit;
+			this.minLimit = minLimit;
+			this.maxLimit = maxLimit;
+			this.latencyTarget = latencyTarget;
+			this.poolShare = poolShare;
+		}
+
+		/**
+		 * Returns the maximum limit capped at the bulkhead's share of the
+		 * connection pool, if it has one, but never below the minimum limit.
+		 *
+		 * @param connectionPoolSize The maximum size of the connection pool.
+		 * @return The effective maximum limit.
+		 */
+		public int maxLimitFor(int connectionPoolSize) {
+			if (poolShare <= 0) {
+				return maxLimit;
+			}
+			int share = (int) (connectionPoolSize * poolShare);
+			return Math.max(minLimit, Math.min(maxLimit, share));
+		}
+
+	}
+
+}
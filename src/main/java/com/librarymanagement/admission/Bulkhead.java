@@ -0,0 +1,24 @@
+package com.librarymanagement.admission;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Assigns a controller method to a bulkhead. Requests to the method are only
+ * admitted while the bulkhead's concurrency limit has room; otherwise they are
+ * rejected with 503 (Service Unavailable) before reaching the service layer.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Bulkhead {
+
+	/**
+	 * @return The bulkhead the annotated endpoint belongs to.
+	 */
+	BulkheadType value();
+
+}
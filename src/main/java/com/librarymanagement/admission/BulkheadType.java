@@ -0,0 +1,18 @@
+package com.librarymanagement.admission;
+
+/**
+ * The classes of endpoints that get their own concurrency limit, so that a
+ * flood of one class cannot use up the capacity of the others.
+ */
+public enum BulkheadType {
+
+	/** Cheap, index backed lookups returning a handful of rows. */
+	LOOKUP,
+
+	/** Listings that read a whole table or a whole genre. */
+	LISTING,
+
+	/** Inserts, updates and deletes. */
+	WRITE
+
+}
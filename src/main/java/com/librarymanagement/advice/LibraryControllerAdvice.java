@@ -4,6 +4,7 @@ import java.util.NoSuchElementException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
@@ -16,6 +17,9 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExcep
 
 import com.librarymanagement.exceptions.BookNamePresentException;
 import com.librarymanagement.exceptions.EmptyFieldException;
+import com.librarymanagement.exceptions.InvalidFieldException;
+import com.librarymanagement.exceptions.ServiceBusyException;
+import com.librarymanagement.exceptions.VersionConflictException;
 
 /**
  * This class serves as a global exception handler for the library application.
@@ -56,6 +60,61 @@ public class LibraryControllerAdvice extends ResponseEntityExceptionHandler {
 		return new ResponseEntity<String>("book name already present", HttpStatus.NOT_FOUND);
 	}
 
+	/**
+	 * Handles the InvalidFieldException by returning an appropriate error response.
+	 *
+	 * @param invalidFieldException The exception to be handled.
+	 * @return ResponseEntity containing the error message and HTTP status code.
+	 */
+	@ExceptionHandler(InvalidFieldException.class)
+	public ResponseEntity<String> handleInvalidFieldException(InvalidFieldException invalidFieldException) {
+		logger.error("An invalid field exception occurred: {}", invalidFieldException.getMessage());
+		return new ResponseEntity<String>(invalidFieldException.getErrorMessage(), HttpStatus.BAD_REQUEST);
+	}
+
+	/**
+	 * Handles the ServiceBusyException by returning a 503 (Service Unavailable)
+	 * response with a Retry-After header.
+	 *
+	 * @param serviceBusyException The exception to be handled.
+	 * @return ResponseEntity containing the error message and HTTP status code.
+	 */
+	@ExceptionHandler(ServiceBusyException.class)
+	public ResponseEntity<String> handleServiceBusyException(ServiceBusyException serviceBusyException) {
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+				.header(HttpHeaders.RETRY_AFTER, String.valueOf(serviceBusyException.getRetryAfterSeconds()))
+				.body("Service is busy,Please retry later");
+	}
+
+	/**
+	 * Handles the VersionConflictException by returning a 412 (Precondition
+	 * Failed) response: the client's version of the entity is out of date.
+	 *
+	 * @param versionConflictException The exception to be handled.
+	 * @return ResponseEntity containing the error message and HTTP status code.
+	 */
+	@ExceptionHandler(VersionConflictException.class)
+	public ResponseEntity<String> handleVersionConflictException(VersionConflictException versionConflictException) {
+		logger.error("A version conflict exception occurred: {}", versionConflictException.getMessage());
+		return new ResponseEntity<String>("Version is out of date,Please reload and retry",
+				HttpStatus.PRECONDITION_FAILED);
+	}
+
+	/**
+	 * Handles the OptimisticLockingFailureException raised when another request
+	 * changed the entity between this request's read and its write, by returning
+	 * a 409 (Conflict) response.
+	 *
+	 * @param optimisticLockingFailureException The exception to be handled.
+	 * @return ResponseEntity containing the error message and HTTP status code.
+	 */
+	@ExceptionHandler(OptimisticLockingFailureException.class)
+	public ResponseEntity<String> handleOptimisticLockingFailureException(
+			OptimisticLockingFailureException optimisticLockingFailureException) {
+		logger.error("An optimistic locking failure occurred: {}", optimisticLockingFailureException.getMessage());
+		return new ResponseEntity<String>("Modified concurrently,Please reload and retry", HttpStatus.CONFLICT);
+	}
+
 	/**
 	 * Handles the HttpRequestMethodNotSupportedException by returning an
 	 * appropriate error response.
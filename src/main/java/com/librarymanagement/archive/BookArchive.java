@@ -0,0 +1,224 @@
+package com.librarymanagement.archive;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.librarymanagement.entity.ArchivedBook;
+import com.librarymanagement.entity.Book;
+import com.librarymanagement.entity.CatalogueChange;
+import com.librarymanagement.event.CatalogueChangeEvent;
+import com.librarymanagement.repository.ArchivedBookRepository;
+import com.librarymanagement.repository.BookReadRepository;
+import com.librarymanagement.repository.BookRepository;
+import com.librarymanagement.repository.CatalogueChangeRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Moves books between the books table and the cold tier in
+ * {@code books_archive}. An archived book keeps its ID, name, category and
+ * version, and still counts towards its genre; it disappears from listings and
+ * from the by-genre reads until it is restored. Reading or writing an archived
+ * book by ID or name restores it first.
+ * <p>
+ * Both moves are recorded in the change log: archiving as a deletion and
+ * restoring as an upsert, so that every node's read model follows.
+ */
+@Service
+public class BookArchive {
+	private static final Logger logger = LoggerFactory.getLogger(BookArchive.class);
+
+	private final BookRepository bookRepository;
+	private final ArchivedBookRepository archivedBookRepository;
+	private final BookReadRepository bookReadRepository;
+	private final CatalogueChangeRepository catalogueChangeRepository;
+	private final ApplicationEventPublisher eventPublisher;
+	private final Counter archivedBooks;
+	private final Counter restoredBooks;
+
+	/**
+	 * Constructs a BookArchive.
+	 *
+	 * @param bookRepository            The repository for managing Book entities.
+	 * @param archivedBookRepository    The repository for the archived books.
+	 * @param bookReadRepository        The repository for the last read times.
+	 * @param catalogueChangeRepository The repository for the catalogue change
+	 *                                  log.
+	 * @param eventPublisher            Publishes a CatalogueChangeEvent for every
+	 *                                  move.
+	 * @param meterRegistry             The registry for the archive metrics.
+	 */
+	public BookArchive(BookRepository bookRepository, ArchivedBookRepository archivedBookRepository,
+			BookReadRepository bookReadRepository, CatalogueChangeRepository catalogueChangeRepository,
+			ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry) {
+		this.bookRepository = bookRepository;
+		this.archivedBookRepository = archivedBookRepository;
+		this.bookReadRepository = bookReadRepository;
+		this.catalogueChangeRepository = catalogueChangeRepository;
+		this.eventPublisher = eventPublisher;
+		this.archivedBooks = Counter.builder("library.book.archive").tag("action", "archived")
+				.description("Books moved to the archive").register(meterRegistry);
+		this.restoredBooks = Counter.builder("library.book.archive").tag("action", "restored")
+				.description("Books moved back from the archive").register(meterRegistry);
+	}
+
+	/**
+	 * Checks whether an archived book uses a name.
+	 *
+	 * @param name          The name to check.
+	 * @param excludeBookId The ID of the book being renamed, or null on insert.
+	 * @return true if an archived book other than the excluded one has the same
+	 *         name key.
+	 */
+	public boolean isNameArchived(String name, Long excludeBookId) {
+		String nameKey = Book.nameKey(name);
+		return excludeBookId == null ? archivedBookRepository.existsByNameKey(nameKey)
+				: archivedBookRepository.existsByNameKeyAndBookIdNot(nameKey, excludeBookId);
+	}
+
+	/**
+	 * Checks whether a book is archived, without locking it. Lookups check
+	 * this before {@link #restore(Long)}, so that a miss does not open a
+	 * read-write transaction and lock the archive.
+	 *
+	 * @param bookId The ID of the book.
+	 * @return true if the book is archived.
+	 */
+	public boolean isArchived(Long bookId) {
+		return archivedBookRepository.existsById(bookId);
+	}
+
+	/**
+	 * Checks whether a book with a specific name is archived, without locking
+	 * it. The by-name counterpart of {@link #isArchived(Long)}.
+	 *
+	 * @param name The name of the book.
+	 * @return true if a book with the name is archived.
+	 */
+	public boolean isArchivedByName(String name) {
+		return archivedBookRepository.existsByName(name);
+	}
+
+	/**
+	 * Moves an archived book back to the books table.
+	 *
+	 * @param bookId The ID of the book.
+	 * @return The restored book, or empty if the book is not archived.
+	 */
+	@Transactional
+	public Optional<Book> restore(Long bookId) {
+		return archivedBookRepository.findForRestore(bookId).map(this::restore);
+	}
+
+	/**
+	 * Moves an archived book with a specific name back to the books table.
+	 *
+	 * @param name The name of the book.
+	 * @return The restored book, or empty if no book with the name is archived.
+	 */
+	@Transactional
+	public Optional<Book> restoreByName(String name) {
+		return archivedBookRepository.findForRestoreByName(name).map(this::restore);
+	}
+
+	/**
+	 * Deletes an archived book for good.
+	 *
+	 * @param bookId The ID of the book.
+	 * @return The deleted book, or empty if the book is not archived.
+	 */
+	@Transactional
+	public Optional<ArchivedBook> delete(Long bookId) {
+		Optional<ArchivedBook> archived = archivedBookRepository.findForRestore(bookId);
+		archived.ifPresent(archivedBookRepository::delete);
+		return archived;
+	}
+
+	/**
+	 * Starts tracking the read time of books that have none, such as new and
+	 * restored books, and forgets the read times of books that are gone.
+	 *
+	 * @return The number of books now tracked.
+	 */
+	@Transactional
+	public int trackNewBooks() {
+		int tracked = bookReadRepository.trackUntrackedBooks();
+		bookReadRepository.deleteOrphans();
+		return tracked;
+	}
+
+	/**
+	 * Retrieves the books not read since a point in time.
+	 *
+	 * @param cutoff The read time below which a book is cold.
+	 * @param limit  The maximum number of books to return.
+	 * @return The IDs of cold books, coldest first.
+	 */
+	@Transactional(readOnly = true)
+	public List<Long> findColdBookIds(Instant cutoff, int limit) {
+		return bookReadRepository.findColdBookIds(cutoff, PageRequest.ofSize(limit));
+	}
+
+	/**
+	 * Moves books to the archive. Each book is removed only if it still has the
+	 * version it was read with, so a book updated concurrently stays. The read
+	 * times of all given books are dropped; the ones that stay are tracked anew
+	 * on the next pass.
+	 *
+	 * @param bookIds The IDs of the books.
+	 * @return The number of books archived.
+	 */
+	@Transactional
+	public int archive(Collection<Long> bookIds) {
+		Instant now = Instant.now();
+		int archived = 0;
+		for (Object[] row : bookRepository.findCatalogueRowsByIds(bookIds)) {
+			Long bookId = (Long) row[0];
+			Long version = (Long) row[4];
+			if (bookRepository.deleteIfVersionMatches(bookId, version) == 0) {
+				continue;
+			}
+			archivedBookRepository.save(new ArchivedBook(bookId, (String) row[2],
+					DescriptionCodec.deflate((String) row[3]), (Long) row[1], version, now));
+			publishChange(CatalogueChangeEvent.bookDeleted(bookId));
+			archived++;
+		}
+		bookReadRepository.deleteAllByIdInBatch(bookIds);
+		archivedBooks.increment(archived);
+		return archived;
+	}
+
+	private Book restore(ArchivedBook archived) {
+		bookRepository.insertWithId(archived.getBookId(), archived.getName(), archived.getNameKey(),
+				DescriptionCodec.inflate(archived.getDescriptionDeflated()), archived.getCategoryId(),
+				archived.getVersion());
+		archivedBookRepository.delete(archived);
+		Book book = bookRepository.findById(archived.getBookId())
+				.orElseThrow(() -> new IllegalStateException("Restored book " + archived.getBookId() + " not found"));
+		publishChange(CatalogueChangeEvent.bookUpserted(book));
+		restoredBooks.increment();
+		logger.debug("Restored archived book with ID: {}", book.getBookId());
+		return book;
+	}
+
+	/**
+	 * Records a change in the change log and publishes it, stamped with its
+	 * change log id, to the listeners that run after commit.
+	 */
+	private void publishChange(CatalogueChangeEvent event) {
+		CatalogueChange change = catalogueChangeRepository
+				.save(new CatalogueChange(event.getType(), event.getId(), Instant.now()));
+		eventPublisher.publishEvent(event.withChangeId(change.getChangeId()));
+	}
+
+}
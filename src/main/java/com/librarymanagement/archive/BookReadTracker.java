@@ -0,0 +1,94 @@
+package com.librarymanagement.archive;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.librarymanagement.repository.BookReadRepository;
+
+/**
+ * Collects the IDs of books read since the last flush in memory and writes
+ * their read time to {@code book_reads} periodically, so that a read costs no
+ * database write. The recorded time is the flush time, which is precise
+ * enough for a threshold measured in days. Only lookups by ID or by name are
+ * recorded; listings and reads by category are not, since they touch every
+ * book on a page whether anyone wanted it or not.
+ */
+@Component
+public class BookReadTracker {
+	private static final int CHUNK_SIZE = 1000;
+
+	private final BookReadRepository bookReadRepository;
+	private final boolean enabled;
+	private final AtomicReference<Set<Long>> pendingIds = new AtomicReference<>(ConcurrentHashMap.newKeySet());
+	private final AtomicReference<Set<String>> pendingNames = new AtomicReference<>(ConcurrentHashMap.newKeySet());
+
+	/**
+	 * Constructs a BookReadTracker.
+	 *
+	 * @param bookReadRepository The repository the read times are written to.
+	 * @param enabled            Whether books are archived at all.
+	 */
+	public BookReadTracker(BookReadRepository bookReadRepository,
+			@Value("${library.archive.enabled:true}") boolean enabled) {
+		this.bookReadRepository = bookReadRepository;
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Records that a book was read.
+	 *
+	 * @param bookId The ID of the book.
+	 */
+	public void recordRead(Long bookId) {
+		if (enabled && bookId != null) {
+			pendingIds.get().add(bookId);
+		}
+	}
+
+	/**
+	 * Records that a book was read by its name, for reads whose result does not
+	 * carry the ID.
+	 *
+	 * @param name The name of the book.
+	 */
+	public void recordReadByName(String name) {
+		if (enabled && name != null) {
+			pendingNames.get().add(name);
+		}
+	}
+
+	/**
+	 * Writes the reads collected since the last flush. A read recorded while a
+	 * set is being swapped may be missed; at worst the book is archived early and
+	 * restored on its next read.
+	 *
+	 * @return The number of read times updated.
+	 */
+	@Scheduled(fixedDelayString = "${library.archive.read-flush-interval-ms:60000}")
+	@Transactional
+	public int flush() {
+		Instant now = Instant.now();
+		List<Long> bookIds = new ArrayList<>(pendingIds.getAndSet(ConcurrentHashMap.newKeySet()));
+		List<String> names = new ArrayList<>(pendingNames.getAndSet(ConcurrentHashMap.newKeySet()));
+		int updated = 0;
+		for (int from = 0; from < bookIds.size(); from += CHUNK_SIZE) {
+			updated += bookReadRepository.recordReads(bookIds.subList(from, Math.min(bookIds.size(), from + CHUNK_SIZE)),
+					now);
+		}
+		for (int from = 0; from < names.size(); from += CHUNK_SIZE) {
+			updated += bookReadRepository.recordReadsByName(names.subList(from, Math.min(names.size(), from + CHUNK_SIZE)),
+					now);
+		}
+		return updated;
+	}
+
+}
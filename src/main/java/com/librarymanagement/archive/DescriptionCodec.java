@@ -0,0 +1,70 @@
+package com.librarymanagement.archive;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compresses book descriptions for the archive with zlib deflate.
+ */
+final class DescriptionCodec {
+	private static final int BUFFER_SIZE = 256;
+
+	private DescriptionCodec() {
+	}
+
+	/**
+	 * Compresses a description.
+	 *
+	 * @param description The description.
+	 * @return The UTF-8 bytes of the description, deflated.
+	 */
+	static byte[] deflate(String description) {
+		byte[] input = description.getBytes(StandardCharsets.UTF_8);
+		Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+		try {
+			deflater.setInput(input);
+			deflater.finish();
+			ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 2 + 16);
+			byte[] buffer = new byte[BUFFER_SIZE];
+			while (!deflater.finished()) {
+				out.write(buffer, 0, deflater.deflate(buffer));
+			}
+			return out.toByteArray();
+		} finally {
+			deflater.end();
+		}
+	}
+
+	/**
+	 * Decompresses a description.
+	 *
+	 * @param deflated The bytes returned by {@link #deflate}.
+	 * @return The description.
+	 * @throws IllegalStateException if the bytes are not a complete deflate
+	 *                               stream.
+	 */
+	static String inflate(byte[] deflated) {
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(deflated);
+			ByteArrayOutputStream out = new ByteArrayOutputStream(deflated.length * 3);
+			byte[] buffer = new byte[BUFFER_SIZE];
+			while (!inflater.finished()) {
+				int length = inflater.inflate(buffer);
+				if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+					throw new IllegalStateException("Archived description is truncated");
+				}
+				out.write(buffer, 0, length);
+			}
+			return out.toString(StandardCharsets.UTF_8);
+		} catch (DataFormatException e) {
+			throw new IllegalStateException("Archived description is corrupt", e);
+		} finally {
+			inflater.end();
+		}
+	}
+
+}
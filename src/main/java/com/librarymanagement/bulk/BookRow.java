@@ -0,0 +1,52 @@
+package com.librarymanagement.bulk;
+
+/**
+ * The columns of one book as read by a bulk scan, without an entity or a
+ * persistence context behind it.
+ */
+public final class BookRow {
+
+	private final long bookId;
+	private final Long categoryId;
+	private final String name;
+	private final String bookDescription;
+	private final long version;
+
+	/**
+	 * Create a new BookRow instance with provided values.
+	 *
+	 * @param bookId          The ID of the book.
+	 * @param categoryId      The ID of its category, or null.
+	 * @param name            The name of the book.
+	 * @param bookDescription The description of the book.
+	 * @param version         The version of the book.
+	 */
+	public BookRow(long bookId, Long categoryId, String name, String bookDescription, long version) {
+		this.bookId = bookId;
+		this.categoryId = categoryId;
+		this.name = name;
+		this.bookDescription = bookDescription;
+		this.version = version;
+	}
+
+	public long getBookId() {
+		return bookId;
+	}
+
+	public Long getCategoryId() {
+		return categoryId;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getBookDescription() {
+		return bookDescription;
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+}
@@ -0,0 +1,28 @@
+package com.librarymanagement.bulk;
+
+import java.util.List;
+
+/**
+ * Receives the rows of a bulk scan. Different ranges are delivered
+ * concurrently from different threads, but the batches of one range arrive in
+ * id order from a single thread, so a consumer can keep per-range state
+ * without locking.
+ */
+@FunctionalInterface
+public interface BookScanConsumer {
+
+	/**
+	 * Accepts a batch of rows of a range.
+	 *
+	 * @param range The range the rows belong to.
+	 * @param rows  The rows, in ascending id order.
+	 */
+	void accept(IdRange range, List<BookRow> rows);
+
+	/**
+	 * Called once after every range has been delivered successfully.
+	 */
+	default void onComplete() {
+	}
+
+}
@@ -0,0 +1,136 @@
+package com.librarymanagement.bulk;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Handle of a running or finished bulk scan, exposing its progress, its
+ * throughput and a way to cancel it.
+ */
+public final class BulkScan {
+
+	private final String name;
+	private final int totalRanges;
+	private final long startNanos = System.nanoTime();
+	private final AtomicInteger completedRanges = new AtomicInteger();
+	private final LongAdder rows = new LongAdder();
+	private final CompletableFuture<Long> completion = new CompletableFuture<>();
+	private volatile boolean cancelled;
+	private volatile long endNanos;
+
+	BulkScan(String name, int totalRanges) {
+		this.name = name;
+		this.totalRanges = totalRanges;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public int getTotalRanges() {
+		return totalRanges;
+	}
+
+	public int getCompletedRanges() {
+		return completedRanges.get();
+	}
+
+	public long getRowsScanned() {
+		return rows.sum();
+	}
+
+	/**
+	 * @return The share of ranges completed, between 0 and 1.
+	 */
+	public double getProgress() {
+		return totalRanges == 0 ? 1 : (double) completedRanges.get() / totalRanges;
+	}
+
+	/**
+	 * @return The average number of rows scanned per second so far.
+	 */
+	public double getRowsPerSecond() {
+		long end = isDone() ? endNanos : System.nanoTime();
+		double seconds = Math.max(1, end - startNanos) / 1e9;
+		return rows.sum() / seconds;
+	}
+
+	public boolean isDone() {
+		return completion.isDone();
+	}
+
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	/**
+	 * Requests the scan to stop. Ranges in progress stop at their next batch and
+	 * the consumer's {@link BookScanConsumer#onComplete} is not called.
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	/**
+	 * Waits for the scan to finish.
+	 *
+	 * @return The number of rows scanned.
+	 * @throws CancellationException if the scan was cancelled.
+	 * @throws IllegalStateException if a range failed or the wait was
+	 *                               interrupted.
+	 */
+	public long await() {
+		try {
+			return completion.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			cancel();
+			throw new IllegalStateException("Interrupted waiting for bulk scan " + name, e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof CancellationException cancellation) {
+				throw cancellation;
+			}
+			throw new IllegalStateException("Bulk scan " + name + " failed", e.getCause());
+		}
+	}
+
+	/**
+	 * @return The state of the scan as name to value pairs, for reporting.
+	 */
+	public Map<String, Object> describe() {
+		Map<String, Object> description = new LinkedHashMap<>();
+		description.put("name", name);
+		description.put("totalRanges", totalRanges);
+		description.put("completedRanges", getCompletedRanges());
+		description.put("progress", getProgress());
+		description.put("rowsScanned", getRowsScanned());
+		description.put("rowsPerSecond", getRowsPerSecond());
+		description.put("cancelled", cancelled);
+		description.put("done", isDone());
+		return description;
+	}
+
+	void addRows(int count) {
+		rows.add(count);
+	}
+
+	void rangeCompleted() {
+		completedRanges.incrementAndGet();
+	}
+
+	void complete() {
+		endNanos = System.nanoTime();
+		completion.complete(rows.sum());
+	}
+
+	void fail(Throwable failure) {
+		endNanos = System.nanoTime();
+		completion.completeExceptionally(failure);
+	}
+
+}
@@ -0,0 +1,34 @@
+package com.librarymanagement.bulk;
+
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.jmx.annotation.JmxEndpoint;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint cancelling a running bulk scan. The application has no web
+ * authentication, so the operation is only available over JMX, where access is
+ * governed by the JVM's JMX settings, and never over HTTP.
+ */
+@Component
+@JmxEndpoint(id = "bulkscancontrol")
+public class BulkScanControlEndpoint {
+
+	private final BulkScanner bulkScanner;
+
+	public BulkScanControlEndpoint(BulkScanner bulkScanner) {
+		this.bulkScanner = bulkScanner;
+	}
+
+	@DeleteOperation
+	public Map<String, Object> cancel(String name) {
+		BulkScan scan = bulkScanner.getScan(name);
+		if (scan == null) {
+			return null;
+		}
+		scan.cancel();
+		return scan.describe();
+	}
+
+}
@@ -0,0 +1,37 @@
+package com.librarymanagement.bulk;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint reporting the progress and throughput of bulk scans at
+ * {@code /actuator/bulkscans}. It is read-only so it can be exposed over the
+ * web; cancelling a scan is left to {@link BulkScanControlEndpoint}.
+ */
+@Component
+@Endpoint(id = "bulkscans")
+public class BulkScanEndpoint {
+
+	private final BulkScanner bulkScanner;
+
+	public BulkScanEndpoint(BulkScanner bulkScanner) {
+		this.bulkScanner = bulkScanner;
+	}
+
+	@ReadOperation
+	public List<Map<String, Object>> scans() {
+		return bulkScanner.getScans().stream().map(BulkScan::describe).toList();
+	}
+
+	@ReadOperation
+	public Map<String, Object> scan(@Selector String name) {
+		BulkScan scan = bulkScanner.getScan(name);
+		return scan == null ? null : scan.describe();
+	}
+
+}
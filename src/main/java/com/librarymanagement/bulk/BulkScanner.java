@@ -0,0 +1,215 @@
+package com.librarymanagement.bulk;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.librarymanagement.repository.BookRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Reads the whole books table in parallel for rebuilds such as cache warm-up,
+ * reindexing or audits. The id space between the smallest and the largest book
+ * id is split into fixed-size ranges that are streamed concurrently, each in
+ * its own read-only transaction, on a bounded pool of worker threads. Rows are
+ * handed to a {@link BookScanConsumer} in batches.
+ */
+@Component
+public class BulkScanner {
+	private static final Logger logger = LoggerFactory.getLogger(BulkScanner.class);
+
+	private final BookRepository bookRepository;
+	private final TransactionTemplate transactionTemplate;
+	private final ExecutorService executor;
+	private final long rangeSize;
+	private final int fetchSize;
+	private final int batchSize;
+	private final MeterRegistry meterRegistry;
+	private final Map<String, BulkScan> scans = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructs a BulkScanner.
+	 *
+	 * @param bookRepository     The repository the books are read from.
+	 * @param transactionManager The transaction manager for the per-range
+	 *                           transactions.
+	 * @param meterRegistry      The registry for the scan metrics.
+	 * @param parallelism        The number of ranges scanned concurrently.
+	 * @param rangeSize          The number of ids per range.
+	 * @param fetchSize          The JDBC fetch size of the range queries.
+	 * @param batchSize          The number of rows handed to the consumer at once.
+	 */
+	public BulkScanner(BookRepository bookRepository, PlatformTransactionManager transactionManager,
+			MeterRegistry meterRegistry, @Value("${library.bulk-scan.parallelism:4}") int parallelism,
+			@Value("${library.bulk-scan.range-size:50000}") long rangeSize,
+			@Value("${library.bulk-scan.fetch-size:1000}") int fetchSize,
+			@Value("${library.bulk-scan.batch-size:1000}") int batchSize) {
+		this.bookRepository = bookRepository;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.transactionTemplate.setReadOnly(true);
+		this.meterRegistry = meterRegistry;
+		this.rangeSize = rangeSize;
+		this.fetchSize = fetchSize;
+		this.batchSize = batchSize;
+		AtomicInteger threads = new AtomicInteger();
+		ThreadFactory threadFactory = runnable -> {
+			Thread thread = new Thread(runnable, "bulk-scan-" + threads.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+		this.executor = Executors.newFixedThreadPool(parallelism, threadFactory);
+		Gauge.builder("library.bulk.scan.active", scans, active -> active.values().stream()
+				.filter(scan -> !scan.isDone()).count()).description("Bulk scans in progress").register(meterRegistry);
+	}
+
+	/**
+	 * Starts a scan of all books. Only one scan per name runs at a time.
+	 *
+	 * @param name     Identifies the scan in metrics and reports.
+	 * @param consumer Receives the rows.
+	 * @return The handle of the started scan.
+	 * @throws IllegalStateException if a scan with the same name is running.
+	 */
+	public BulkScan scan(String name, BookScanConsumer consumer) {
+		List<IdRange> ranges = split(bookRepository.findBookIdBounds());
+		BulkScan scan = scans.compute(name, (key, running) -> {
+			if (running != null && !running.isDone()) {
+				throw new IllegalStateException("Bulk scan " + name + " is already running");
+			}
+			return new BulkScan(name, ranges.size());
+		});
+
+		Counter rows = meterRegistry.counter("library.bulk.scan.rows", "scan", name);
+		Timer duration = meterRegistry.timer("library.bulk.scan.duration", "scan", name);
+		Timer.Sample sample = Timer.start(meterRegistry);
+		logger.info("Starting bulk scan {} over {} ranges", name, ranges.size());
+
+		List<CompletableFuture<Void>> tasks = new ArrayList<>(ranges.size());
+		for (IdRange range : ranges) {
+			tasks.add(CompletableFuture.runAsync(() -> scanRange(scan, range, consumer, rows), executor)
+					.whenComplete((ignored, failure) -> {
+						// One failed range fails the scan, so stop the others early
+						if (failure != null) {
+							scan.cancel();
+						}
+					}));
+		}
+		CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).whenComplete((ignored, failure) -> {
+			sample.stop(duration);
+			if (failure == null && scan.isCancelled()) {
+				failure = new CancellationException("Bulk scan " + name + " was cancelled");
+			}
+			if (failure != null) {
+				Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+				logger.warn("Bulk scan {} stopped after {} rows: {}", name, scan.getRowsScanned(), cause.toString());
+				scan.fail(cause);
+				return;
+			}
+			try {
+				consumer.onComplete();
+				scan.complete();
+				logger.info("Bulk scan {} read {} rows at {} rows/s", name, scan.getRowsScanned(),
+						Math.round(scan.getRowsPerSecond()));
+			} catch (RuntimeException e) {
+				scan.fail(e);
+			}
+		});
+		return scan;
+	}
+
+	/**
+	 * @return The scans started so far, the latest per name.
+	 */
+	public Collection<BulkScan> getScans() {
+		return scans.values();
+	}
+
+	/**
+	 * Returns the latest scan with the given name.
+	 *
+	 * @param name The name of the scan.
+	 * @return The scan, or null if none was started under the name.
+	 */
+	public BulkScan getScan(String name) {
+		return scans.get(name);
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		scans.values().forEach(BulkScan::cancel);
+		executor.shutdownNow();
+	}
+
+	private List<IdRange> split(long[] bounds) {
+		List<IdRange> ranges = new ArrayList<>();
+		if (bounds == null) {
+			return ranges;
+		}
+		for (long from = bounds[0]; from <= bounds[1]; from += rangeSize) {
+			ranges.add(new IdRange(ranges.size(), from, Math.min(bounds[1], from + rangeSize - 1)));
+			if (from > Long.MAX_VALUE - rangeSize) {
+				break;
+			}
+		}
+		return ranges;
+	}
+
+	private void scanRange(BulkScan scan, IdRange range, BookScanConsumer consumer, Counter rows) {
+		if (scan.isCancelled()) {
+			throw new CancellationException();
+		}
+		transactionTemplate.executeWithoutResult(status -> {
+			try (Stream<Object[]> stream = bookRepository.streamCatalogueRange(range.getFromId(), range.getToId(),
+					fetchSize)) {
+				List<BookRow> batch = new ArrayList<>(batchSize);
+				Iterator<Object[]> iterator = stream.iterator();
+				while (iterator.hasNext()) {
+					Object[] row = iterator.next();
+					batch.add(new BookRow((Long) row[0], (Long) row[1], (String) row[2], (String) row[3],
+							(Long) row[4]));
+					if (batch.size() == batchSize) {
+						deliver(scan, range, consumer, rows, batch);
+						batch = new ArrayList<>(batchSize);
+					}
+				}
+				if (!batch.isEmpty()) {
+					deliver(scan, range, consumer, rows, batch);
+				}
+			}
+		});
+		scan.rangeCompleted();
+	}
+
+	private void deliver(BulkScan scan, IdRange range, BookScanConsumer consumer, Counter rows, List<BookRow> batch) {
+		if (scan.isCancelled()) {
+			throw new CancellationException();
+		}
+		consumer.accept(range, batch);
+		scan.addRows(batch.size());
+		rows.increment(batch.size());
+	}
+
+}
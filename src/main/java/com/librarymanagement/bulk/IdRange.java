@@ -0,0 +1,43 @@
+package com.librarymanagement.bulk;
+
+/**
+ * An inclusive range of book ids scanned as one unit of a bulk scan. Ranges of
+ * a scan are numbered from 0 in ascending id order.
+ */
+public final class IdRange {
+
+	private final int index;
+	private final long fromId;
+	private final long toId;
+
+	/**
+	 * Create a new IdRange instance with provided values.
+	 *
+	 * @param index  The position of the range within its scan.
+	 * @param fromId The first book id of the range.
+	 * @param toId   The last book id of the range.
+	 */
+	public IdRange(int index, long fromId, long toId) {
+		this.index = index;
+		this.fromId = fromId;
+		this.toId = toId;
+	}
+
+	public int getIndex() {
+		return index;
+	}
+
+	public long getFromId() {
+		return fromId;
+	}
+
+	public long getToId() {
+		return toId;
+	}
+
+	@Override
+	public String toString() {
+		return "IdRange [index=" + index + ", fromId=" + fromId + ", toId=" + toId + "]";
+	}
+
+}
@@ -0,0 +1,125 @@
+package com.librarymanagement.concurrent;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.librarymanagement.exceptions.ServiceBusyException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Collapses concurrent calls that share a key into a single execution. The
+ * first caller for a key (the leader) runs the loader on its own thread; every
+ * caller arriving while the leader is still running (a follower) waits, for a
+ * bounded time, for the leader's result or exception instead of running the
+ * loader again.
+ */
+@Component
+public class SingleFlight {
+	private static final Logger logger = LoggerFactory.getLogger(SingleFlight.class);
+
+	private final ConcurrentHashMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+	private final boolean enabled;
+	private final long maxWaitMillis;
+	private final Counter leaders;
+	private final Counter followers;
+	private final Counter timeouts;
+
+	/**
+	 * Constructs a SingleFlight registering its metrics with the given registry.
+	 *
+	 * @param meterRegistry The registry for the coalescing metrics.
+	 * @param enabled       Whether calls are coalesced at all.
+	 * @param maxWaitMillis How long a follower waits for the leader's result.
+	 */
+	public SingleFlight(MeterRegistry meterRegistry,
+			@Value("${library.coalescing.enabled:true}") boolean enabled,
+			@Value("${library.coalescing.max-wait-ms:2000}") long maxWaitMillis) {
+		this.enabled = enabled;
+		this.maxWaitMillis = maxWaitMillis;
+		this.leaders = Counter.builder("library.coalescing.calls").tag("role", "leader")
+				.description("Calls that executed the underlying read").register(meterRegistry);
+		this.followers = Counter.builder("library.coalescing.calls").tag("role", "follower")
+				.description("Calls that shared the result of an in-flight read").register(meterRegistry);
+		this.timeouts = Counter.builder("library.coalescing.timeouts")
+				.description("Followers that gave up waiting for the leader").register(meterRegistry);
+		Gauge.builder("library.coalescing.in.flight", inFlight, ConcurrentHashMap::size)
+				.description("Distinct reads currently in flight").register(meterRegistry);
+		Gauge.builder("library.coalescing.collapse.ratio", this, SingleFlight::collapseRatio)
+				.description("Share of calls served by another call's read").register(meterRegistry);
+	}
+
+	/**
+	 * Runs the loader for the key, or joins an identical call already in flight.
+	 *
+	 * @param <V>    The type of the result.
+	 * @param key    Identifies the call; equal keys must produce equal results.
+	 * @param loader Produces the result when this caller becomes the leader.
+	 * @return The result of the loader.
+	 * @throws ServiceBusyException if a follower times out waiting for the leader.
+	 */
+	@SuppressWarnings("unchecked")
+	public <V> V execute(Object key, Supplier<V> loader) {
+		if (!enabled) {
+			return loader.get();
+		}
+		CompletableFuture<Object> call = new CompletableFuture<>();
+		CompletableFuture<Object> existing = inFlight.putIfAbsent(key, call);
+		if (existing == null) {
+			leaders.increment();
+			try {
+				V result = loader.get();
+				call.complete(result);
+				return result;
+			} catch (RuntimeException | Error e) {
+				call.completeExceptionally(e);
+				throw e;
+			} finally {
+				inFlight.remove(key, call);
+			}
+		}
+
+		followers.increment();
+		try {
+			return (V) existing.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			timeouts.increment();
+			logger.debug("Gave up waiting for in-flight call {}", key);
+			throw new ServiceBusyException("604", "Timed out waiting for an identical request", 1);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ServiceBusyException("604", "Interrupted waiting for an identical request", 1);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			if (cause instanceof Error error) {
+				throw error;
+			}
+			throw new IllegalStateException(cause);
+		}
+	}
+
+	/**
+	 * Returns the share of calls that were served by another call's read.
+	 *
+	 * @return A value between 0 and 1.
+	 */
+	public double collapseRatio() {
+		double total = leaders.count() + followers.count();
+		return total == 0 ? 0 : followers.count() / total;
+	}
+
+}
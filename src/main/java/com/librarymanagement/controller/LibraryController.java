@@ -1,18 +1,25 @@
 package com.librarymanagement.controller;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import com.librarymanagement.admission.Bulkhead;
+import com.librarymanagement.admission.BulkheadType;
 import com.librarymanagement.entity.Book;
 import com.librarymanagement.entity.Category;
-import com.librarymanagement.service.impl.LibraryServiceImpl;
+import com.librarymanagement.exceptions.VersionConflictException;
+import com.librarymanagement.projection.BookField;
+import com.librarymanagement.projection.GenreStatisticsSummary;
+import com.librarymanagement.service.LibraryService;
 
 /**
  * Controller class for managing operations related to the library management
@@ -25,14 +32,14 @@ public class LibraryController {
 	private static final Logger logger = LoggerFactory.getLogger(LibraryController.class);
 
 	@Autowired
-	private LibraryServiceImpl libraryService;
+	private LibraryService libraryService;
 
 	/**
 	 * Constructor for injecting the LibraryService dependency.
 	 *
 	 * @param libraryService The LibraryService instance.
 	 */
-	public LibraryController(LibraryServiceImpl libraryService) {
+	public LibraryController(LibraryService libraryService) {
 		super();
 		this.libraryService = libraryService;
 	}
@@ -44,10 +51,11 @@ public class LibraryController {
 	 * @return The added category with a HTTP status of 201 (Created).
 	 */
 	@PostMapping("/category/addcategory")
+	@Bulkhead(BulkheadType.WRITE)
 	public ResponseEntity<Category> addNewCategory(@RequestBody Category category) {
-		logger.info("Adding a new category: " + category.getCategoryName());
+		logger.debug("Adding a new category: {}", category.getCategoryName());
 		Category addedCategory = libraryService.addNewCategory(category);
-		logger.info("Category added: {}", addedCategory.getCategoryName());
+		logger.debug("Category added: {}", addedCategory.getCategoryName());
 		return new ResponseEntity<Category>(addedCategory, HttpStatus.CREATED);
 	}
 
@@ -58,26 +66,33 @@ public class LibraryController {
 	 * @return The added book with a HTTP status of 201 (Created).
 	 */
 	@PostMapping("/books/addbook")
+	@Bulkhead(BulkheadType.WRITE)
 	public ResponseEntity<Book> addNewBook(@RequestBody Book book) {
-		logger.info("Adding a new book: " + book.getName());
+		logger.debug("Adding a new book: {}", book.getName());
 		Book addedBook = libraryService.addNewBook(book);
-		logger.info("Book added: {}", addedBook.getName());
+		logger.debug("Book added: {}", addedBook.getName());
 		return new ResponseEntity<Book>(addedBook, HttpStatus.CREATED);
 	}
 
 	/**
-	 * Updates the details of a book in the system.
+	 * Updates the details of a book in the system. The update only applies while
+	 * the book still has the version given in the If-Match header, or in the
+	 * request body if there is no header.
 	 *
 	 * @param bookId      The ID of the book to be updated.
 	 * @param updatedBook The updated book details.
-	 * @return The updated book with a HTTP status of 200 (OK).
+	 * @param ifMatch     The ETag of the version the client last saw, optional.
+	 * @return The updated book and its new ETag with a HTTP status of 200 (OK).
 	 */
 	@PutMapping("/books/{bookId}")
-	public ResponseEntity<Book> updateBookDetails(@PathVariable Long bookId, @RequestBody Book updatedBook) {
-		logger.info("Updating book with ID: " + bookId);
-		Book updated = libraryService.updateBook(bookId, updatedBook);
-		logger.info("Book updated: {}", updated.getName());
-		return new ResponseEntity<Book>(updated, HttpStatus.OK);
+	@Bulkhead(BulkheadType.WRITE)
+	public ResponseEntity<Book> updateBookDetails(@PathVariable Long bookId, @RequestBody Book updatedBook,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+		logger.debug("Updating book with ID: {}", bookId);
+		Book updated = libraryService.updateBook(bookId, updatedBook,
+				expectedVersion(ifMatch, updatedBook.getVersion()));
+		logger.debug("Book updated: {}", updated.getName());
+		return ResponseEntity.status(HttpStatus.OK).eTag(eTag(updated.getVersion())).body(updated);
 	}
 
 	/**
@@ -86,13 +101,27 @@ public class LibraryController {
 	 * @return A list of genres with a HTTP status of 200 (OK).
 	 */
 	@GetMapping("/category/genres")
+	@Bulkhead(BulkheadType.LISTING)
 	public ResponseEntity<List<Category>> getAllGenres() {
-		logger.info("Getting all genres");
+		logger.debug("Getting all genres");
 		List<Category> genres = libraryService.getAllGenres();
-		logger.info("Total categories retrieved: {}", genres.size());
 		return new ResponseEntity<List<Category>>(genres, HttpStatus.OK);
 	}
 
+	/**
+	 * Retrieves the number of books per genre (category), the total and the genres
+	 * that most recently received a book.
+	 *
+	 * @return The genre statistics with a HTTP status of 200 (OK).
+	 */
+	@GetMapping("/category/statistics")
+	@Bulkhead(BulkheadType.LOOKUP)
+	public ResponseEntity<GenreStatisticsSummary> getGenreStatistics() {
+		logger.debug("Getting genre statistics");
+		GenreStatisticsSummary statistics = libraryService.getGenreStatistics();
+		return new ResponseEntity<GenreStatisticsSummary>(statistics, HttpStatus.OK);
+	}
+
 	/**
 	 * Retrieves a set of books belonging to a specific genre (category) by its ID.
 	 *
@@ -100,13 +129,30 @@ public class LibraryController {
 	 * @return A set of books with a HTTP status of 200 (OK).
 	 */
 	@GetMapping("/books/{categoryId}")
+	@Bulkhead(BulkheadType.LISTING)
 	public ResponseEntity<Set<Book>> getBooksByGenre(@PathVariable Long categoryId) {
-		logger.info("Getting books for category with ID: " + categoryId);
+		logger.debug("Getting books for category with ID: {}", categoryId);
 		Set<Book> books = libraryService.getBooksByGenre(categoryId);
-		logger.info("Total books retrieved for category with ID '{}': {}", categoryId, books.size());
 		return new ResponseEntity<Set<Book>>(books, HttpStatus.OK);
 	}
 
+	/**
+	 * Retrieves the books of a specific genre (category), restricted to the fields
+	 * named in the {@code fields} parameter, e.g. {@code ?fields=bookId,name}.
+	 *
+	 * @param categoryId The ID of the genre (category).
+	 * @param fields     Comma separated list of fields to return.
+	 * @return A list of partial books with a HTTP status of 200 (OK).
+	 */
+	@GetMapping(value = "/books/{categoryId}", params = "fields")
+	@Bulkhead(BulkheadType.LISTING)
+	public ResponseEntity<List<Map<String, Object>>> getBooksByGenre(@PathVariable Long categoryId,
+			@RequestParam String fields) {
+		logger.debug("Getting books for category with ID: {} and fields: {}", categoryId, fields);
+		List<Map<String, Object>> books = libraryService.getBooksByGenre(categoryId, BookField.parse(fields));
+		return new ResponseEntity<List<Map<String, Object>>>(books, HttpStatus.OK);
+	}
+
 	/**
 	 * Deletes a book from the system by its ID.
 	 *
@@ -115,10 +161,11 @@ public class LibraryController {
 	 *         successful deletion.
 	 */
 	@DeleteMapping("/deletebook/{bookid}")
+	@Bulkhead(BulkheadType.WRITE)
 	public ResponseEntity<Void> deleteBookById(@PathVariable("bookid") Long bookId) {
-		logger.info("Deleting book with ID: " + bookId);
+		logger.debug("Deleting book with ID: {}", bookId);
 		libraryService.deleteBook(bookId);
-		logger.info("Book deleted with ID: {}", bookId);
+		logger.debug("Book deleted with ID: {}", bookId);
 		return new ResponseEntity<Void>(HttpStatus.ACCEPTED);
 	}
 
@@ -128,13 +175,42 @@ public class LibraryController {
 	 * @return A list of books with a HTTP status of 200 (OK).
 	 */
 	@GetMapping("/getallbook")
+	@Bulkhead(BulkheadType.LISTING)
 	public ResponseEntity<List<Book>> getAllBooks() {
-		logger.info("Getting all books");
+		logger.debug("Getting all books");
 		List<Book> listOfBooks = libraryService.findAllBooks();
-		logger.info("Total books retrieved: {}", listOfBooks.size());
 		return new ResponseEntity<List<Book>>(listOfBooks, HttpStatus.OK);
 	}
 
+	/**
+	 * Retrieves all books in the system, restricted to the fields named in the
+	 * {@code fields} parameter.
+	 *
+	 * @param fields Comma separated list of fields to return.
+	 * @return A list of partial books with a HTTP status of 200 (OK).
+	 */
+	@GetMapping(value = "/getallbook", params = "fields")
+	@Bulkhead(BulkheadType.LISTING)
+	public ResponseEntity<List<Map<String, Object>>> getAllBooks(@RequestParam String fields) {
+		logger.debug("Getting all books with fields: {}", fields);
+		List<Map<String, Object>> listOfBooks = libraryService.findAllBooks(BookField.parse(fields));
+		return new ResponseEntity<List<Map<String, Object>>>(listOfBooks, HttpStatus.OK);
+	}
+
+	/**
+	 * Retrieves a single book by its ID.
+	 *
+	 * @param bookId The ID of the book.
+	 * @return The book with a HTTP status of 200 (OK).
+	 */
+	@GetMapping("/getbookbyid/{bookId}")
+	@Bulkhead(BulkheadType.LOOKUP)
+	public ResponseEntity<Book> getBookById(@PathVariable Long bookId) {
+		logger.debug("Getting book with ID: {}", bookId);
+		Book book = libraryService.findBookById(bookId);
+		return ResponseEntity.status(HttpStatus.OK).eTag(eTag(book.getVersion())).body(book);
+	}
+
 	/**
 	 * Retrieves a list of books by their name.
 	 *
@@ -142,27 +218,53 @@ public class LibraryController {
 	 * @return A list of matching books with a HTTP status of 200 (OK).
 	 */
 	@GetMapping("/getbookbyname/{name}")
+	@Bulkhead(BulkheadType.LOOKUP)
 	public ResponseEntity<List<Book>> getBookByName(@PathVariable("name") String name) {
-		logger.info("Searching for books with name: " + name);
+		logger.debug("Searching for books with name: {}", name);
 		List<Book> listOfBooks = libraryService.findBookByName(name);
-		logger.info("Total books retrieved with name '{}': {}", name, listOfBooks.size());
 		return new ResponseEntity<List<Book>>(listOfBooks, HttpStatus.OK);
 	}
 
 	/**
-	 * Updates the details of a category in the system.
+	 * Retrieves a list of books by their name, restricted to the fields named in
+	 * the {@code fields} parameter.
+	 *
+	 * @param name   The name of the book to search for.
+	 * @param fields Comma separated list of fields to return.
+	 * @return A list of partial books with a HTTP status of 200 (OK).
+	 */
+	@GetMapping(value = "/getbookbyname/{name}", params = "fields")
+	@Bulkhead(BulkheadType.LOOKUP)
+	public ResponseEntity<List<Map<String, Object>>> getBookByName(@PathVariable("name") String name,
+			@RequestParam String fields) {
+		logger.debug("Searching for books with name: {} and fields: {}", name, fields);
+		List<Map<String, Object>> listOfBooks = libraryService.findBookByName(name, BookField.parse(fields));
+		return new ResponseEntity<List<Map<String, Object>>>(listOfBooks, HttpStatus.OK);
+	}
+
+	/**
+	 * Updates the details of a category in the system. The update only applies
+	 * while the category still has the version given in the If-Match header, or
+	 * in the request body if there is no header.
 	 *
 	 * @param categoryId     The ID of the category to be updated.
 	 * @param updateCategory The updated category details.
-	 * @return The updated category with a HTTP status of 201 (Created).
+	 * @param ifMatch        The ETag of the version the client last saw,
+	 *                       optional.
+	 * @return The updated category and its new ETag with a HTTP status of 201
+	 *         (Created).
 	 */
 	@PutMapping("/updatecategory/{categoryId}")
+	@Bulkhead(BulkheadType.WRITE)
 	public ResponseEntity<Category> updateCategory(@PathVariable Long categoryId,
-			@RequestBody Category updateCategory) {
-		logger.info("Updating category with ID: " + categoryId);
-		Category updatedCategory = libraryService.updateCategory(categoryId, updateCategory);
-		logger.info("Category updated: {}", updatedCategory.getCategoryName());
-		return new ResponseEntity<Category>(updatedCategory, HttpStatus.CREATED);
+			@RequestBody Category updateCategory,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+		logger.debug("Updating category with ID: {}", categoryId);
+		Category updatedCategory = libraryService.updateCategory(categoryId, updateCategory,
+				expectedVersion(ifMatch, updateCategory.getVersion()));
+		logger.debug("Category updated: {}", updatedCategory.getCategoryName());
+		return ResponseEntity.status(HttpStatus.CREATED).eTag(eTag(updatedCategory.getVersion()))
+				.body(updatedCategory);
 	}
 
 	/**
@@ -173,11 +275,39 @@ public class LibraryController {
 	 *         successful deletion.
 	 */
 	@DeleteMapping("/deletecategory/{categoryid}")
+	@Bulkhead(BulkheadType.WRITE)
 	public ResponseEntity<Void> deleteCategoryById(@PathVariable("categoryid") Long categoryId) {
-		logger.info("Deleting category with ID: " + categoryId);
+		logger.debug("Deleting category with ID: {}", categoryId);
 		libraryService.deleteCategory(categoryId);
-		logger.info("Category deleted with ID: {}", categoryId);
+		logger.debug("Category deleted with ID: {}", categoryId);
 		return new ResponseEntity<Void>(HttpStatus.ACCEPTED);
 	}
 
+	/**
+	 * Resolves the version a conditional update must match: the If-Match header
+	 * if present, otherwise the version in the request body. {@code *} matches
+	 * any version. A weak or malformed entity tag can never match.
+	 */
+	private static Long expectedVersion(String ifMatch, Long bodyVersion) {
+		if (ifMatch == null || ifMatch.isBlank()) {
+			return bodyVersion;
+		}
+		String tag = ifMatch.trim();
+		if (tag.equals("*")) {
+			return null;
+		}
+		if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+			try {
+				return Long.valueOf(tag.substring(1, tag.length() - 1));
+			} catch (NumberFormatException e) {
+				// Falls through to the conflict below
+			}
+		}
+		throw new VersionConflictException("607", String.format("If-Match '%s' matches no version", ifMatch));
+	}
+
+	private static String eTag(Long version) {
+		return "\"" + (version == null ? 0 : version) + "\"";
+	}
+
 }
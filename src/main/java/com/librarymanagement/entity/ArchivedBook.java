@@ -0,0 +1,125 @@
+package com.librarymanagement.entity;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+
+/**
+ * Represents a book moved to the cold tier because it was not read for a
+ * while. The row keeps the book's ID, name, category and version so it can be
+ * moved back unchanged; the description is stored deflated.
+ */
+@Entity
+@Table(name = "books_archive", indexes = {
+		@Index(name = ArchivedBook.NAME_INDEX, columnList = "book_name", unique = true),
+		@Index(name = ArchivedBook.NAME_KEY_INDEX, columnList = "book_name_key", unique = true),
+		@Index(name = "idx_books_archive_category_id", columnList = "category_id") })
+public class ArchivedBook implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Unique index keeping archived names distinct. */
+	public static final String NAME_INDEX = "uk_books_archive_book_name";
+
+	/** Unique index keeping archived name keys distinct. */
+	public static final String NAME_KEY_INDEX = "uk_books_archive_book_name_key";
+
+	@Id
+	@Column(name = "book_id")
+	private Long bookId;
+
+	@Column(name = "book_name", length = 100, nullable = false)
+	private String name;
+
+	/** The normalised name, see {@link Book#nameKey(String)}. */
+	@Column(name = "book_name_key", length = 400, nullable = false)
+	private String nameKey;
+
+	@Column(name = "book_description_deflated", length = 1024, nullable = false)
+	private byte[] descriptionDeflated;
+
+	@Column(name = "category_id")
+	private Long categoryId;
+
+	@Column(name = "version", nullable = false)
+	private Long version;
+
+	@Column(name = "archived_at", nullable = false)
+	private Instant archivedAt;
+
+	// Getter Methods
+
+	public Long getBookId() {
+		return bookId;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getNameKey() {
+		return nameKey;
+	}
+
+	public byte[] getDescriptionDeflated() {
+		return descriptionDeflated;
+	}
+
+	public Long getCategoryId() {
+		return categoryId;
+	}
+
+	public Long getVersion() {
+		return version;
+	}
+
+	public Instant getArchivedAt() {
+		return archivedAt;
+	}
+
+	/**
+	 * Create a new ArchivedBook instance with provided values.
+	 *
+	 * @param bookId              The ID the book had and keeps.
+	 * @param name                The name of the book.
+	 * @param descriptionDeflated The deflated description of the book.
+	 * @param categoryId          The ID of the book's category.
+	 * @param version             The version of the book when it was archived.
+	 * @param archivedAt          When the book was archived.
+	 */
+	public ArchivedBook(Long bookId, String name, byte[] descriptionDeflated, Long categoryId, Long version,
+			Instant archivedAt) {
+		super();
+		this.bookId = bookId;
+		this.name = name;
+		this.descriptionDeflated = descriptionDeflated;
+		this.categoryId = categoryId;
+		this.version = version;
+		this.archivedAt = archivedAt;
+	}
+
+	/**
+	 * Create a new empty ArchivedBook instance.
+	 */
+	public ArchivedBook() {
+		super();
+	}
+
+	@PrePersist
+	void updateNameKey() {
+		this.nameKey = name == null ? null : Book.nameKey(name);
+	}
+
+	@Override
+	public String toString() {
+		return "ArchivedBook [bookId=" + bookId + ", name=" + name + ", categoryId=" + categoryId + ", version="
+				+ version + ", archivedAt=" + archivedAt + "]";
+	}
+
+}
@@ -1,7 +1,11 @@
 package com.librarymanagement.entity;
 
 import java.io.Serializable;
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 import jakarta.persistence.Column;
@@ -9,21 +13,37 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import jakarta.persistence.Transient;
+import jakarta.persistence.Version;
 
 /**
  * Represents a Book entity in the library management system.
  */
 
 @Entity
-@Table(name = "books")
+@Table(name = "books", indexes = { @Index(name = Book.NAME_INDEX, columnList = "book_name", unique = true),
+		@Index(name = Book.NAME_KEY_INDEX, columnList = "book_name_key", unique = true) })
 public class Book implements Serializable {
 
 	private static final long serialVersionUID = 1L;
 
+	/** Unique index enforcing that no two books share a name. */
+	public static final String NAME_INDEX = "uk_books_book_name";
+
+	/**
+	 * Unique index enforcing that no two books share a name once normalised, see
+	 * {@link #nameKey(String)}.
+	 */
+	public static final String NAME_KEY_INDEX = "uk_books_book_name_key";
+
+	private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	private Long bookId;
@@ -31,6 +51,11 @@ public class Book implements Serializable {
 	@Column(name = "book_name",length = 100, nullable = false)
 	private String name;
 
+	/** The normalised name, maintained from the name on every write. */
+	@JsonIgnore
+	@Column(name = "book_name_key", length = 400, nullable = false)
+	private String nameKey;
+
 	@Column(name = "book_description", length = 250, nullable = false)
 	private String bookDescription;
 
@@ -42,6 +67,11 @@ public class Book implements Serializable {
 	@Transient
 	private Long categoryId;
 
+	/** Incremented on every update, for optimistic locking. */
+	@Version
+	@Column(name = "version", nullable = false)
+	private Long version;
+
 	// Getter Methods
 
 	public Long getBookId() {
@@ -52,6 +82,10 @@ public class Book implements Serializable {
 		return name;
 	}
 
+	public String getNameKey() {
+		return nameKey;
+	}
+
 	public String getBookDescription() {
 		return bookDescription;
 	}
@@ -64,6 +98,10 @@ public class Book implements Serializable {
 		return categoryId;
 	}
 
+	public Long getVersion() {
+		return version;
+	}
+
 	// Setter Methods
 
 	public void setBookId(Long bookId) {
@@ -86,6 +124,29 @@ public class Book implements Serializable {
 		this.categoryId = categoryId;
 	}
 
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
+	@PrePersist
+	@PreUpdate
+	void updateNameKey() {
+		this.nameKey = name == null ? null : nameKey(name);
+	}
+
+	/**
+	 * Normalises a book name into the key under which names are unique: NFKC,
+	 * trimmed, inner whitespace collapsed to one space and lower case. Two books
+	 * have the same name exactly when their keys are equal.
+	 *
+	 * @param name The book name.
+	 * @return The name key.
+	 */
+	public static String nameKey(String name) {
+		String normalized = Normalizer.normalize(name, Normalizer.Form.NFKC).trim();
+		return WHITESPACE.matcher(normalized).replaceAll(" ").toLowerCase(Locale.ROOT);
+	}
+
 	@Override
 	public String toString() {
 		return "Book [bookId=" + bookId + ", name=" + name + ", bookDescription=" + bookDescription + ", categoryId="
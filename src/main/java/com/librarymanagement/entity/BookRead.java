@@ -0,0 +1,51 @@
+package com.librarymanagement.entity;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Records when a book in the books table was last read. Books whose last read
+ * is older than the cold threshold are moved to the archive.
+ */
+@Entity
+@Table(name = "book_reads", indexes = @Index(name = "idx_book_reads_last_read_at", columnList = "last_read_at"))
+public class BookRead implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	@Id
+	@Column(name = "book_id")
+	private Long bookId;
+
+	@Column(name = "last_read_at", nullable = false)
+	private Instant lastReadAt;
+
+	// Getter Methods
+
+	public Long getBookId() {
+		return bookId;
+	}
+
+	public Instant getLastReadAt() {
+		return lastReadAt;
+	}
+
+	/**
+	 * Create a new empty BookRead instance.
+	 */
+	public BookRead() {
+		super();
+	}
+
+	@Override
+	public String toString() {
+		return "BookRead [bookId=" + bookId + ", lastReadAt=" + lastReadAt + "]";
+	}
+
+}
@@ -0,0 +1,109 @@
+package com.librarymanagement.entity;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import com.librarymanagement.event.CatalogueChangeEvent;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Represents one entry of the catalogue change log. A row is written in the
+ * same transaction as every book or category change, so that nodes holding an
+ * in-memory copy of the catalogue can catch up with exactly the rows changed
+ * since their copy was taken.
+ */
+@Entity
+@Table(name = "catalogue_changes", indexes = @Index(name = "idx_catalogue_changes_changed_at",
+		columnList = "changed_at"))
+public class CatalogueChange implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@Column(name = "change_id")
+	private Long changeId;
+
+	@Enumerated(EnumType.STRING)
+	@Column(name = "change_type", length = 20, nullable = false)
+	private CatalogueChangeEvent.Type changeType;
+
+	@Column(name = "entity_id", nullable = false)
+	private Long entityId;
+
+	@Column(name = "changed_at", nullable = false)
+	private Instant changedAt;
+
+	// Getter Methods
+
+	public Long getChangeId() {
+		return changeId;
+	}
+
+	public CatalogueChangeEvent.Type getChangeType() {
+		return changeType;
+	}
+
+	public Long getEntityId() {
+		return entityId;
+	}
+
+	public Instant getChangedAt() {
+		return changedAt;
+	}
+
+	// Setter Methods
+
+	public void setChangeId(Long changeId) {
+		this.changeId = changeId;
+	}
+
+	public void setChangeType(CatalogueChangeEvent.Type changeType) {
+		this.changeType = changeType;
+	}
+
+	public void setEntityId(Long entityId) {
+		this.entityId = entityId;
+	}
+
+	public void setChangedAt(Instant changedAt) {
+		this.changedAt = changedAt;
+	}
+
+	/**
+	 * Create a new CatalogueChange instance with provided values.
+	 *
+	 * @param changeType The kind of change.
+	 * @param entityId   The ID of the changed book or category.
+	 * @param changedAt  When the change was made.
+	 */
+	public CatalogueChange(CatalogueChangeEvent.Type changeType, Long entityId, Instant changedAt) {
+		super();
+		this.changeType = changeType;
+		this.entityId = entityId;
+		this.changedAt = changedAt;
+	}
+
+	/**
+	 * Create a new empty CatalogueChange instance.
+	 */
+	public CatalogueChange() {
+		super();
+	}
+
+	@Override
+	public String toString() {
+		return "CatalogueChange [changeId=" + changeId + ", changeType=" + changeType + ", entityId=" + entityId
+				+ ", changedAt=" + changedAt + "]";
+	}
+
+}
@@ -14,6 +14,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 /**
  * Represents a Category entity in the library management system.
@@ -35,6 +36,11 @@ public class Category implements Serializable {
 	@JsonIgnoreProperties("categories")
 	private Set<Book> setOfBooks = new HashSet<>();
 
+	/** Incremented on every update, for optimistic locking. */
+	@Version
+	@Column(name = "version", nullable = false)
+	private Long version;
+
 	// Getter Methods
 
 	public Long getCategoryId() {
@@ -49,6 +55,10 @@ public class Category implements Serializable {
 		return setOfBooks;
 	}
 
+	public Long getVersion() {
+		return version;
+	}
+
 	// Setter Methods
 
 	public void setCategoryId(Long categoryId) {
@@ -63,6 +73,10 @@ public class Category implements Serializable {
 		this.setOfBooks = setOfBooks;
 	}
 
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
 	/**
 	 * Create a new Category instance with provided values.
 	 *
@@ -0,0 +1,96 @@
+package com.librarymanagement.entity;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Holds the pre-aggregated book counter of a category. Rows are maintained
+ * incrementally by the service on every book insert and delete, so per-genre
+ * counts never require loading the books themselves.
+ */
+@Entity
+@Table(name = "genre_statistics")
+public class GenreStatistics implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	@Id
+	@Column(name = "category_id")
+	private Long categoryId;
+
+	@Column(name = "book_count", nullable = false)
+	private long bookCount;
+
+	@Column(name = "last_book_id")
+	private Long lastBookId;
+
+	@Column(name = "last_book_added_at")
+	private Instant lastBookAddedAt;
+
+	// Getter Methods
+
+	public Long getCategoryId() {
+		return categoryId;
+	}
+
+	public long getBookCount() {
+		return bookCount;
+	}
+
+	public Long getLastBookId() {
+		return lastBookId;
+	}
+
+	public Instant getLastBookAddedAt() {
+		return lastBookAddedAt;
+	}
+
+	// Setter Methods
+
+	public void setCategoryId(Long categoryId) {
+		this.categoryId = categoryId;
+	}
+
+	public void setBookCount(long bookCount) {
+		this.bookCount = bookCount;
+	}
+
+	public void setLastBookId(Long lastBookId) {
+		this.lastBookId = lastBookId;
+	}
+
+	public void setLastBookAddedAt(Instant lastBookAddedAt) {
+		this.lastBookAddedAt = lastBookAddedAt;
+	}
+
+	/**
+	 * Create a new GenreStatistics instance with provided values.
+	 *
+	 * @param categoryId The ID of the category the counter belongs to.
+	 * @param bookCount  The number of books in the category.
+	 */
+	public GenreStatistics(Long categoryId, long bookCount) {
+		super();
+		this.categoryId = categoryId;
+		this.bookCount = bookCount;
+	}
+
+	/**
+	 * Create a new empty GenreStatistics instance.
+	 */
+	public GenreStatistics() {
+		super();
+	}
+
+	@Override
+	public String toString() {
+		return "GenreStatistics [categoryId=" + categoryId + ", bookCount=" + bookCount + ", lastBookId=" + lastBookId
+				+ ", lastBookAddedAt=" + lastBookAddedAt + "]";
+	}
+
+}
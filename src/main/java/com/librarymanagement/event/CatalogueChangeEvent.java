@@ -0,0 +1,159 @@
+package com.librarymanagement.event;
+
+import com.librarymanagement.entity.Book;
+import com.librarymanagement.entity.Category;
+
+/**
+ * Published by the service for every book or category it writes. Listeners
+ * that maintain in-memory copies of the catalogue consume it after the
+ * transaction has committed. Upserts carry the new column values so that
+ * listeners never have to read them back from the database, including the
+ * entity's optimistic locking version. The change id is
+ * the id of the matching row in the change log, or 0 if it is not known.
+ */
+public class CatalogueChangeEvent {
+
+	/**
+	 * The kind of change.
+	 */
+	public enum Type {
+		BOOK_UPSERTED, BOOK_DELETED, CATEGORY_UPSERTED, CATEGORY_DELETED
+	}
+
+	private final Type type;
+	private final long changeId;
+	private final long id;
+	private final Long categoryId;
+	private final String name;
+	private final String description;
+	private final long version;
+
+	private CatalogueChangeEvent(Type type, long changeId, long id, Long categoryId, String name,
+			String description, long version) {
+		this.type = type;
+		this.changeId = changeId;
+		this.id = id;
+		this.categoryId = categoryId;
+		this.name = name;
+		this.description = description;
+		this.version = version;
+	}
+
+	/**
+	 * Create an event for an inserted or updated book.
+	 *
+	 * @param book The book as saved.
+	 * @return The event.
+	 */
+	public static CatalogueChangeEvent bookUpserted(Book book) {
+		Long categoryId = book.getCategories() == null ? null : book.getCategories().getCategoryId();
+		return bookUpserted(book.getBookId(), categoryId, book.getName(), book.getBookDescription(),
+				versionOf(book.getVersion()));
+	}
+
+	/**
+	 * Create an event for an inserted or updated book from its column values.
+	 *
+	 * @param bookId      The ID of the book.
+	 * @param categoryId  The ID of its category, or null.
+	 * @param name        The name of the book.
+	 * @param description The description of the book.
+	 * @param version     The version of the book.
+	 * @return The event.
+	 */
+	public static CatalogueChangeEvent bookUpserted(long bookId, Long categoryId, String name, String description,
+			long version) {
+		return new CatalogueChangeEvent(Type.BOOK_UPSERTED, 0, bookId, categoryId, name, description, version);
+	}
+
+	/**
+	 * Create an event for a deleted book.
+	 *
+	 * @param bookId The ID of the deleted book.
+	 * @return The event.
+	 */
+	public static CatalogueChangeEvent bookDeleted(long bookId) {
+		return new CatalogueChangeEvent(Type.BOOK_DELETED, 0, bookId, null, null, null, 0);
+	}
+
+	/**
+	 * Create an event for an inserted or updated category.
+	 *
+	 * @param category The category as saved.
+	 * @return The event.
+	 */
+	public static CatalogueChangeEvent categoryUpserted(Category category) {
+		return categoryUpserted(category.getCategoryId(), category.getCategoryName(),
+				versionOf(category.getVersion()));
+	}
+
+	/**
+	 * Create an event for an inserted or updated category from its column values.
+	 *
+	 * @param categoryId   The ID of the category.
+	 * @param categoryName The name of the category.
+	 * @param version      The version of the category.
+	 * @return The event.
+	 */
+	public static CatalogueChangeEvent categoryUpserted(long categoryId, String categoryName, long version) {
+		return new CatalogueChangeEvent(Type.CATEGORY_UPSERTED, 0, categoryId, null, categoryName, null, version);
+	}
+
+	/**
+	 * Create an event for a deleted category.
+	 *
+	 * @param categoryId The ID of the deleted category.
+	 * @return The event.
+	 */
+	public static CatalogueChangeEvent categoryDeleted(long categoryId) {
+		return new CatalogueChangeEvent(Type.CATEGORY_DELETED, 0, categoryId, null, null, null, 0);
+	}
+
+	/**
+	 * Returns a copy of this event carrying the given change log id.
+	 *
+	 * @param changeId The id of the change log row.
+	 * @return The event.
+	 */
+	public CatalogueChangeEvent withChangeId(long changeId) {
+		return new CatalogueChangeEvent(type, changeId, id, categoryId, name, description, version);
+	}
+
+	private static long versionOf(Long version) {
+		return version == null ? 0 : version;
+	}
+
+	public Type getType() {
+		return type;
+	}
+
+	public long getChangeId() {
+		return changeId;
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	public Long getCategoryId() {
+		return categoryId;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getDescription() {
+		return description;
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+	@Override
+	public String toString() {
+		return "CatalogueChangeEvent [type=" + type + ", changeId=" + changeId + ", id=" + id + "]";
+	}
+
+}
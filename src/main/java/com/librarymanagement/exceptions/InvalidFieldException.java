@@ -0,0 +1,40 @@
+package com.librarymanagement.exceptions;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * This exception is thrown when a request names a field that the application
+ * does not know about. It extends RuntimeException and provides an error code
+ * and error message to be used in the response.
+ */
+@Component
+@Getter
+@Setter
+@NoArgsConstructor
+public class InvalidFieldException extends RuntimeException {
+	private static final Logger logger = LoggerFactory.getLogger(InvalidFieldException.class);
+	private static final long serialVersionUID = 1L;
+	private String errorCode;
+	private String errorMessage;
+
+	/**
+	 * Constructs an InvalidFieldException with the specified error code and error
+	 * message.
+	 *
+	 * @param errorCode    The error code associated with the exception.
+	 * @param errorMessage The error message associated with the exception.
+	 */
+	public InvalidFieldException(String errorCode, String errorMessage) {
+		super(errorMessage);
+		this.errorCode = errorCode;
+		this.errorMessage = errorMessage;
+
+		logger.error("An invalid field exception occurred - ErrorCode: {}, ErrorMessage: {}", errorCode, errorMessage);
+	}
+}
@@ -0,0 +1,43 @@
+package com.librarymanagement.exceptions;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * This exception is thrown when the application cannot serve a request in time
+ * because it is overloaded. It extends RuntimeException and provides an error
+ * code, error message and a retry hint to be used in the response.
+ */
+@Component
+@Getter
+@Setter
+@NoArgsConstructor
+public class ServiceBusyException extends RuntimeException {
+	private static final Logger logger = LoggerFactory.getLogger(ServiceBusyException.class);
+	private static final long serialVersionUID = 1L;
+	private String errorCode;
+	private String errorMessage;
+	private long retryAfterSeconds;
+
+	/**
+	 * Constructs a ServiceBusyException with the specified error code, error
+	 * message and retry hint.
+	 *
+	 * @param errorCode         The error code associated with the exception.
+	 * @param errorMessage      The error message associated with the exception.
+	 * @param retryAfterSeconds How long the client should wait before retrying.
+	 */
+	public ServiceBusyException(String errorCode, String errorMessage, long retryAfterSeconds) {
+		super(errorMessage);
+		this.errorCode = errorCode;
+		this.errorMessage = errorMessage;
+		this.retryAfterSeconds = retryAfterSeconds;
+
+		logger.debug("A service busy exception occurred - ErrorCode: {}, ErrorMessage: {}", errorCode, errorMessage);
+	}
+}
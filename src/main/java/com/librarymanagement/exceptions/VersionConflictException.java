@@ -0,0 +1,40 @@
+package com.librarymanagement.exceptions;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * This exception is thrown when a conditional update names a version that the
+ * entity no longer has, because another client changed it in the meantime. It
+ * extends RuntimeException and provides an error code and error message.
+ */
+@Component
+@Getter
+@Setter
+@NoArgsConstructor
+public class VersionConflictException extends RuntimeException {
+	private static final Logger logger = LoggerFactory.getLogger(VersionConflictException.class);
+	private static final long serialVersionUID = 1L;
+	private String errorCode;
+	private String errorMessage;
+
+	/**
+	 * Constructs a VersionConflictException with the specified error code and
+	 * error message.
+	 *
+	 * @param errorCode    The error code associated with the exception.
+	 * @param errorMessage The error message associated with the exception.
+	 */
+	public VersionConflictException(String errorCode, String errorMessage) {
+		super(errorMessage);
+		this.errorCode = errorCode;
+		this.errorMessage = errorMessage;
+
+		logger.warn("Version conflict exception occurred - ErrorCode: {}, ErrorMessage: {}", errorCode, errorMessage);
+	}
+}
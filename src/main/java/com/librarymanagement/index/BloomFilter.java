@@ -0,0 +1,119 @@
+package com.librarymanagement.index;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe Bloom filter over strings. {@link #mightContain} never returns
+ * false for a string that was {@link #put}, and returns true for a string that
+ * was not with roughly the false positive probability the filter was sized
+ * for. Strings cannot be removed; a filter that has grown stale is replaced by
+ * building a new one.
+ */
+public class BloomFilter {
+
+	private final AtomicLongArray bits;
+	private final long bitCount;
+	private final int hashCount;
+	private final long capacity;
+	private final LongAdder insertions = new LongAdder();
+
+	/**
+	 * Constructs an empty BloomFilter sized for the expected number of strings.
+	 *
+	 * @param expectedInsertions The number of strings the filter should hold.
+	 * @param falsePositiveRate  The tolerated false positive probability.
+	 */
+	public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+		if (expectedInsertions < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+			throw new IllegalArgumentException("Invalid Bloom filter sizing");
+		}
+		long optimalBits = (long) Math
+				.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+		int words = (int) Math.min(Integer.MAX_VALUE - 8, (optimalBits + 63) / 64);
+		this.bits = new AtomicLongArray(words);
+		this.bitCount = (long) words * 64;
+		this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+		this.capacity = expectedInsertions;
+	}
+
+	/**
+	 * Adds a string to the filter.
+	 *
+	 * @param value The string to add.
+	 */
+	public void put(String value) {
+		long hash1 = hash(value);
+		long hash2 = mix(hash1);
+		for (int i = 0; i < hashCount; i++) {
+			long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+			int word = (int) (bit >>> 6);
+			long mask = 1L << bit;
+			long current;
+			do {
+				current = bits.get(word);
+				if ((current & mask) != 0) {
+					break;
+				}
+			} while (!bits.compareAndSet(word, current, current | mask));
+		}
+		insertions.increment();
+	}
+
+	/**
+	 * Tests whether a string may have been added to the filter.
+	 *
+	 * @param value The string to test.
+	 * @return false if the string was definitely never added.
+	 */
+	public boolean mightContain(String value) {
+		long hash1 = hash(value);
+		long hash2 = mix(hash1);
+		for (int i = 0; i < hashCount; i++) {
+			long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+			if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return true once more strings were added than the filter was sized for,
+	 *         meaning the false positive rate has started to climb.
+	 */
+	public boolean isSaturated() {
+		return insertions.sum() > capacity;
+	}
+
+	/**
+	 * @return The number of strings the filter was sized for.
+	 */
+	public long getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * 64-bit FNV-1a over the UTF-8 bytes of the string.
+	 */
+	private static long hash(String value) {
+		long hash = 0xcbf29ce484222325L;
+		for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+			hash ^= b & 0xff;
+			hash *= 0x100000001b3L;
+		}
+		return hash;
+	}
+
+	/**
+	 * SplitMix64 finalizer, used to derive the second hash for double hashing.
+	 */
+	private static long mix(long hash) {
+		long z = hash + 0x9e3779b97f4a7c15L;
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return (z ^ (z >>> 31)) | 1;
+	}
+
+}
@@ -0,0 +1,268 @@
+package com.librarymanagement.index;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.librarymanagement.bulk.BookRow;
+import com.librarymanagement.bulk.BulkScanner;
+import com.librarymanagement.entity.Book;
+import com.librarymanagement.invalidation.InvalidationListener;
+import com.librarymanagement.invalidation.InvalidationMessage;
+import com.librarymanagement.readmodel.CatalogueReadModel;
+import com.librarymanagement.readmodel.CatalogueSnapshot;
+import com.librarymanagement.repository.ArchivedBookRepository;
+import com.librarymanagement.repository.BookRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * In-memory probabilistic index of the book names present in the database,
+ * including the names of archived books. A
+ * negative answer from {@link #mightContain} proves the name is free, so the
+ * insert path only has to query the database for the rare positive answers.
+ * <p>
+ * Names are hashed by their {@link Book#nameKey(String) name key}, the same
+ * normalised form the database keeps unique, so the filter and the duplicate
+ * checks agree on which names are the same. Until the filter has been built at
+ * startup every name is reported as possibly present. The unique index on
+ * {@code book_name_key} remains the final guard for the narrow windows in which
+ * a name committed concurrently with a rebuild is missing from the filter.
+ * <p>
+ * Only one rebuild runs at a time. Names added while rebuilds are running or
+ * waiting are also kept aside and replayed into every filter before it is
+ * published: the name of a book still being inserted is in neither the read
+ * model nor the books table yet, so a rebuild could not find it on its own.
+ */
+@Component
+@Order(1)
+public class BookNameIndex implements InvalidationListener {
+	private static final Logger logger = LoggerFactory.getLogger(BookNameIndex.class);
+	private static final int ARCHIVE_PAGE_SIZE = 10_000;
+
+	private final BookRepository bookRepository;
+	private final ArchivedBookRepository archivedBookRepository;
+	private final CatalogueReadModel readModel;
+	private final BulkScanner bulkScanner;
+	private final double falsePositiveRate;
+	private final long minimumCapacity;
+	private final LongAdder staleEntries = new LongAdder();
+	private final Counter negatives;
+	private final Counter positives;
+	private final Counter falsePositives;
+	private final ReentrantLock rebuildLock = new ReentrantLock();
+	// Names added since each running or waiting rebuild was requested
+	private final List<Queue<String>> addedDuringRebuilds = new CopyOnWriteArrayList<>();
+
+	private volatile BloomFilter filter;
+	private volatile BloomFilter building;
+
+	/**
+	 * Constructs a BookNameIndex.
+	 *
+	 * @param bookRepository         The repository the filter is built from.
+	 * @param archivedBookRepository The repository the archived names are read
+	 *                               from.
+	 * @param readModel              The in-memory catalogue, preferred over the
+	 *                               repository once loaded.
+	 * @param bulkScanner            The parallel scanner used when the read model
+	 *                               is not loaded.
+	 * @param meterRegistry          The registry for the filter metrics.
+	 * @param falsePositiveRate      The false positive probability to size for.
+	 * @param minimumCapacity        The smallest number of names to size for.
+	 */
+	public BookNameIndex(BookRepository bookRepository, ArchivedBookRepository archivedBookRepository,
+			CatalogueReadModel readModel, BulkScanner bulkScanner, MeterRegistry meterRegistry,
+			@Value("${library.book-name-filter.false-positive-rate:0.01}") double falsePositiveRate,
+			@Value("${library.book-name-filter.minimum-capacity:100000}") long minimumCapacity) {
+		this.bookRepository = bookRepository;
+		this.archivedBookRepository = archivedBookRepository;
+		this.readModel = readModel;
+		this.bulkScanner = bulkScanner;
+		this.falsePositiveRate = falsePositiveRate;
+		this.minimumCapacity = minimumCapacity;
+		this.negatives = Counter.builder("library.book.name.filter").tag("result", "negative")
+				.description("Name checks answered by the filter alone").register(meterRegistry);
+		this.positives = Counter.builder("library.book.name.filter").tag("result", "positive")
+				.description("Name checks that fell through to the database").register(meterRegistry);
+		this.falsePositives = Counter.builder("library.book.name.filter").tag("result", "false_positive")
+				.description("Database checks that found no duplicate").register(meterRegistry);
+	}
+
+	/**
+	 * Tests whether a book with the given name may exist.
+	 *
+	 * @param name The book name.
+	 * @return false if no book with the name exists.
+	 */
+	public boolean mightContain(String name) {
+		BloomFilter current = filter;
+		if (current != null && !current.mightContain(Book.nameKey(name))) {
+			negatives.increment();
+			return false;
+		}
+		positives.increment();
+		return true;
+	}
+
+	/**
+	 * Records that a positive answer turned out to be wrong.
+	 */
+	public void recordFalsePositive() {
+		falsePositives.increment();
+	}
+
+	/**
+	 * Records a book name that was inserted or updated to.
+	 *
+	 * @param name The book name.
+	 */
+	public void add(String name) {
+		String normalized = Book.nameKey(name);
+		for (Queue<String> added : addedDuringRebuilds) {
+			added.add(normalized);
+		}
+		BloomFilter next = building;
+		if (next != null) {
+			next.put(normalized);
+		}
+		BloomFilter current = filter;
+		if (current != null) {
+			current.put(normalized);
+		}
+	}
+
+	/**
+	 * Records a book name that no longer exists. Bloom filters cannot forget, so
+	 * the name keeps answering positive until the next rebuild.
+	 *
+	 * @param name The book name.
+	 */
+	public void remove(String name) {
+		staleEntries.increment();
+	}
+
+	/**
+	 * Records the names of books inserted or renamed on other nodes. Runs after
+	 * the read model has re-read them; the name of a book the read model cannot
+	 * provide is read from the database. Every change counts as a possibly stale
+	 * entry, since it may have been a rename or a deletion.
+	 *
+	 * @param messages The changes, in version order.
+	 */
+	@Override
+	public void invalidate(List<InvalidationMessage> messages) {
+		CatalogueSnapshot snapshot = readModel.snapshot();
+		for (InvalidationMessage message : messages) {
+			if (message.getEntityType() != InvalidationMessage.EntityType.BOOK) {
+				continue;
+			}
+			staleEntries.increment();
+			Book book = snapshot != null ? snapshot.findBook(message.getEntityId())
+					: bookRepository.findById(message.getEntityId()).orElse(null);
+			if (book != null) {
+				add(book.getName());
+			}
+		}
+	}
+
+	@Override
+	public void refreshAll() {
+		build();
+	}
+
+	/**
+	 * Builds the filter once the application has started, from the catalogue read
+	 * model if it is loaded and from the names in the books table otherwise, plus
+	 * the names in the archive. Archived names are never removed when a book is
+	 * archived, only dropped by a rebuild once the book is deleted. A rebuild
+	 * requested while another one runs waits for it and then builds afresh, so
+	 * that two rebuilds never hand added names to different filters.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	@Order(1)
+	public void build() {
+		Queue<String> added = new ConcurrentLinkedQueue<>();
+		addedDuringRebuilds.add(added);
+		rebuildLock.lock();
+		try {
+			buildLocked(added);
+		} finally {
+			rebuildLock.unlock();
+			addedDuringRebuilds.remove(added);
+		}
+	}
+
+	/**
+	 * Builds and publishes a new filter. Names added from now on go straight into
+	 * it as well, those added before are replayed from {@code added}.
+	 */
+	private void buildLocked(Queue<String> added) {
+		long start = System.nanoTime();
+		CatalogueSnapshot snapshot = readModel.snapshot();
+		long books = (snapshot != null ? snapshot.bookCount() : bookRepository.count())
+				+ archivedBookRepository.count();
+		long capacity = Math.max(minimumCapacity, books * 2);
+		BloomFilter next = new BloomFilter(capacity, falsePositiveRate);
+		building = next;
+		staleEntries.reset();
+		try {
+			if (snapshot != null) {
+				snapshot.forEachBookName(name -> next.put(Book.nameKey(name)));
+			} else {
+				// The filter is thread safe, so the ranges can fill it concurrently
+				bulkScanner.scan("book-name-filter", (range, rows) -> {
+					for (BookRow row : rows) {
+						next.put(Book.nameKey(row.getName()));
+					}
+				}).await();
+			}
+			addArchivedNames(next);
+			added.forEach(next::put);
+			filter = next;
+		} finally {
+			building = null;
+		}
+		logger.info("Book name filter built with {} names, capacity {}, in {} ms", books, capacity,
+				(System.nanoTime() - start) / 1_000_000);
+	}
+
+	private void addArchivedNames(BloomFilter target) {
+		long lastBookId = 0;
+		List<Object[]> page;
+		do {
+			page = archivedBookRepository.findNamesAfter(lastBookId, PageRequest.ofSize(ARCHIVE_PAGE_SIZE));
+			for (Object[] row : page) {
+				lastBookId = (Long) row[0];
+				target.put(Book.nameKey((String) row[1]));
+			}
+		} while (page.size() == ARCHIVE_PAGE_SIZE);
+	}
+
+	/**
+	 * Rebuilds the filter once it holds more names than it was sized for or
+	 * once deleted and renamed books make up a tenth of its capacity.
+	 */
+	@Scheduled(fixedDelayString = "${library.book-name-filter.check-interval-ms:300000}")
+	public void rebuildIfStale() {
+		BloomFilter current = filter;
+		if (current != null && (current.isSaturated() || staleEntries.sum() * 10 > current.getCapacity())) {
+			build();
+		}
+	}
+
+}
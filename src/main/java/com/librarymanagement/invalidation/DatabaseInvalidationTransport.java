@@ -0,0 +1,90 @@
+package com.librarymanagement.invalidation;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import com.librarymanagement.repository.CatalogueChangeRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Transport backed by the catalogue change log table. Writers already insert a
+ * change log row in the same transaction as every change, so publishing is a
+ * no-op and every node polls the table for rows after its position. A row that
+ * commits late is picked up by the next poll because polling always restarts
+ * from the receiver's gap-free position.
+ */
+@Component
+@ConditionalOnProperty(prefix = "library.invalidation", name = "transport", havingValue = "database",
+		matchIfMissing = true)
+public class DatabaseInvalidationTransport implements InvalidationTransport {
+	private static final Logger logger = LoggerFactory.getLogger(DatabaseInvalidationTransport.class);
+
+	private final CatalogueChangeRepository catalogueChangeRepository;
+	private final long pollIntervalMillis;
+	private final int batchSize;
+	private ScheduledExecutorService poller;
+
+	/**
+	 * Constructs a DatabaseInvalidationTransport.
+	 *
+	 * @param catalogueChangeRepository The repository for the catalogue change
+	 *                                  log.
+	 * @param pollIntervalMillis        The delay between two polls.
+	 * @param batchSize                 The most rows read per poll.
+	 */
+	public DatabaseInvalidationTransport(CatalogueChangeRepository catalogueChangeRepository,
+			@Value("${library.invalidation.poll-interval-ms:1000}") long pollIntervalMillis,
+			@Value("${library.invalidation.batch-size:500}") int batchSize) {
+		this.catalogueChangeRepository = catalogueChangeRepository;
+		this.pollIntervalMillis = pollIntervalMillis;
+		this.batchSize = batchSize;
+	}
+
+	@Override
+	public void publish(InvalidationMessage message) {
+		// The change log row was written by the writer's transaction
+	}
+
+	@Override
+	public synchronized void start(Consumer<List<InvalidationMessage>> receiver, LongSupplier position) {
+		poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "invalidation-poller");
+			thread.setDaemon(true);
+			return thread;
+		});
+		poller.scheduleWithFixedDelay(() -> {
+			try {
+				List<InvalidationMessage> messages = catalogueChangeRepository
+						.findChangesAfter(position.getAsLong(), PageRequest.ofSize(batchSize)).stream()
+						.map(InvalidationMessage::of).toList();
+				if (!messages.isEmpty()) {
+					receiver.accept(messages);
+				}
+			} catch (RuntimeException e) {
+				logger.warn("Polling the catalogue change log failed: {}", e.toString());
+			}
+		}, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	@PreDestroy
+	public synchronized void stop() {
+		if (poller != null) {
+			poller.shutdownNow();
+			poller = null;
+		}
+	}
+
+}
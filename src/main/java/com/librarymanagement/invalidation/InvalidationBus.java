@@ -0,0 +1,322 @@
+package com.librarymanagement.invalidation;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.librarymanagement.entity.CatalogueChange;
+import com.librarymanagement.event.CatalogueChangeEvent;
+import com.librarymanagement.readmodel.CatalogueReadModel;
+import com.librarymanagement.readmodel.CatalogueSnapshot;
+import com.librarymanagement.repository.CatalogueChangeRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Keeps the per-node caches of every node in step with the changes made on the
+ * other nodes. Each committed change is published as an
+ * {@link InvalidationMessage}; received messages are put in version order and
+ * handed to every {@link InvalidationListener}. Changes made on this node are
+ * already applied locally and only advance the position.
+ * <p>
+ * The bus tracks the highest version up to which it has seen every message.
+ * Messages beyond a missing version are held back. Versions are change log
+ * ids, which have holes where a transaction rolled back, so once a later
+ * version has been waiting for the commit lag the missing versions are looked
+ * up in the change log: rows found there are applied as if their message had
+ * arrived, and the rest are skipped as holes. A skipped version is still
+ * watched for the gap timeout in case its transaction merely committed late.
+ * Only when the change log no longer reaches back to the position, and the
+ * position has stood still long enough for the missing rows to have been
+ * pruned before this node saw them, does every listener rebuild from the
+ * database. A change log that starts above the position merely because the
+ * next version rolled back is not a reason to.
+ */
+@Component
+@ConditionalOnProperty(prefix = "library.invalidation", name = "enabled", matchIfMissing = true)
+public class InvalidationBus {
+	private static final Logger logger = LoggerFactory.getLogger(InvalidationBus.class);
+
+	private final InvalidationTransport transport;
+	private final List<InvalidationListener> listeners;
+	private final CatalogueReadModel readModel;
+	private final CatalogueChangeRepository catalogueChangeRepository;
+	private final long commitLagNanos;
+	private final long gapTimeoutNanos;
+	private final long changeLogRetentionNanos;
+	private final Set<Long> localVersions = ConcurrentHashMap.newKeySet();
+	private final TreeMap<Long, InvalidationMessage> heldBack = new TreeMap<>();
+	// Versions skipped as holes, with the time they were skipped
+	private final TreeMap<Long, Long> holes = new TreeMap<>();
+	private final Counter received;
+	private final Counter applied;
+	private final Counter skipped;
+	private final Counter lateCommits;
+	private final Counter fullRefreshes;
+
+	private volatile long position;
+	// When the position last advanced
+	private long advancedAt;
+	private long gapSince;
+	private boolean started;
+
+	/**
+	 * Constructs an InvalidationBus.
+	 *
+	 * @param transport                 The transport carrying the messages.
+	 * @param listeners                 The caches to keep in step, in order.
+	 * @param readModel                 The read model, whose watermark is the
+	 *                                  initial position.
+	 * @param catalogueChangeRepository The repository for the catalogue change
+	 *                                  log.
+	 * @param meterRegistry             The registry for the bus metrics.
+	 * @param commitLag                 How long a missing version is waited for
+	 *                                  once a later one has arrived, before the
+	 *                                  change log is consulted.
+	 * @param gapTimeout                How long a version skipped as a hole is
+	 *                                  still watched for a late commit.
+	 * @param changeLogRetention        How long change log rows are kept before
+	 *                                  they are pruned.
+	 */
+	public InvalidationBus(InvalidationTransport transport, List<InvalidationListener> listeners,
+			CatalogueReadModel readModel, CatalogueChangeRepository catalogueChangeRepository,
+			MeterRegistry meterRegistry, @Value("${library.invalidation.commit-lag:2s}") Duration commitLag,
+			@Value("${library.invalidation.gap-timeout:10s}") Duration gapTimeout,
+			@Value("${library.read-model.snapshot.change-log-retention:7d}") Duration changeLogRetention) {
+		this.transport = transport;
+		this.listeners = listeners;
+		this.readModel = readModel;
+		this.catalogueChangeRepository = catalogueChangeRepository;
+		this.commitLagNanos = commitLag.toNanos();
+		this.gapTimeoutNanos = gapTimeout.toNanos();
+		this.changeLogRetentionNanos = changeLogRetention.toNanos();
+		this.received = Counter.builder("library.invalidation.messages").tag("result", "received")
+				.description("Invalidation messages received").register(meterRegistry);
+		this.applied = Counter.builder("library.invalidation.messages").tag("result", "applied")
+				.description("Invalidation messages from other nodes handed to the listeners")
+				.register(meterRegistry);
+		this.skipped = Counter.builder("library.invalidation.gaps").tag("result", "skipped")
+				.description("Missing versions skipped as rolled back").register(meterRegistry);
+		this.lateCommits = Counter.builder("library.invalidation.gaps").tag("result", "late")
+				.description("Skipped versions that committed late and were applied after all")
+				.register(meterRegistry);
+		this.fullRefreshes = Counter.builder("library.invalidation.full.refreshes")
+				.description("Full refreshes after change log rows were pruned before they were seen")
+				.register(meterRegistry);
+		Gauge.builder("library.invalidation.position", this, bus -> bus.position)
+				.description("Highest version seen without gaps").register(meterRegistry);
+	}
+
+	/**
+	 * Starts receiving messages once the read model and the indexes are built,
+	 * from the version the read model reflects.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	@Order(2)
+	public synchronized void start() {
+		CatalogueSnapshot snapshot = readModel.snapshot();
+		position = snapshot != null ? snapshot.getWatermark() : catalogueChangeRepository.findMaxChangeId();
+		advancedAt = System.nanoTime();
+		started = true;
+		transport.start(this::receive, () -> position);
+		logger.info("Invalidation bus started at version {} over {}", position,
+				transport.getClass().getSimpleName());
+	}
+
+	@PreDestroy
+	public void stop() {
+		transport.stop();
+	}
+
+	/**
+	 * Publishes a committed change made on this node.
+	 *
+	 * @param event The change.
+	 */
+	@TransactionalEventListener
+	public void onCatalogueChange(CatalogueChangeEvent event) {
+		if (event.getChangeId() == 0) {
+			return;
+		}
+		localVersions.add(event.getChangeId());
+		transport.publish(InvalidationMessage.of(event));
+	}
+
+	/**
+	 * Accepts messages from the transport. Duplicates and versions already passed
+	 * are dropped, unless they were skipped as holes and turn out to have
+	 * committed late; the rest is held back until every lower version has
+	 * arrived or been skipped.
+	 *
+	 * @param messages The messages, in any order.
+	 */
+	synchronized void receive(List<InvalidationMessage> messages) {
+		if (!started) {
+			return;
+		}
+		received.increment(messages.size());
+		List<InvalidationMessage> remote = new ArrayList<>();
+		for (InvalidationMessage message : messages) {
+			if (message.getVersion() > position) {
+				heldBack.put(message.getVersion(), message);
+			} else if (holes.remove(message.getVersion()) != null) {
+				lateCommits.increment();
+				if (!localVersions.remove(message.getVersion())) {
+					remote.add(message);
+				}
+			}
+		}
+
+		long start = position;
+		for (long next = position + 1;; next = position + 1) {
+			InvalidationMessage message = heldBack.remove(next);
+			if (message != null) {
+				holes.remove(next);
+				if (!localVersions.remove(next)) {
+					remote.add(message);
+				}
+			} else if (!holes.containsKey(next)) {
+				break;
+			}
+			position = next;
+		}
+		notifyListeners(remote);
+		if (position != start) {
+			advancedAt = System.nanoTime();
+		}
+		// Drops local versions whose own message overtook the publishing listener
+		localVersions.removeIf(version -> version <= position && !holes.containsKey(version));
+		if (heldBack.isEmpty()) {
+			gapSince = 0;
+		} else if (gapSince == 0 || position != start) {
+			gapSince = System.nanoTime();
+			logger.debug("Waiting for version {}, holding back {} messages", position + 1, heldBack.size());
+		}
+	}
+
+	/**
+	 * Resolves a missing version once a later one has waited for the commit lag,
+	 * and re-checks the versions skipped as holes for late commits.
+	 */
+	@Scheduled(fixedDelayString = "${library.invalidation.gap-check-interval-ms:1000}")
+	public synchronized void checkGap() {
+		if (!started) {
+			return;
+		}
+		recheckHoles();
+		if (gapSince == 0 || System.nanoTime() - gapSince < commitLagNanos) {
+			return;
+		}
+		if (catalogueChangeRepository.findMinChangeId() > position + 1 && mayHaveBeenPruned()) {
+			refreshAll();
+			return;
+		}
+		// The log has the rows whose messages were lost; ids it lacks rolled back
+		long nextHeld = heldBack.firstKey();
+		List<InvalidationMessage> missing = catalogueChangeRepository.findChangesBetween(position, nextHeld)
+				.stream().map(InvalidationMessage::of).toList();
+		Set<Long> present = new HashSet<>();
+		missing.forEach(message -> present.add(message.getVersion()));
+		long now = System.nanoTime();
+		for (long version = position + 1; version < nextHeld; version++) {
+			if (!present.contains(version)) {
+				holes.put(version, now);
+				skipped.increment();
+			}
+		}
+		logger.debug("Skipping {} missing versions before version {}", nextHeld - position - 1 - present.size(),
+				nextHeld);
+		receive(missing);
+	}
+
+	/**
+	 * Tells whether change log rows above the position may have been pruned. Such
+	 * rows were recorded after the change at the position, which was recent when
+	 * the position reached it, so they can only be older than the retention once
+	 * the position has stood still for about as long. Half the retention leaves
+	 * a wide margin for slow transactions and delivery.
+	 */
+	private boolean mayHaveBeenPruned() {
+		return System.nanoTime() - advancedAt >= changeLogRetentionNanos / 2;
+	}
+
+	/**
+	 * Applies the versions skipped as holes whose change log row has appeared
+	 * since, and stops watching those skipped longer than the gap timeout ago.
+	 */
+	private void recheckHoles() {
+		long now = System.nanoTime();
+		holes.values().removeIf(skippedAt -> now - skippedAt >= gapTimeoutNanos);
+		if (holes.isEmpty()) {
+			return;
+		}
+		List<InvalidationMessage> late = new ArrayList<>();
+		for (CatalogueChange change : catalogueChangeRepository.findAllById(List.copyOf(holes.keySet()))) {
+			holes.remove(change.getChangeId());
+			lateCommits.increment();
+			if (!localVersions.remove(change.getChangeId())) {
+				late.add(InvalidationMessage.of(change));
+			}
+		}
+		late.sort(Comparator.comparingLong(InvalidationMessage::getVersion));
+		notifyListeners(late);
+	}
+
+	/**
+	 * Rebuilds every listener from the database after changes were lost for good.
+	 */
+	private void refreshAll() {
+		// Read the newest version first, changes racing with the refresh arrive again
+		long newest = catalogueChangeRepository.findMaxChangeId();
+		logger.warn("Change log no longer reaches back to version {}, refreshing every cache up to version {}",
+				position + 1, newest);
+		for (InvalidationListener listener : listeners) {
+			listener.refreshAll();
+		}
+		fullRefreshes.increment();
+		position = Math.max(position, newest);
+		advancedAt = System.nanoTime();
+		heldBack.headMap(position, true).clear();
+		holes.clear();
+		gapSince = 0;
+		receive(List.of());
+	}
+
+	private void notifyListeners(List<InvalidationMessage> messages) {
+		if (messages.isEmpty()) {
+			return;
+		}
+		for (InvalidationListener listener : listeners) {
+			listener.invalidate(messages);
+		}
+		applied.increment(messages.size());
+	}
+
+	/**
+	 * @return The highest version seen without gaps.
+	 */
+	public long getPosition() {
+		return position;
+	}
+
+}
@@ -0,0 +1,24 @@
+package com.librarymanagement.invalidation;
+
+import java.util.List;
+
+/**
+ * Implemented by per-node caches and indexes that must follow changes made on
+ * other nodes. The {@link InvalidationBus} calls every listener from a single
+ * thread, in {@link org.springframework.core.annotation.Order} order.
+ */
+public interface InvalidationListener {
+
+	/**
+	 * Refreshes the entities named in the messages.
+	 *
+	 * @param messages Changes made on other nodes, in version order.
+	 */
+	void invalidate(List<InvalidationMessage> messages);
+
+	/**
+	 * Rebuilds everything from the database, after messages were lost.
+	 */
+	void refreshAll();
+
+}
@@ -0,0 +1,85 @@
+package com.librarymanagement.invalidation;
+
+import com.librarymanagement.entity.CatalogueChange;
+import com.librarymanagement.event.CatalogueChangeEvent;
+
+/**
+ * Compact notice that a book or category changed. It carries no column values:
+ * receivers re-read the entity if they hold a copy of it. The version is the
+ * id of the change log row, which increases across the whole cluster, so
+ * receivers can detect missed messages. Ids taken by transactions that rolled
+ * back are never used, which leaves holes.
+ */
+public final class InvalidationMessage {
+
+	/**
+	 * The kind of entity that changed.
+	 */
+	public enum EntityType {
+		BOOK, CATEGORY
+	}
+
+	private final EntityType entityType;
+	private final long entityId;
+	private final long version;
+
+	/**
+	 * Create a new InvalidationMessage instance with provided values.
+	 *
+	 * @param entityType The kind of entity that changed.
+	 * @param entityId   The ID of the entity.
+	 * @param version    The id of the change log row.
+	 */
+	public InvalidationMessage(EntityType entityType, long entityId, long version) {
+		this.entityType = entityType;
+		this.entityId = entityId;
+		this.version = version;
+	}
+
+	/**
+	 * Create a message for a change published by the service.
+	 *
+	 * @param event The change, carrying its change log id.
+	 * @return The message.
+	 */
+	public static InvalidationMessage of(CatalogueChangeEvent event) {
+		return new InvalidationMessage(entityType(event.getType()), event.getId(), event.getChangeId());
+	}
+
+	/**
+	 * Create a message for a row of the change log.
+	 *
+	 * @param change The change log row.
+	 * @return The message.
+	 */
+	public static InvalidationMessage of(CatalogueChange change) {
+		return new InvalidationMessage(entityType(change.getChangeType()), change.getEntityId(),
+				change.getChangeId());
+	}
+
+	private static EntityType entityType(CatalogueChangeEvent.Type type) {
+		return switch (type) {
+		case BOOK_UPSERTED, BOOK_DELETED -> EntityType.BOOK;
+		case CATEGORY_UPSERTED, CATEGORY_DELETED -> EntityType.CATEGORY;
+		};
+	}
+
+	public EntityType getEntityType() {
+		return entityType;
+	}
+
+	public long getEntityId() {
+		return entityId;
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+	@Override
+	public String toString() {
+		return "InvalidationMessage [entityType=" + entityType + ", entityId=" + entityId + ", version=" + version
+				+ "]";
+	}
+
+}
@@ -0,0 +1,36 @@
+package com.librarymanagement.invalidation;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Carries invalidation messages between the nodes of a cluster. A transport
+ * may deliver a message more than once, out of order or not at all; the
+ * {@link InvalidationBus} sorts that out. Select the implementation with
+ * {@code library.invalidation.transport}.
+ */
+public interface InvalidationTransport {
+
+	/**
+	 * Sends a message to every node, possibly including this one. Called after
+	 * the writing transaction has committed.
+	 *
+	 * @param message The message.
+	 */
+	void publish(InvalidationMessage message);
+
+	/**
+	 * Starts delivering messages.
+	 *
+	 * @param receiver Receives batches of messages.
+	 * @param position The highest version the receiver has seen without gaps.
+	 */
+	void start(Consumer<List<InvalidationMessage>> receiver, LongSupplier position);
+
+	/**
+	 * Stops delivering messages.
+	 */
+	void stop();
+
+}
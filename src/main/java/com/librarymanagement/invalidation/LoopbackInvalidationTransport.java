@@ -0,0 +1,63 @@
+package com.librarymanagement.invalidation;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Transport connecting every application context started in the same JVM, so
+ * that several nodes can be run and tested side by side without a broker.
+ * Messages are handed to each receiver on its own delivery thread.
+ */
+@Component
+@ConditionalOnProperty(prefix = "library.invalidation", name = "transport", havingValue = "loopback")
+public class LoopbackInvalidationTransport implements InvalidationTransport {
+
+	private static final List<LoopbackInvalidationTransport> NODES = new CopyOnWriteArrayList<>();
+
+	private ExecutorService delivery;
+	private Consumer<List<InvalidationMessage>> receiver;
+
+	@Override
+	public void publish(InvalidationMessage message) {
+		for (LoopbackInvalidationTransport node : NODES) {
+			node.deliver(message);
+		}
+	}
+
+	@Override
+	public synchronized void start(Consumer<List<InvalidationMessage>> receiver, LongSupplier position) {
+		this.receiver = receiver;
+		this.delivery = Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "invalidation-loopback");
+			thread.setDaemon(true);
+			return thread;
+		});
+		NODES.add(this);
+	}
+
+	@Override
+	@PreDestroy
+	public synchronized void stop() {
+		NODES.remove(this);
+		if (delivery != null) {
+			delivery.shutdownNow();
+			delivery = null;
+		}
+	}
+
+	private synchronized void deliver(InvalidationMessage message) {
+		if (delivery != null) {
+			delivery.execute(() -> receiver.accept(List.of(message)));
+		}
+	}
+
+}
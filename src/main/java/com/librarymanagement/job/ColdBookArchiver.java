@@ -0,0 +1,72 @@
+package com.librarymanagement.job;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.librarymanagement.archive.BookArchive;
+
+/**
+ * Periodically moves the books nobody has read for a while to the archive.
+ * Every pass first starts tracking books that have no read time yet, so a new
+ * or restored book is only archived once it has gone unread for the full
+ * threshold.
+ * <p>
+ * A book is cold when it has not been looked up by ID or by name since the
+ * cutoff; how often it was read before that does not matter. Listings and
+ * reads by category are not recorded by {@link com.librarymanagement.archive.BookReadTracker}:
+ * a single page would mark every book on it as read and keep the whole
+ * catalogue warm. An archived book therefore drops out of listings until its
+ * next lookup by ID or name restores it.
+ */
+@Component
+@ConditionalOnProperty(prefix = "library.archive", name = "enabled", matchIfMissing = true)
+public class ColdBookArchiver {
+	private static final Logger logger = LoggerFactory.getLogger(ColdBookArchiver.class);
+
+	private final BookArchive bookArchive;
+	private final Duration coldAfter;
+	private final int batchSize;
+
+	/**
+	 * Constructs a ColdBookArchiver.
+	 *
+	 * @param bookArchive The archive the cold books are moved to.
+	 * @param coldAfter   How long a book must go unread to be archived.
+	 * @param batchSize   The number of books archived per transaction.
+	 */
+	public ColdBookArchiver(BookArchive bookArchive, @Value("${library.archive.cold-after:180d}") Duration coldAfter,
+			@Value("${library.archive.batch-size:500}") int batchSize) {
+		this.bookArchive = bookArchive;
+		this.coldAfter = coldAfter;
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Archives every book not read within the threshold, one batch per
+	 * transaction.
+	 *
+	 * @return The number of books archived.
+	 */
+	@Scheduled(fixedDelayString = "${library.archive.interval-ms:3600000}", initialDelayString = "${library.archive.initial-delay-ms:600000}")
+	public int archiveColdBooks() {
+		int tracked = bookArchive.trackNewBooks();
+		Instant cutoff = Instant.now().minus(coldAfter);
+		int archived = 0;
+		List<Long> coldBookIds;
+		// Every batch drops the read times it selected, so each loop makes progress
+		while (!(coldBookIds = bookArchive.findColdBookIds(cutoff, batchSize)).isEmpty()) {
+			archived += bookArchive.archive(coldBookIds);
+		}
+		logger.info("Cold book pass archived {} books, {} books newly tracked", archived, tracked);
+		return archived;
+	}
+
+}
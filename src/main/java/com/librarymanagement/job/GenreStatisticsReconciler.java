@@ -0,0 +1,89 @@
+package com.librarymanagement.job;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.librarymanagement.entity.GenreStatistics;
+import com.librarymanagement.repository.ArchivedBookRepository;
+import com.librarymanagement.repository.CategoryRepository;
+import com.librarymanagement.repository.GenreStatisticsRepository;
+
+/**
+ * Periodically compares the per-genre book counters against the books table
+ * and the archive, and repairs any drift, e.g. from rows written outside the
+ * application. Archived books keep counting towards their genre.
+ */
+@Component
+public class GenreStatisticsReconciler {
+	private static final Logger logger = LoggerFactory.getLogger(GenreStatisticsReconciler.class);
+
+	private final CategoryRepository categoryRepository;
+	private final GenreStatisticsRepository genreStatisticsRepository;
+	private final ArchivedBookRepository archivedBookRepository;
+
+	/**
+	 * Constructs a GenreStatisticsReconciler with the provided repositories.
+	 *
+	 * @param categoryRepository        The repository for managing Category
+	 *                                  entities.
+	 * @param genreStatisticsRepository The repository for the per-genre book
+	 *                                  counters.
+	 * @param archivedBookRepository    The repository for the archived books.
+	 */
+	public GenreStatisticsReconciler(CategoryRepository categoryRepository,
+			GenreStatisticsRepository genreStatisticsRepository, ArchivedBookRepository archivedBookRepository) {
+		this.categoryRepository = categoryRepository;
+		this.genreStatisticsRepository = genreStatisticsRepository;
+		this.archivedBookRepository = archivedBookRepository;
+	}
+
+	/**
+	 * Recounts the books of every category with a single GROUP BY query and
+	 * corrects the counters that disagree. Counters of deleted categories are
+	 * removed and missing counters are created.
+	 *
+	 * @return The number of counters that were repaired.
+	 */
+	@Scheduled(fixedDelayString = "${library.statistics.reconcile-interval-ms:900000}", initialDelayString = "${library.statistics.reconcile-initial-delay-ms:60000}")
+	@Transactional
+	public int reconcile() {
+		Map<Long, Long> actualCounts = new HashMap<>();
+		for (Object[] row : categoryRepository.countBooksPerCategory()) {
+			actualCounts.put((Long) row[0], (Long) row[1]);
+		}
+		for (Object[] row : archivedBookRepository.countPerCategory()) {
+			actualCounts.merge((Long) row[0], (Long) row[1], Long::sum);
+		}
+
+		int repaired = 0;
+		List<GenreStatistics> counters = genreStatisticsRepository.findAll();
+		for (GenreStatistics counter : counters) {
+			Long actual = actualCounts.remove(counter.getCategoryId());
+			if (actual == null) {
+				genreStatisticsRepository.delete(counter);
+				repaired++;
+			} else if (actual != counter.getBookCount()) {
+				logger.warn("Genre counter drift for category {}: counted {}, stored {}", counter.getCategoryId(),
+						actual, counter.getBookCount());
+				repaired += genreStatisticsRepository.repairBookCount(counter.getCategoryId(),
+						counter.getBookCount(), actual);
+			}
+		}
+		for (Map.Entry<Long, Long> missing : actualCounts.entrySet()) {
+			// A counter created concurrently by a book insert is left to the next pass
+			genreStatisticsRepository.createIfMissing(missing.getKey(), missing.getValue());
+			repaired++;
+		}
+
+		logger.info("Genre statistics reconciled, {} counters repaired", repaired);
+		return repaired;
+	}
+
+}
@@ -0,0 +1,65 @@
+package com.librarymanagement.projection;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import com.librarymanagement.exceptions.InvalidFieldException;
+
+/**
+ * Enumerates the Book attributes that can be requested through the
+ * {@code fields} parameter of the book endpoints. Each constant carries the
+ * name under which the attribute is exposed in the JSON response.
+ */
+public enum BookField {
+
+	BOOK_ID("bookId"),
+	NAME("name"),
+	BOOK_DESCRIPTION("bookDescription"),
+	CATEGORY_ID("categoryId"),
+	CATEGORIES("categories");
+
+	private final String jsonName;
+
+	BookField(String jsonName) {
+		this.jsonName = jsonName;
+	}
+
+	public String getJsonName() {
+		return jsonName;
+	}
+
+	/**
+	 * Parses a comma separated list of field names, e.g. {@code "bookId,name"}.
+	 *
+	 * @param fields The raw value of the {@code fields} request parameter.
+	 * @return The requested fields, in declaration order.
+	 * @throws InvalidFieldException if the list is blank or names an unknown
+	 *                               field.
+	 */
+	public static Set<BookField> parse(String fields) {
+		if (fields == null || fields.isBlank()) {
+			throw new InvalidFieldException("603", "No fields requested");
+		}
+		Set<BookField> requested = EnumSet.noneOf(BookField.class);
+		for (String token : fields.split(",")) {
+			String name = token.trim();
+			if (name.isEmpty()) {
+				continue;
+			}
+			requested.add(fromJsonName(name));
+		}
+		if (requested.isEmpty()) {
+			throw new InvalidFieldException("603", "No fields requested");
+		}
+		return requested;
+	}
+
+	private static BookField fromJsonName(String name) {
+		for (BookField field : values()) {
+			if (field.jsonName.equals(name)) {
+				return field;
+			}
+		}
+		throw new InvalidFieldException("603", String.format("Unknown book field '%s'", name));
+	}
+}
@@ -0,0 +1,54 @@
+package com.librarymanagement.projection;
+
+import java.time.Instant;
+
+/**
+ * Read-only view of the book counter of a single genre (category).
+ */
+public class GenreCount {
+
+	private final Long categoryId;
+	private final String categoryName;
+	private final long bookCount;
+	private final Long lastBookId;
+	private final Instant lastBookAddedAt;
+
+	/**
+	 * Create a new GenreCount instance with provided values.
+	 *
+	 * @param categoryId      The ID of the category.
+	 * @param categoryName    The name of the category.
+	 * @param bookCount       The number of books in the category.
+	 * @param lastBookId      The ID of the book most recently added, if any.
+	 * @param lastBookAddedAt When the most recent book was added, if known.
+	 */
+	public GenreCount(Long categoryId, String categoryName, long bookCount, Long lastBookId,
+			Instant lastBookAddedAt) {
+		this.categoryId = categoryId;
+		this.categoryName = categoryName;
+		this.bookCount = bookCount;
+		this.lastBookId = lastBookId;
+		this.lastBookAddedAt = lastBookAddedAt;
+	}
+
+	public Long getCategoryId() {
+		return categoryId;
+	}
+
+	public String getCategoryName() {
+		return categoryName;
+	}
+
+	public long getBookCount() {
+		return bookCount;
+	}
+
+	public Long getLastBookId() {
+		return lastBookId;
+	}
+
+	public Instant getLastBookAddedAt() {
+		return lastBookAddedAt;
+	}
+
+}
@@ -0,0 +1,40 @@
+package com.librarymanagement.projection;
+
+import java.util.List;
+
+/**
+ * Aggregate book statistics across all genres (categories).
+ */
+public class GenreStatisticsSummary {
+
+	private final long totalBooks;
+	private final List<GenreCount> genres;
+	private final List<GenreCount> recentlyAdded;
+
+	/**
+	 * Create a new GenreStatisticsSummary instance with provided values.
+	 *
+	 * @param totalBooks    The number of books across all genres.
+	 * @param genres        The counter of each genre.
+	 * @param recentlyAdded The genres that most recently received a book, newest
+	 *                      first.
+	 */
+	public GenreStatisticsSummary(long totalBooks, List<GenreCount> genres, List<GenreCount> recentlyAdded) {
+		this.totalBooks = totalBooks;
+		this.genres = genres;
+		this.recentlyAdded = recentlyAdded;
+	}
+
+	public long getTotalBooks() {
+		return totalBooks;
+	}
+
+	public List<GenreCount> getGenres() {
+		return genres;
+	}
+
+	public List<GenreCount> getRecentlyAdded() {
+		return recentlyAdded;
+	}
+
+}
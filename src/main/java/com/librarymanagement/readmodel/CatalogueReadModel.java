@@ -0,0 +1,366 @@
+package com.librarymanagement.readmodel;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.librarymanagement.bulk.BookRow;
+import com.librarymanagement.bulk.BulkScanner;
+import com.librarymanagement.entity.CatalogueChange;
+import com.librarymanagement.event.CatalogueChangeEvent;
+import com.librarymanagement.invalidation.InvalidationListener;
+import com.librarymanagement.invalidation.InvalidationMessage;
+import com.librarymanagement.repository.BookRepository;
+import com.librarymanagement.repository.CatalogueChangeRepository;
+import com.librarymanagement.repository.CategoryRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Keeps the current {@link CatalogueSnapshot} of the catalogue. The snapshot is
+ * loaded once the application is ready and then kept current from the
+ * {@link CatalogueChangeEvent}s the service publishes, applied after commit.
+ * Readers take the volatile snapshot reference and never lock; writers queue
+ * their changes and whichever writer holds the apply lock folds every queued
+ * change into one new snapshot and swaps it in.
+ * <p>
+ * On startup the snapshot file written by the previous run is preferred over a
+ * full table scan: only the rows named in the change log since the file's
+ * watermark are read from the database. Changes made on other nodes arrive
+ * through the invalidation bus.
+ * <p>
+ * Change log ids are taken when a change is recorded, not when it commits, so a
+ * watermark does not prove that every lower change is visible yet. Both the
+ * snapshot file and a full scan are therefore caught up with the changes made
+ * within the catch-up window before they were taken, besides those above their
+ * watermark.
+ */
+@Component
+@Order(0)
+public class CatalogueReadModel implements InvalidationListener {
+	private static final Logger logger = LoggerFactory.getLogger(CatalogueReadModel.class);
+
+	private final BookRepository bookRepository;
+	private final CategoryRepository categoryRepository;
+	private final CatalogueChangeRepository catalogueChangeRepository;
+	private final CatalogueSnapshotStore snapshotStore;
+	private final BulkScanner bulkScanner;
+	private final Duration catchUpWindow;
+	private final boolean enabled;
+	private final Queue<CatalogueChangeEvent> pending = new ConcurrentLinkedQueue<>();
+	private final ReentrantLock applyLock = new ReentrantLock();
+
+	private volatile CatalogueSnapshot snapshot;
+	private volatile boolean loading;
+
+	/**
+	 * Constructs a CatalogueReadModel.
+	 *
+	 * @param bookRepository            The repository the books are loaded from.
+	 * @param categoryRepository        The repository the categories are loaded
+	 *                                  from.
+	 * @param catalogueChangeRepository The repository for the catalogue change
+	 *                                  log.
+	 * @param snapshotStore             The local snapshot file.
+	 * @param bulkScanner               The parallel scanner for full loads.
+	 * @param catchUpWindow             How far before the snapshot time or the
+	 *                                  start of a full scan changes are replayed,
+	 *                                  to cover transactions that committed after
+	 *                                  the snapshot was taken.
+	 * @param enabled                   Whether reads are served from memory at
+	 *                                  all.
+	 */
+	public CatalogueReadModel(BookRepository bookRepository, CategoryRepository categoryRepository,
+			CatalogueChangeRepository catalogueChangeRepository, CatalogueSnapshotStore snapshotStore,
+			BulkScanner bulkScanner,
+			@Value("${library.read-model.snapshot.catch-up-window:5m}") Duration catchUpWindow,
+			@Value("${library.read-model.enabled:true}") boolean enabled) {
+		this.bookRepository = bookRepository;
+		this.categoryRepository = categoryRepository;
+		this.catalogueChangeRepository = catalogueChangeRepository;
+		this.snapshotStore = snapshotStore;
+		this.bulkScanner = bulkScanner;
+		this.catchUpWindow = catchUpWindow;
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Returns the current snapshot.
+	 *
+	 * @return The snapshot, or null while it is not loaded yet or the read model
+	 *         is disabled.
+	 */
+	public CatalogueSnapshot snapshot() {
+		return snapshot;
+	}
+
+	/**
+	 * Loads the snapshot once the application has started, from the snapshot file
+	 * if there is a usable one and from the database otherwise. Runs before the
+	 * other startup listeners so they can build on the loaded snapshot.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	@Order(0)
+	@Transactional(readOnly = true)
+	public void load() {
+		if (!enabled) {
+			return;
+		}
+		long start = System.nanoTime();
+		loading = true;
+		try {
+			CatalogueSnapshotFile.Content stored = snapshotStore.read();
+			replace(stored != null ? catchUp(stored) : loadFromDatabase());
+		} finally {
+			loading = false;
+		}
+		drain();
+		logger.info("Catalogue read model loaded with {} books in {} ms", snapshot.bookCount(),
+				(System.nanoTime() - start) / 1_000_000);
+	}
+
+	/**
+	 * Writes the current snapshot to the snapshot file, periodically and on
+	 * shutdown.
+	 */
+	@Scheduled(fixedDelayString = "${library.read-model.snapshot.write-interval-ms:300000}",
+			initialDelayString = "${library.read-model.snapshot.write-interval-ms:300000}")
+	@PreDestroy
+	public void persist() {
+		CatalogueSnapshot current = snapshot;
+		if (current != null) {
+			snapshotStore.write(current);
+		}
+	}
+
+	/**
+	 * Loads every book with a parallel scan. Each id range is collected into its
+	 * own partial snapshot, and the parts are concatenated in range order. A
+	 * change whose id is below the watermark but which committed after its range
+	 * was scanned is caught up afterwards, like those above the watermark that
+	 * the invalidation bus would replay anyway.
+	 */
+	private CatalogueSnapshot loadFromDatabase() {
+		Instant scanStart = Instant.now();
+		long watermark = catalogueChangeRepository.findMaxChangeId();
+		Map<Integer, CatalogueSnapshot.Builder> parts = new ConcurrentHashMap<>();
+		bulkScanner.scan("catalogue-read-model", (range, rows) -> {
+			CatalogueSnapshot.Builder part = parts.computeIfAbsent(range.getIndex(),
+					index -> new CatalogueSnapshot.Builder(rows.size(), 0));
+			for (BookRow row : rows) {
+				part.addBook(row.getBookId(), row.getCategoryId(), row.getName(), row.getBookDescription(),
+						row.getVersion());
+			}
+		}).await();
+
+		List<Object[]> categories = categoryRepository.findAllIdsAndNames();
+		CatalogueSnapshot.Builder builder = new CatalogueSnapshot.Builder((int) bookRepository.count(),
+				categories.size()).watermark(watermark);
+		for (Object[] row : categories) {
+			builder.addCategory((Long) row[0], (String) row[1], (Long) row[2]);
+		}
+		new TreeMap<>(parts).values().forEach(part -> builder.addBooks(part.build()));
+		return catchUp(builder.build(), scanStart, "scan");
+	}
+
+	/**
+	 * Brings a stored snapshot up to date by re-reading only the books and
+	 * categories named in the change log since the snapshot was taken.
+	 */
+	private CatalogueSnapshot catchUp(CatalogueSnapshotFile.Content stored) {
+		return catchUp(stored.getSnapshot(), stored.getWrittenAt(), "snapshot from " + stored.getWrittenAt());
+	}
+
+	/**
+	 * Re-reads the books and categories named in the change log above the
+	 * snapshot's watermark or within the catch-up window before it was taken.
+	 *
+	 * @param base    The snapshot.
+	 * @param takenAt When the snapshot's watermark was read.
+	 * @param source  Describes the snapshot in the log.
+	 */
+	private CatalogueSnapshot catchUp(CatalogueSnapshot base, Instant takenAt, String source) {
+		List<CatalogueChange> changes = catalogueChangeRepository.findChangesSince(base.getWatermark(),
+				takenAt.minus(catchUpWindow));
+		TreeMap<Long, Long> bookIds = new TreeMap<>();
+		TreeMap<Long, Long> categoryIds = new TreeMap<>();
+		long watermark = base.getWatermark();
+		for (CatalogueChange change : changes) {
+			watermark = Math.max(watermark, change.getChangeId());
+			switch (change.getChangeType()) {
+			case BOOK_UPSERTED, BOOK_DELETED -> bookIds.merge(change.getEntityId(), change.getChangeId(), Math::max);
+			case CATEGORY_UPSERTED, CATEGORY_DELETED ->
+				categoryIds.merge(change.getEntityId(), change.getChangeId(), Math::max);
+			}
+		}
+		List<CatalogueChangeEvent> events = reread(bookIds, categoryIds);
+		logger.info("Catalogue {} caught up with {} changed books and {} changed categories", source,
+				bookIds.size(), categoryIds.size());
+		return base.apply(events, watermark);
+	}
+
+	/**
+	 * Re-reads books and categories, turning each into an upsert, or into a
+	 * deletion if the row no longer exists. Every event is stamped with the
+	 * highest change log id that named its row: the row was read after that
+	 * change committed, so the event supersedes any older one still queued.
+	 *
+	 * @param bookIds     The highest change log id per book id.
+	 * @param categoryIds The highest change log id per category id.
+	 */
+	private List<CatalogueChangeEvent> reread(TreeMap<Long, Long> bookIds, TreeMap<Long, Long> categoryIds) {
+		List<CatalogueChangeEvent> events = new ArrayList<>();
+		Map<Long, Object[]> categoryRows = new HashMap<>();
+		for (List<Long> chunk : chunks(categoryIds.navigableKeySet())) {
+			categoryRepository.findIdsAndNamesByIds(chunk).forEach(row -> categoryRows.put((Long) row[0], row));
+		}
+		categoryIds.forEach((categoryId, changeId) -> {
+			Object[] row = categoryRows.get(categoryId);
+			events.add((row == null ? CatalogueChangeEvent.categoryDeleted(categoryId)
+					: CatalogueChangeEvent.categoryUpserted(categoryId, (String) row[1], (Long) row[2]))
+					.withChangeId(changeId));
+		});
+		Map<Long, Object[]> bookRows = new HashMap<>();
+		for (List<Long> chunk : chunks(bookIds.navigableKeySet())) {
+			bookRepository.findCatalogueRowsByIds(chunk).forEach(row -> bookRows.put((Long) row[0], row));
+		}
+		bookIds.forEach((bookId, changeId) -> {
+			Object[] row = bookRows.get(bookId);
+			events.add((row == null ? CatalogueChangeEvent.bookDeleted(bookId)
+					: CatalogueChangeEvent.bookUpserted(bookId, (Long) row[1], (String) row[2], (String) row[3],
+							(Long) row[4]))
+					.withChangeId(changeId));
+		});
+		return events;
+	}
+
+	private static List<List<Long>> chunks(NavigableSet<Long> ids) {
+		List<List<Long>> chunks = new ArrayList<>();
+		List<Long> chunk = new ArrayList<>();
+		for (Long id : ids) {
+			chunk.add(id);
+			if (chunk.size() == 1000) {
+				chunks.add(chunk);
+				chunk = new ArrayList<>();
+			}
+		}
+		if (!chunk.isEmpty()) {
+			chunks.add(chunk);
+		}
+		return chunks;
+	}
+
+	/**
+	 * Applies a committed change to the snapshot.
+	 *
+	 * @param event The change.
+	 */
+	@TransactionalEventListener
+	public void onCatalogueChange(CatalogueChangeEvent event) {
+		if (!enabled) {
+			return;
+		}
+		pending.add(event);
+		drain();
+	}
+
+	/**
+	 * Re-reads the books and categories changed on other nodes.
+	 *
+	 * @param messages The changes, in version order.
+	 */
+	@Override
+	public void invalidate(List<InvalidationMessage> messages) {
+		if (!enabled || snapshot == null) {
+			return;
+		}
+		TreeMap<Long, Long> bookIds = new TreeMap<>();
+		TreeMap<Long, Long> categoryIds = new TreeMap<>();
+		for (InvalidationMessage message : messages) {
+			switch (message.getEntityType()) {
+			case BOOK -> bookIds.merge(message.getEntityId(), message.getVersion(), Math::max);
+			case CATEGORY -> categoryIds.merge(message.getEntityId(), message.getVersion(), Math::max);
+			}
+		}
+		pending.addAll(reread(bookIds, categoryIds));
+		drain();
+	}
+
+	/**
+	 * Reloads the whole catalogue from the database.
+	 */
+	@Override
+	public void refreshAll() {
+		if (!enabled) {
+			return;
+		}
+		loading = true;
+		try {
+			replace(loadFromDatabase());
+		} finally {
+			loading = false;
+		}
+		drain();
+	}
+
+	/**
+	 * Swaps in a snapshot built elsewhere.
+	 *
+	 * @param replacement The new snapshot.
+	 */
+	void replace(CatalogueSnapshot replacement) {
+		applyLock.lock();
+		try {
+			snapshot = replacement;
+		} finally {
+			applyLock.unlock();
+		}
+	}
+
+	/**
+	 * Folds the queued changes into a new snapshot. Changes queued before or while
+	 * the snapshot is loading stay queued and are applied by the loader; replaying
+	 * a change the load already saw is harmless because upserts and deletes are
+	 * idempotent and an upsert older than the loaded row is dropped. The queue
+	 * holds changes in the order their listeners ran, not the order they
+	 * committed in; {@link CatalogueSnapshot#apply} restores the latter.
+	 */
+	private void drain() {
+		if (snapshot == null || loading) {
+			return;
+		}
+		applyLock.lock();
+		try {
+			List<CatalogueChangeEvent> batch = new ArrayList<>();
+			for (CatalogueChangeEvent change; (change = pending.poll()) != null;) {
+				batch.add(change);
+			}
+			if (!batch.isEmpty()) {
+				snapshot = snapshot.apply(batch);
+			}
+		} finally {
+			applyLock.unlock();
+		}
+	}
+
+}
@@ -0,0 +1,563 @@
+package com.librarymanagement.readmodel;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+import com.librarymanagement.entity.Book;
+import com.librarymanagement.entity.Category;
+import com.librarymanagement.event.CatalogueChangeEvent;
+
+/**
+ * Immutable, columnar copy of the catalogue. Books and categories are stored
+ * in id order as primitive {@code long[]} columns, with names and descriptions
+ * packed as UTF-8 into a single {@code byte[]} per column plus an offset array,
+ * so a book costs a few dozen bytes on top of its text instead of a graph of
+ * entity objects. Books are grouped per category in a separate index for the
+ * by-genre reads.
+ * <p>
+ * A snapshot is never modified. Changes produce a new snapshot through
+ * {@link #apply}, which copies the unchanged rows column by column. The
+ * watermark is the highest change log id the snapshot has seen.
+ */
+public final class CatalogueSnapshot {
+
+	/** Category id stored for books that have no category. */
+	public static final long NO_CATEGORY = Long.MIN_VALUE;
+
+	private final long watermark;
+
+	private final long[] bookIds;
+	private final long[] bookCategoryIds;
+	private final long[] bookVersions;
+	private final TextColumn bookNames;
+	private final TextColumn bookDescriptions;
+
+	private final long[] categoryIds;
+	private final long[] categoryVersions;
+	private final TextColumn categoryNames;
+
+	// Positions of the books of category i are genreBooks[genreStart[i] .. genreStart[i + 1])
+	private final int[] genreStart;
+	private final int[] genreBooks;
+
+	private CatalogueSnapshot(long watermark, long[] bookIds, long[] bookCategoryIds, long[] bookVersions,
+			TextColumn bookNames, TextColumn bookDescriptions, long[] categoryIds, long[] categoryVersions,
+			TextColumn categoryNames) {
+		this.watermark = watermark;
+		this.bookIds = bookIds;
+		this.bookCategoryIds = bookCategoryIds;
+		this.bookVersions = bookVersions;
+		this.bookNames = bookNames;
+		this.bookDescriptions = bookDescriptions;
+		this.categoryIds = categoryIds;
+		this.categoryVersions = categoryVersions;
+		this.categoryNames = categoryNames;
+
+		int[] counts = new int[categoryIds.length + 1];
+		int[] categoryOfBook = new int[bookIds.length];
+		for (int i = 0; i < bookIds.length; i++) {
+			int category = bookCategoryIds[i] == NO_CATEGORY ? -1
+					: Arrays.binarySearch(categoryIds, bookCategoryIds[i]);
+			categoryOfBook[i] = category;
+			if (category >= 0) {
+				counts[category + 1]++;
+			}
+		}
+		for (int i = 0; i < categoryIds.length; i++) {
+			counts[i + 1] += counts[i];
+		}
+		this.genreStart = counts.clone();
+		this.genreBooks = new int[counts[categoryIds.length]];
+		for (int i = 0; i < bookIds.length; i++) {
+			if (categoryOfBook[i] >= 0) {
+				genreBooks[counts[categoryOfBook[i]]++] = i;
+			}
+		}
+	}
+
+	/**
+	 * @return An empty snapshot.
+	 */
+	public static CatalogueSnapshot empty() {
+		return new Builder(0, 0).build();
+	}
+
+	/**
+	 * Recreates a snapshot from columns read back from a snapshot file.
+	 */
+	static CatalogueSnapshot restore(long watermark, long[] bookIds, long[] bookCategoryIds, long[] bookVersions,
+			TextColumn bookNames, TextColumn bookDescriptions, long[] categoryIds, long[] categoryVersions,
+			TextColumn categoryNames) {
+		return new CatalogueSnapshot(watermark, bookIds, bookCategoryIds, bookVersions, bookNames, bookDescriptions,
+				categoryIds, categoryVersions, categoryNames);
+	}
+
+	/**
+	 * @return The highest change log id reflected in this snapshot.
+	 */
+	public long getWatermark() {
+		return watermark;
+	}
+
+	/**
+	 * @return The number of books in the snapshot.
+	 */
+	public int bookCount() {
+		return bookIds.length;
+	}
+
+	/**
+	 * @return The number of categories in the snapshot.
+	 */
+	public int categoryCount() {
+		return categoryIds.length;
+	}
+
+	/**
+	 * Looks up a book by its id.
+	 *
+	 * @param bookId The ID of the book.
+	 * @return The book, or null if the snapshot has no such book.
+	 */
+	public Book findBook(long bookId) {
+		int position = Arrays.binarySearch(bookIds, bookId);
+		return position < 0 ? null : toBook(position);
+	}
+
+	/**
+	 * @return All books, in id order.
+	 */
+	public List<Book> allBooks() {
+		List<Book> books = new ArrayList<>(bookIds.length);
+		for (int i = 0; i < bookIds.length; i++) {
+			books.add(toBook(i));
+		}
+		return books;
+	}
+
+	/**
+	 * Passes the name of every book to the consumer, without creating Book
+	 * objects.
+	 *
+	 * @param consumer Receives the names.
+	 */
+	public void forEachBookName(Consumer<String> consumer) {
+		for (int i = 0; i < bookIds.length; i++) {
+			String name = bookNames.get(i);
+			if (name != null) {
+				consumer.accept(name);
+			}
+		}
+	}
+
+	/**
+	 * Returns the books of a category.
+	 *
+	 * @param categoryId The ID of the category.
+	 * @return The books of the category in id order, or null if the snapshot has
+	 *         no such category.
+	 */
+	public Set<Book> booksOfCategory(long categoryId) {
+		int category = Arrays.binarySearch(categoryIds, categoryId);
+		if (category < 0) {
+			return null;
+		}
+		Set<Book> books = new LinkedHashSet<>();
+		for (int i = genreStart[category]; i < genreStart[category + 1]; i++) {
+			books.add(toBook(genreBooks[i]));
+		}
+		return books;
+	}
+
+	/**
+	 * Returns a copy of this snapshot with the given changes applied in commit
+	 * order. Listeners run after commit and may queue changes in another order
+	 * than they committed in, so of the changes to one id the one with the
+	 * highest change log id wins, and an upsert carrying an older version than
+	 * the row already in the snapshot is dropped.
+	 *
+	 * @param changes The committed changes.
+	 * @return The new snapshot, with the highest change log id of the changes as
+	 *         its watermark if that is higher than this snapshot's.
+	 */
+	public CatalogueSnapshot apply(List<CatalogueChangeEvent> changes) {
+		return apply(changes, watermark);
+	}
+
+	/**
+	 * Returns a copy of this snapshot with the given changes applied like
+	 * {@link #apply(List)}, moving the watermark to at least the given change log
+	 * id. Used when the changes were read from the change log up to that id.
+	 *
+	 * @param changes   The committed changes.
+	 * @param watermark The change log id the changes bring the snapshot up to.
+	 * @return The new snapshot.
+	 */
+	public CatalogueSnapshot apply(List<CatalogueChangeEvent> changes, long watermark) {
+		// A deletion is kept as the event itself
+		TreeMap<Long, CatalogueChangeEvent> bookChanges = new TreeMap<>();
+		TreeMap<Long, CatalogueChangeEvent> categoryChanges = new TreeMap<>();
+		long newWatermark = Math.max(this.watermark, watermark);
+		for (CatalogueChangeEvent change : changes) {
+			newWatermark = Math.max(newWatermark, change.getChangeId());
+			switch (change.getType()) {
+			case BOOK_UPSERTED, BOOK_DELETED -> bookChanges.merge(change.getId(), change, CatalogueSnapshot::later);
+			case CATEGORY_UPSERTED, CATEGORY_DELETED ->
+				categoryChanges.merge(change.getId(), change, CatalogueSnapshot::later);
+			}
+		}
+
+		Builder builder = new Builder(bookIds.length + bookChanges.size(),
+				categoryIds.length + categoryChanges.size()).watermark(newWatermark);
+		Iterator<Map.Entry<Long, CatalogueChangeEvent>> pending = categoryChanges.entrySet().iterator();
+		Map.Entry<Long, CatalogueChangeEvent> next = pending.hasNext() ? pending.next() : null;
+		for (int i = 0; i < categoryIds.length || next != null;) {
+			if (next == null || (i < categoryIds.length && categoryIds[i] < next.getKey())) {
+				builder.copyCategory(this, i++);
+				continue;
+			}
+			if (i < categoryIds.length && categoryIds[i] == next.getKey()) {
+				if (isStale(next.getValue(), categoryVersions[i])) {
+					builder.copyCategory(this, i++);
+					next = pending.hasNext() ? pending.next() : null;
+					continue;
+				}
+				i++;
+			}
+			if (next.getValue().getType() == CatalogueChangeEvent.Type.CATEGORY_UPSERTED) {
+				builder.addCategory(next.getKey(), next.getValue().getName(), next.getValue().getVersion());
+			}
+			next = pending.hasNext() ? pending.next() : null;
+		}
+
+		pending = bookChanges.entrySet().iterator();
+		next = pending.hasNext() ? pending.next() : null;
+		for (int i = 0; i < bookIds.length || next != null;) {
+			if (next == null || (i < bookIds.length && bookIds[i] < next.getKey())) {
+				builder.copyBook(this, i++);
+				continue;
+			}
+			if (i < bookIds.length && bookIds[i] == next.getKey()) {
+				if (isStale(next.getValue(), bookVersions[i])) {
+					builder.copyBook(this, i++);
+					next = pending.hasNext() ? pending.next() : null;
+					continue;
+				}
+				i++;
+			}
+			CatalogueChangeEvent change = next.getValue();
+			if (change.getType() == CatalogueChangeEvent.Type.BOOK_UPSERTED) {
+				builder.addBook(change.getId(), change.getCategoryId(), change.getName(), change.getDescription(),
+						change.getVersion());
+			}
+			next = pending.hasNext() ? pending.next() : null;
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Picks the later of two changes to the same id by change log id. Changes
+	 * with the same id, such as re-reads that carry none, keep queue order.
+	 */
+	private static CatalogueChangeEvent later(CatalogueChangeEvent queued, CatalogueChangeEvent next) {
+		return next.getChangeId() >= queued.getChangeId() ? next : queued;
+	}
+
+	/**
+	 * Tests whether an upsert is older than the row the snapshot already holds.
+	 */
+	private static boolean isStale(CatalogueChangeEvent change, long currentVersion) {
+		return (change.getType() == CatalogueChangeEvent.Type.BOOK_UPSERTED
+				|| change.getType() == CatalogueChangeEvent.Type.CATEGORY_UPSERTED)
+				&& change.getVersion() < currentVersion;
+	}
+
+	private Book toBook(int position) {
+		Category category = null;
+		long categoryId = bookCategoryIds[position];
+		if (categoryId != NO_CATEGORY) {
+			int categoryPosition = Arrays.binarySearch(categoryIds, categoryId);
+			if (categoryPosition < 0) {
+				category = new Category(categoryId, null, new HashSet<>());
+			} else {
+				category = new Category(categoryId, categoryNames.get(categoryPosition), new HashSet<>());
+				category.setVersion(categoryVersions[categoryPosition]);
+			}
+		}
+		Book book = new Book(bookIds[position], bookNames.get(position), bookDescriptions.get(position), category,
+				null);
+		book.setVersion(bookVersions[position]);
+		return book;
+	}
+
+	/**
+	 * Packed UTF-8 strings: string i occupies {@code bytes[end(i - 1) .. end(i))}
+	 * where {@code end(i)} is held in {@code offsets[i + 1]}. The end of a null
+	 * string is stored as {@code -1 - end} so it can be told apart from an empty
+	 * string.
+	 */
+	static final class TextColumn {
+		private final byte[] bytes;
+		private final int[] offsets;
+
+		TextColumn(byte[] bytes, int[] offsets) {
+			this.bytes = bytes;
+			this.offsets = offsets;
+		}
+
+		byte[] bytes() {
+			return bytes;
+		}
+
+		int[] offsets() {
+			return offsets;
+		}
+
+		private String get(int index) {
+			int end = offsets[index + 1];
+			if (end < 0) {
+				return null;
+			}
+			return new String(bytes, start(offsets, index), end - start(offsets, index), StandardCharsets.UTF_8);
+		}
+
+		private static int start(int[] offsets, int index) {
+			int previousEnd = offsets[index];
+			return previousEnd < 0 ? -1 - previousEnd : previousEnd;
+		}
+	}
+
+	/**
+	 * Growable column of packed strings used while building a snapshot.
+	 */
+	private static final class TextColumnBuilder {
+		private byte[] bytes;
+		private int[] offsets;
+		private int size;
+		private int length;
+
+		private TextColumnBuilder(int expected) {
+			this.bytes = new byte[Math.max(16, expected * 16)];
+			this.offsets = new int[expected + 1];
+		}
+
+		private void add(String value) {
+			if (value == null) {
+				appendOffset(length, true);
+				return;
+			}
+			byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+			add(encoded, 0, encoded.length);
+		}
+
+		private void add(TextColumn source, int index) {
+			int end = source.offsets[index + 1];
+			if (end < 0) {
+				appendOffset(length, true);
+				return;
+			}
+			int start = TextColumn.start(source.offsets, index);
+			add(source.bytes, start, end - start);
+		}
+
+		private void add(byte[] source, int offset, int count) {
+			if (length + count > bytes.length) {
+				bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + count));
+			}
+			System.arraycopy(source, offset, bytes, length, count);
+			length += count;
+			appendOffset(length, false);
+		}
+
+		private void appendOffset(int end, boolean isNull) {
+			if (size + 2 > offsets.length) {
+				offsets = Arrays.copyOf(offsets, Math.max(offsets.length * 2, size + 2));
+			}
+			offsets[++size] = isNull ? -1 - end : end;
+		}
+
+		private TextColumn build() {
+			return new TextColumn(Arrays.copyOf(bytes, length), Arrays.copyOf(offsets, size + 1));
+		}
+	}
+
+	long[] bookIds() {
+		return bookIds;
+	}
+
+	long[] bookCategoryIds() {
+		return bookCategoryIds;
+	}
+
+	long[] bookVersions() {
+		return bookVersions;
+	}
+
+	TextColumn bookNames() {
+		return bookNames;
+	}
+
+	TextColumn bookDescriptions() {
+		return bookDescriptions;
+	}
+
+	long[] categoryIds() {
+		return categoryIds;
+	}
+
+	long[] categoryVersions() {
+		return categoryVersions;
+	}
+
+	TextColumn categoryNames() {
+		return categoryNames;
+	}
+
+	/**
+	 * Assembles a snapshot from rows supplied in ascending id order.
+	 */
+	public static final class Builder {
+		private long watermark;
+		private long[] bookIds;
+		private long[] bookCategoryIds;
+		private long[] bookVersions;
+		private int books;
+		private final TextColumnBuilder bookNames;
+		private final TextColumnBuilder bookDescriptions;
+		private long[] categoryIds;
+		private long[] categoryVersions;
+		private int categories;
+		private final TextColumnBuilder categoryNames;
+
+		/**
+		 * Constructs a Builder.
+		 *
+		 * @param expectedBooks      The number of books expected, used for sizing.
+		 * @param expectedCategories The number of categories expected, used for
+		 *                           sizing.
+		 */
+		public Builder(int expectedBooks, int expectedCategories) {
+			this.bookIds = new long[Math.max(1, expectedBooks)];
+			this.bookCategoryIds = new long[Math.max(1, expectedBooks)];
+			this.bookVersions = new long[Math.max(1, expectedBooks)];
+			this.bookNames = new TextColumnBuilder(expectedBooks);
+			this.bookDescriptions = new TextColumnBuilder(expectedBooks);
+			this.categoryIds = new long[Math.max(1, expectedCategories)];
+			this.categoryVersions = new long[Math.max(1, expectedCategories)];
+			this.categoryNames = new TextColumnBuilder(expectedCategories);
+		}
+
+		/**
+		 * Sets the highest change log id reflected in the rows.
+		 *
+		 * @param watermark The change log id.
+		 * @return This builder.
+		 */
+		public Builder watermark(long watermark) {
+			this.watermark = watermark;
+			return this;
+		}
+
+		/**
+		 * Appends a book. Books must be added in ascending id order.
+		 *
+		 * @param bookId      The ID of the book.
+		 * @param categoryId  The ID of its category, or null.
+		 * @param name        The name of the book.
+		 * @param description The description of the book.
+		 * @param version     The version of the book.
+		 * @return This builder.
+		 */
+		public Builder addBook(long bookId, Long categoryId, String name, String description, long version) {
+			appendBookId(bookId, categoryId == null ? NO_CATEGORY : categoryId, version);
+			bookNames.add(name);
+			bookDescriptions.add(description);
+			return this;
+		}
+
+		/**
+		 * Appends a category. Categories must be added in ascending id order.
+		 *
+		 * @param categoryId   The ID of the category.
+		 * @param categoryName The name of the category.
+		 * @param version      The version of the category.
+		 * @return This builder.
+		 */
+		public Builder addCategory(long categoryId, String categoryName, long version) {
+			appendCategoryId(categoryId, version);
+			categoryNames.add(categoryName);
+			return this;
+		}
+
+		/**
+		 * Appends every book of another snapshot, typically one holding a single id
+		 * range of a parallel load. Its books must all follow the books added so far.
+		 *
+		 * @param part The snapshot to copy the books from.
+		 * @return This builder.
+		 */
+		public Builder addBooks(CatalogueSnapshot part) {
+			for (int i = 0; i < part.bookIds.length; i++) {
+				copyBook(part, i);
+			}
+			return this;
+		}
+
+		private void copyBook(CatalogueSnapshot source, int position) {
+			appendBookId(source.bookIds[position], source.bookCategoryIds[position], source.bookVersions[position]);
+			bookNames.add(source.bookNames, position);
+			bookDescriptions.add(source.bookDescriptions, position);
+		}
+
+		private void copyCategory(CatalogueSnapshot source, int position) {
+			appendCategoryId(source.categoryIds[position], source.categoryVersions[position]);
+			categoryNames.add(source.categoryNames, position);
+		}
+
+		private void appendBookId(long bookId, long categoryId, long version) {
+			if (books > 0 && bookIds[books - 1] >= bookId) {
+				throw new IllegalStateException("Books must be added in ascending id order");
+			}
+			if (books == bookIds.length) {
+				bookIds = Arrays.copyOf(bookIds, books * 2);
+				bookCategoryIds = Arrays.copyOf(bookCategoryIds, books * 2);
+				bookVersions = Arrays.copyOf(bookVersions, books * 2);
+			}
+			bookIds[books] = bookId;
+			bookCategoryIds[books] = categoryId;
+			bookVersions[books++] = version;
+		}
+
+		private void appendCategoryId(long categoryId, long version) {
+			if (categories > 0 && categoryIds[categories - 1] >= categoryId) {
+				throw new IllegalStateException("Categories must be added in ascending id order");
+			}
+			if (categories == categoryIds.length) {
+				categoryIds = Arrays.copyOf(categoryIds, categories * 2);
+				categoryVersions = Arrays.copyOf(categoryVersions, categories * 2);
+			}
+			categoryIds[categories] = categoryId;
+			categoryVersions[categories++] = version;
+		}
+
+		/**
+		 * @return The snapshot holding the rows added so far.
+		 */
+		public CatalogueSnapshot build() {
+			return new CatalogueSnapshot(watermark, Arrays.copyOf(bookIds, books), Arrays.copyOf(bookCategoryIds, books),
+					Arrays.copyOf(bookVersions, books), bookNames.build(), bookDescriptions.build(),
+					Arrays.copyOf(categoryIds, categories), Arrays.copyOf(categoryVersions, categories),
+					categoryNames.build());
+		}
+	}
+
+}
@@ -0,0 +1,200 @@
+package com.librarymanagement.readmodel;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Reads and writes {@link CatalogueSnapshot}s in a versioned binary format, so
+ * that a restarted node can load its catalogue from local disk instead of
+ * scanning the books table. All numbers are big-endian:
+ *
+ * <pre>
+ * int     magic "LMSC"
+ * int     format version
+ * long    watermark (highest change log id in the snapshot)
+ * long    written at (epoch milliseconds)
+ * int     book count n, int category count c
+ * long[n] book ids, long[n] book category ids, long[n] book versions
+ * text    book names, text book descriptions
+ * long[c] category ids, long[c] category versions
+ * text    category names
+ * long    CRC32 of everything above
+ *
+ * text = int[count + 1] end offsets, int byte length, byte[] UTF-8 bytes
+ * </pre>
+ *
+ * Files are written to a temporary sibling and atomically moved into place,
+ * and read back through a read-only memory mapping.
+ */
+public final class CatalogueSnapshotFile {
+
+	private static final int MAGIC = 0x4C4D5343;
+	private static final int FORMAT_VERSION = 2;
+
+	private CatalogueSnapshotFile() {
+	}
+
+	/**
+	 * A snapshot read back from disk together with the time it was written.
+	 */
+	public static final class Content {
+		private final CatalogueSnapshot snapshot;
+		private final Instant writtenAt;
+
+		private Content(CatalogueSnapshot snapshot, Instant writtenAt) {
+			this.snapshot = snapshot;
+			this.writtenAt = writtenAt;
+		}
+
+		public CatalogueSnapshot getSnapshot() {
+			return snapshot;
+		}
+
+		public Instant getWrittenAt() {
+			return writtenAt;
+		}
+	}
+
+	/**
+	 * Writes a snapshot to a file, replacing any previous file atomically.
+	 *
+	 * @param snapshot  The snapshot to write.
+	 * @param path      The target file.
+	 * @param writtenAt The time to record as the snapshot time.
+	 * @throws IOException if the file cannot be written.
+	 */
+	public static void write(CatalogueSnapshot snapshot, Path path, Instant writtenAt) throws IOException {
+		Path directory = path.toAbsolutePath().getParent();
+		Files.createDirectories(directory);
+		Path temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+		try {
+			CRC32 crc = new CRC32();
+			try (OutputStream file = Files.newOutputStream(temporary);
+					CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(file, 1 << 16), crc);
+					DataOutputStream out = new DataOutputStream(checked)) {
+				out.writeInt(MAGIC);
+				out.writeInt(FORMAT_VERSION);
+				out.writeLong(snapshot.getWatermark());
+				out.writeLong(writtenAt.toEpochMilli());
+				out.writeInt(snapshot.bookCount());
+				out.writeInt(snapshot.categoryCount());
+				writeLongs(out, snapshot.bookIds());
+				writeLongs(out, snapshot.bookCategoryIds());
+				writeLongs(out, snapshot.bookVersions());
+				writeText(out, snapshot.bookNames());
+				writeText(out, snapshot.bookDescriptions());
+				writeLongs(out, snapshot.categoryIds());
+				writeLongs(out, snapshot.categoryVersions());
+				writeText(out, snapshot.categoryNames());
+				out.flush();
+				// The checksum itself is not part of the checksummed data
+				new DataOutputStream(file).writeLong(crc.getValue());
+			}
+			try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+				channel.force(true);
+			}
+			Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temporary);
+		}
+	}
+
+	/**
+	 * Reads a snapshot file through a memory mapping.
+	 *
+	 * @param path The file to read.
+	 * @return The snapshot and the time it was written.
+	 * @throws IOException if the file cannot be read, has an unknown version,
+	 *                     fails its checksum or its contents do not fit its
+	 *                     size.
+	 */
+	public static Content read(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size < 40 || size > Integer.MAX_VALUE) {
+				throw new IOException("Snapshot file has an invalid size: " + size);
+			}
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+			CRC32 crc = new CRC32();
+			crc.update(buffer.slice(0, (int) size - Long.BYTES));
+			if (crc.getValue() != buffer.getLong((int) size - Long.BYTES)) {
+				throw new IOException("Snapshot file checksum mismatch");
+			}
+			if (buffer.getInt() != MAGIC) {
+				throw new IOException("Not a catalogue snapshot file");
+			}
+			int version = buffer.getInt();
+			if (version != FORMAT_VERSION) {
+				throw new IOException("Unsupported snapshot format version " + version);
+			}
+			try {
+				long watermark = buffer.getLong();
+				Instant writtenAt = Instant.ofEpochMilli(buffer.getLong());
+				int books = buffer.getInt();
+				int categories = buffer.getInt();
+				long[] bookIds = readLongs(buffer, books);
+				long[] bookCategoryIds = readLongs(buffer, books);
+				long[] bookVersions = readLongs(buffer, books);
+				CatalogueSnapshot.TextColumn bookNames = readText(buffer, books);
+				CatalogueSnapshot.TextColumn bookDescriptions = readText(buffer, books);
+				long[] categoryIds = readLongs(buffer, categories);
+				long[] categoryVersions = readLongs(buffer, categories);
+				CatalogueSnapshot.TextColumn categoryNames = readText(buffer, categories);
+				if (buffer.position() != size - Long.BYTES) {
+					throw new IOException("Snapshot file has trailing data");
+				}
+				return new Content(CatalogueSnapshot.restore(watermark, bookIds, bookCategoryIds, bookVersions,
+						bookNames, bookDescriptions, categoryIds, categoryVersions, categoryNames), writtenAt);
+			} catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException
+					| NegativeArraySizeException e) {
+				// Counts and lengths that do not fit the file, in a file whose checksum matched
+				throw new IOException("Snapshot file is truncated or corrupt", e);
+			}
+		}
+	}
+
+	private static void writeLongs(DataOutputStream out, long[] values) throws IOException {
+		for (long value : values) {
+			out.writeLong(value);
+		}
+	}
+
+	private static void writeText(DataOutputStream out, CatalogueSnapshot.TextColumn column) throws IOException {
+		for (int offset : column.offsets()) {
+			out.writeInt(offset);
+		}
+		out.writeInt(column.bytes().length);
+		out.write(column.bytes());
+	}
+
+	private static long[] readLongs(ByteBuffer buffer, int count) {
+		long[] values = new long[count];
+		buffer.asLongBuffer().get(values);
+		buffer.position(buffer.position() + count * Long.BYTES);
+		return values;
+	}
+
+	private static CatalogueSnapshot.TextColumn readText(ByteBuffer buffer, int count) {
+		int[] offsets = new int[count + 1];
+		buffer.asIntBuffer().get(offsets);
+		buffer.position(buffer.position() + offsets.length * Integer.BYTES);
+		byte[] bytes = new byte[buffer.getInt()];
+		buffer.get(bytes);
+		return new CatalogueSnapshot.TextColumn(bytes, offsets);
+	}
+
+}
@@ -0,0 +1,109 @@
+package com.librarymanagement.readmodel;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.librarymanagement.repository.CatalogueChangeRepository;
+
+/**
+ * Persists catalogue snapshots to a local file and prunes the change log. A
+ * snapshot older than the change log retention can no longer be caught up and
+ * is ignored on startup.
+ */
+@Component
+public class CatalogueSnapshotStore {
+	private static final Logger logger = LoggerFactory.getLogger(CatalogueSnapshotStore.class);
+
+	private final CatalogueChangeRepository catalogueChangeRepository;
+	private final boolean enabled;
+	private final Path path;
+	private final Duration retention;
+
+	private volatile long writtenWatermark = -1;
+
+	/**
+	 * Constructs a CatalogueSnapshotStore.
+	 *
+	 * @param catalogueChangeRepository The repository for the catalogue change
+	 *                                  log.
+	 * @param enabled                   Whether snapshot files are used at all.
+	 * @param path                      The snapshot file.
+	 * @param retention                 How long change log entries are kept.
+	 */
+	public CatalogueSnapshotStore(CatalogueChangeRepository catalogueChangeRepository,
+			@Value("${library.read-model.snapshot.enabled:true}") boolean enabled,
+			@Value("${library.read-model.snapshot.path:data/catalogue.snapshot}") Path path,
+			@Value("${library.read-model.snapshot.change-log-retention:7d}") Duration retention) {
+		this.catalogueChangeRepository = catalogueChangeRepository;
+		this.enabled = enabled;
+		this.path = path;
+		this.retention = retention;
+	}
+
+	/**
+	 * Reads the snapshot file if there is a usable one.
+	 *
+	 * @return The stored snapshot, or null if there is none, it is unreadable or
+	 *         it is too old to be caught up from the change log.
+	 */
+	public CatalogueSnapshotFile.Content read() {
+		if (!enabled || !Files.exists(path)) {
+			return null;
+		}
+		try {
+			CatalogueSnapshotFile.Content content = CatalogueSnapshotFile.read(path);
+			if (content.getWrittenAt().isBefore(Instant.now().minus(retention))) {
+				logger.info("Ignoring catalogue snapshot written at {}, older than the change log",
+						content.getWrittenAt());
+				return null;
+			}
+			writtenWatermark = content.getSnapshot().getWatermark();
+			return content;
+		} catch (IOException | RuntimeException e) {
+			logger.warn("Ignoring unreadable catalogue snapshot {}: {}", path, e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Writes a snapshot to the snapshot file unless the file already holds a
+	 * snapshot with the same watermark.
+	 *
+	 * @param snapshot The snapshot to write.
+	 */
+	public void write(CatalogueSnapshot snapshot) {
+		if (!enabled || snapshot.getWatermark() == writtenWatermark) {
+			return;
+		}
+		long start = System.nanoTime();
+		try {
+			CatalogueSnapshotFile.write(snapshot, path, Instant.now());
+			writtenWatermark = snapshot.getWatermark();
+			logger.info("Catalogue snapshot with {} books written to {} in {} ms", snapshot.bookCount(), path,
+					(System.nanoTime() - start) / 1_000_000);
+		} catch (IOException e) {
+			logger.warn("Could not write catalogue snapshot to {}: {}", path, e.getMessage());
+		}
+	}
+
+	/**
+	 * Deletes change log entries older than the retention.
+	 */
+	@Scheduled(fixedDelayString = "${library.read-model.snapshot.prune-interval-ms:3600000}")
+	@Transactional
+	public void pruneChangeLog() {
+		int deleted = catalogueChangeRepository.deleteChangesBefore(Instant.now().minus(retention));
+		logger.info("Pruned {} catalogue change log entries", deleted);
+	}
+
+}
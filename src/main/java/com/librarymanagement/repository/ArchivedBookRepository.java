@@ -0,0 +1,87 @@
+package com.librarymanagement.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.librarymanagement.entity.ArchivedBook;
+
+import jakarta.persistence.LockModeType;
+
+/**
+ * Repository interface for the archived (cold) books in the library management
+ * system.
+ */
+public interface ArchivedBookRepository extends JpaRepository<ArchivedBook, Long> {
+
+	/**
+	 * Retrieve an archived book and lock it, so that concurrent readers restore
+	 * it only once.
+	 *
+	 * @param bookId The ID of the book.
+	 * @return The archived book, if the book is archived.
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select a from ArchivedBook a where a.bookId = :bookId")
+	Optional<ArchivedBook> findForRestore(@Param("bookId") Long bookId);
+
+	/**
+	 * Retrieve an archived book by its name and lock it.
+	 *
+	 * @param name The name of the book.
+	 * @return The archived book, if a book with the name is archived.
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select a from ArchivedBook a where a.name = :name")
+	Optional<ArchivedBook> findForRestoreByName(@Param("name") String name);
+
+	/**
+	 * Check whether an archived book has a specific name, without locking it.
+	 *
+	 * @param name The name of the book.
+	 * @return true if a book with the name is archived.
+	 */
+	boolean existsByName(String name);
+
+	/**
+	 * Check whether an archived book has a specific name key.
+	 *
+	 * @param nameKey The {@link com.librarymanagement.entity.Book#nameKey(String) name key} to look for.
+	 * @return true if an archived book with the same name exists.
+	 */
+	boolean existsByNameKey(String nameKey);
+
+	/**
+	 * Check whether an archived book other than the given one has a specific
+	 * name key.
+	 *
+	 * @param nameKey The {@link com.librarymanagement.entity.Book#nameKey(String) name key} to look for.
+	 * @param bookId  The ID of the book to ignore.
+	 * @return true if another archived book with the same name exists.
+	 */
+	boolean existsByNameKeyAndBookIdNot(String nameKey, Long bookId);
+
+	/**
+	 * Count the archived books of every category that has any.
+	 *
+	 * @return Pairs of category ID and archived book count.
+	 */
+	@Query("select a.categoryId, count(a) from ArchivedBook a where a.categoryId is not null group by a.categoryId")
+	List<Object[]> countPerCategory();
+
+	/**
+	 * Retrieve the names of archived books in ID order, one page at a time.
+	 *
+	 * @param bookId   The ID after which the page starts.
+	 * @param pageable The page size.
+	 * @return {bookId, name} rows.
+	 */
+	@Query("select a.bookId, a.name from ArchivedBook a where a.bookId > :bookId order by a.bookId")
+	List<Object[]> findNamesAfter(@Param("bookId") long bookId, Pageable pageable);
+
+}
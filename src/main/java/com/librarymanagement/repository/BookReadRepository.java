@@ -0,0 +1,73 @@
+package com.librarymanagement.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.librarymanagement.entity.BookRead;
+
+/**
+ * Repository interface for the last read times of the books in the library
+ * management system.
+ */
+public interface BookReadRepository extends JpaRepository<BookRead, Long> {
+
+	/**
+	 * Record that books were read, in a single statement.
+	 *
+	 * @param bookIds The IDs of the books that were read.
+	 * @param readAt  When they were read.
+	 * @return The number of rows updated; books not tracked yet are skipped.
+	 */
+	@Modifying
+	@Query("update BookRead r set r.lastReadAt = :readAt where r.bookId in :bookIds and r.lastReadAt < :readAt")
+	int recordReads(@Param("bookIds") Collection<Long> bookIds, @Param("readAt") Instant readAt);
+
+	/**
+	 * Record that books were read, by their names, in a single statement.
+	 *
+	 * @param names  The names of the books that were read.
+	 * @param readAt When they were read.
+	 * @return The number of rows updated; books not tracked yet are skipped.
+	 */
+	@Modifying
+	@Query("update BookRead r set r.lastReadAt = :readAt where r.lastReadAt < :readAt "
+			+ "and r.bookId in (select b.bookId from Book b where b.name in :names)")
+	int recordReadsByName(@Param("names") Collection<String> names, @Param("readAt") Instant readAt);
+
+	/**
+	 * Start tracking every book that has no row yet, as read now.
+	 *
+	 * @return The number of books now tracked.
+	 */
+	@Modifying
+	@Query(nativeQuery = true, value = "insert into book_reads (book_id) select b.book_id from books b "
+			+ "where not exists (select 1 from book_reads r where r.book_id = b.book_id)")
+	int trackUntrackedBooks();
+
+	/**
+	 * Delete the rows of books that are no longer in the books table.
+	 *
+	 * @return The number of deleted rows.
+	 */
+	@Modifying
+	@Query("delete from BookRead r where not exists (select b.bookId from Book b where b.bookId = r.bookId)")
+	int deleteOrphans();
+
+	/**
+	 * Retrieve the books least recently read before a point in time.
+	 *
+	 * @param cutoff   The read time below which a book is cold.
+	 * @param pageable The maximum number of books to return.
+	 * @return The IDs of cold books, coldest first.
+	 */
+	@Query("select r.bookId from BookRead r where r.lastReadAt < :cutoff order by r.lastReadAt")
+	List<Long> findColdBookIds(@Param("cutoff") Instant cutoff, Pageable pageable);
+
+}
@@ -1,8 +1,12 @@
 package com.librarymanagement.repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.librarymanagement.entity.Book;
 
@@ -10,7 +14,7 @@ import com.librarymanagement.entity.Book;
  * Repository interface for managing Book entities in the library management
  * system.
  */
-public interface BookRepository extends JpaRepository<Book, Long> {
+public interface BookRepository extends JpaRepository<Book, Long>, BookRepositoryCustom {
 
 	/**
 	 * Retrieve a list of books with a specific name.
@@ -20,6 +24,88 @@ public interface BookRepository extends JpaRepository<Book, Long> {
 	 */
 	List<Book> findBookByName(String name);
 
+	/**
+	 * Check whether a book with a specific name key exists, using the unique name
+	 * key index.
+	 *
+	 * @param nameKey The {@link Book#nameKey(String) name key} to look for.
+	 * @return true if a book with the same name exists.
+	 */
+	boolean existsByNameKey(String nameKey);
+
+	/**
+	 * Check whether a book other than the given one has a specific name key.
+	 *
+	 * @param nameKey The {@link Book#nameKey(String) name key} to look for.
+	 * @param bookId  The ID of the book to ignore.
+	 * @return true if another book with the same name exists.
+	 */
+	boolean existsByNameKeyAndBookIdNot(String nameKey, Long bookId);
+
+	/**
+	 * Retrieve the columns of specific books, without materialising entities.
+	 *
+	 * @param bookIds The IDs of the books.
+	 * @return {bookId, categoryId, name, bookDescription, version} rows of the
+	 *         books that exist.
+	 */
+	@Query("select b.bookId, c.categoryId, b.name, b.bookDescription, b.version from Book b "
+			+ "left join b.categories c where b.bookId in :bookIds")
+	List<Object[]> findCatalogueRowsByIds(@Param("bookIds") Collection<Long> bookIds);
+
+	/**
+	 * Update the name and description of a book in a single statement if it still
+	 * has the expected version, incrementing the version.
+	 *
+	 * @param bookId          The ID of the book.
+	 * @param version         The version the caller last saw.
+	 * @param name            The new name of the book.
+	 * @param nameKey         The {@link Book#nameKey(String) name key} of the new
+	 *                        name.
+	 * @param bookDescription The new description of the book.
+	 * @return 1 if the book was updated, 0 if it does not exist or its version
+	 *         differs.
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("update Book b set b.name = :name, b.nameKey = :nameKey, b.bookDescription = :bookDescription, "
+			+ "b.version = b.version + 1 where b.bookId = :bookId and b.version = :version")
+	int updateIfVersionMatches(@Param("bookId") Long bookId, @Param("version") long version,
+			@Param("name") String name, @Param("nameKey") String nameKey,
+			@Param("bookDescription") String bookDescription);
+
+	/**
+	 * Delete a book in a single statement if it still has the expected version.
+	 *
+	 * @param bookId  The ID of the book.
+	 * @param version The version the caller last saw.
+	 * @return 1 if the book was deleted, 0 if it does not exist or its version
+	 *         differs.
+	 */
+	@Modifying
+	@Query("delete from Book b where b.bookId = :bookId and b.version = :version")
+	int deleteIfVersionMatches(@Param("bookId") Long bookId, @Param("version") long version);
+
+	/**
+	 * Insert a book under an existing ID and version, bypassing the generated
+	 * key. Used to move an archived book back unchanged.
+	 *
+	 * @param bookId          The ID of the book.
+	 * @param name            The name of the book.
+	 * @param nameKey         The {@link Book#nameKey(String) name key} of the
+	 *                        book.
+	 * @param bookDescription The description of the book.
+	 * @param categoryId      The ID of the book's category.
+	 * @param version         The version of the book.
+	 * @return The number of inserted rows.
+	 */
+	@Modifying
+	@Query(nativeQuery = true, value = "insert into books "
+			+ "(book_id, book_name, book_name_key, book_description, category_id, version) "
+			+ "values (:bookId, :name, :nameKey, :bookDescription, :categoryId, :version)")
+	int insertWithId(@Param("bookId") Long bookId, @Param("name") String name, @Param("nameKey") String nameKey,
+			@Param("bookDescription") String bookDescription, @Param("categoryId") Long categoryId,
+			@Param("version") Long version);
+
 
 //	List<Book> findByName(String name);
 
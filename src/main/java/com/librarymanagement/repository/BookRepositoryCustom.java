@@ -0,0 +1,49 @@
+package com.librarymanagement.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import com.librarymanagement.projection.BookField;
+
+/**
+ * Custom repository fragment for Book queries that cannot be expressed as
+ * derived query methods.
+ */
+public interface BookRepositoryCustom {
+
+	/**
+	 * Retrieve books selecting only the requested columns. The select list of the
+	 * generated SQL contains nothing but the columns backing {@code fields}, and
+	 * the categories table is joined only when {@link BookField#CATEGORIES} is
+	 * requested.
+	 *
+	 * @param fields     The fields to select.
+	 * @param categoryId Optional category filter, ignored when null.
+	 * @param name       Optional exact name filter, ignored when null.
+	 * @return One map per book, keyed by the JSON name of each requested field.
+	 */
+	List<Map<String, Object>> findProjected(Set<BookField> fields, Long categoryId, String name);
+
+	/**
+	 * Retrieve the smallest and the largest book id.
+	 *
+	 * @return {min, max}, or null if there are no books.
+	 */
+	long[] findBookIdBounds();
+
+	/**
+	 * Stream the columns of the books within an id range in id order, without
+	 * materialising entities. Must be consumed inside a transaction and closed
+	 * afterwards.
+	 *
+	 * @param fromId    The first book id of the range, inclusive.
+	 * @param toId      The last book id of the range, inclusive.
+	 * @param fetchSize The number of rows fetched from the database at once.
+	 * @return A stream of {bookId, categoryId, name, bookDescription, version}
+	 *         rows.
+	 */
+	Stream<Object[]> streamCatalogueRange(long fromId, long toId, int fetchSize);
+
+}
@@ -0,0 +1,141 @@
+package com.librarymanagement.repository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import com.librarymanagement.entity.Book;
+import com.librarymanagement.entity.Category;
+import com.librarymanagement.projection.BookField;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+/**
+ * Criteria API implementation of {@link BookRepositoryCustom}.
+ */
+public class BookRepositoryCustomImpl implements BookRepositoryCustom {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	/**
+	 * Retrieve books selecting only the requested columns.
+	 *
+	 * @param fields     The fields to select.
+	 * @param categoryId Optional category filter, ignored when null.
+	 * @param name       Optional exact name filter, ignored when null.
+	 * @return One map per book, keyed by the JSON name of each requested field.
+	 */
+	@Override
+	public List<Map<String, Object>> findProjected(Set<BookField> fields, Long categoryId, String name) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = cb.createTupleQuery();
+		Root<Book> book = query.from(Book.class);
+
+		List<Selection<?>> selections = new ArrayList<>();
+		for (BookField field : fields) {
+			switch (field) {
+			case BOOK_ID -> selections.add(book.get("bookId"));
+			case NAME -> selections.add(book.get("name"));
+			case BOOK_DESCRIPTION -> selections.add(book.get("bookDescription"));
+			// Resolves to the category_id foreign key column, no join needed
+			case CATEGORY_ID -> selections.add(book.get("categories").get("categoryId"));
+			case CATEGORIES -> {
+				Join<Book, Category> category = book.join("categories", JoinType.LEFT);
+				selections.add(category.get("categoryId"));
+				selections.add(category.get("categoryName"));
+			}
+			}
+		}
+		query.multiselect(selections);
+
+		List<Predicate> predicates = new ArrayList<>();
+		if (categoryId != null) {
+			predicates.add(cb.equal(book.get("categories").get("categoryId"), categoryId));
+		}
+		if (name != null) {
+			predicates.add(cb.equal(book.get("name"), name));
+		}
+		query.where(predicates.toArray(new Predicate[0]));
+
+		List<Tuple> rows = entityManager.createQuery(query).getResultList();
+		List<Map<String, Object>> result = new ArrayList<>(rows.size());
+		for (Tuple row : rows) {
+			result.add(toMap(fields, row));
+		}
+		return result;
+	}
+
+	/**
+	 * Retrieve the smallest and the largest book id.
+	 *
+	 * @return {min, max}, or null if there are no books.
+	 */
+	@Override
+	public long[] findBookIdBounds() {
+		Object[] bounds = entityManager.createQuery("select min(b.bookId), max(b.bookId) from Book b", Object[].class)
+				.getSingleResult();
+		if (bounds[0] == null) {
+			return null;
+		}
+		return new long[] { (Long) bounds[0], (Long) bounds[1] };
+	}
+
+	/**
+	 * Stream the columns of the books within an id range in id order. MySQL
+	 * Connector/J only honours the fetch size with {@code useCursorFetch=true} in
+	 * the connection URL; otherwise it reads the whole range into memory before
+	 * the first row is returned.
+	 *
+	 * @param fromId    The first book id of the range, inclusive.
+	 * @param toId      The last book id of the range, inclusive.
+	 * @param fetchSize The number of rows fetched from the database at once.
+	 * @return A stream of {bookId, categoryId, name, bookDescription, version}
+	 *         rows.
+	 */
+	@Override
+	public Stream<Object[]> streamCatalogueRange(long fromId, long toId, int fetchSize) {
+		return entityManager
+				.createQuery("select b.bookId, c.categoryId, b.name, b.bookDescription, b.version from Book b "
+						+ "left join b.categories c where b.bookId between :fromId and :toId order by b.bookId",
+						Object[].class)
+				.setParameter("fromId", fromId).setParameter("toId", toId)
+				.setHint("org.hibernate.fetchSize", fetchSize).setHint("org.hibernate.readOnly", true)
+				.getResultStream();
+	}
+
+	private Map<String, Object> toMap(Set<BookField> fields, Tuple row) {
+		Map<String, Object> values = new LinkedHashMap<>();
+		int index = 0;
+		for (BookField field : fields) {
+			if (field == BookField.CATEGORIES) {
+				Object id = row.get(index++);
+				Object categoryName = row.get(index++);
+				if (id == null) {
+					values.put(field.getJsonName(), null);
+				} else {
+					Map<String, Object> category = new LinkedHashMap<>();
+					category.put("categoryId", id);
+					category.put("categoryName", categoryName);
+					values.put(field.getJsonName(), category);
+				}
+			} else {
+				values.put(field.getJsonName(), row.get(index++));
+			}
+		}
+		return values;
+	}
+
+}
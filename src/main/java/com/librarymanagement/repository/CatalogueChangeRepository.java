@@ -0,0 +1,80 @@
+package com.librarymanagement.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.librarymanagement.entity.CatalogueChange;
+
+/**
+ * Repository interface for the catalogue change log in the library management
+ * system.
+ */
+public interface CatalogueChangeRepository extends JpaRepository<CatalogueChange, Long> {
+
+	/**
+	 * Retrieve the changes after a watermark. Changes made at or after
+	 * {@code since} are included as well, which covers transactions that took
+	 * their change id before the watermark was read but committed after it.
+	 *
+	 * @param watermark The highest change id already seen.
+	 * @param since     The oldest change time to include regardless of its id.
+	 * @return The changes in change id order.
+	 */
+	@Query("select c from CatalogueChange c where c.changeId > :watermark or c.changedAt >= :since "
+			+ "order by c.changeId")
+	List<CatalogueChange> findChangesSince(@Param("watermark") long watermark, @Param("since") Instant since);
+
+	/**
+	 * Retrieve the changes after a change id, oldest first.
+	 *
+	 * @param changeId The highest change id already seen.
+	 * @param pageable The maximum number of changes to return.
+	 * @return The changes in change id order.
+	 */
+	@Query("select c from CatalogueChange c where c.changeId > :changeId order by c.changeId")
+	List<CatalogueChange> findChangesAfter(@Param("changeId") long changeId, Pageable pageable);
+
+	/**
+	 * Retrieve the id of the most recent change.
+	 *
+	 * @return The highest change id, or 0 if the log is empty.
+	 */
+	@Query("select coalesce(max(c.changeId), 0) from CatalogueChange c")
+	long findMaxChangeId();
+
+	/**
+	 * Retrieve the id of the oldest change still in the log.
+	 *
+	 * @return The lowest change id, or 0 if the log is empty.
+	 */
+	@Query("select coalesce(min(c.changeId), 0) from CatalogueChange c")
+	long findMinChangeId();
+
+	/**
+	 * Retrieve the changes strictly between two change ids.
+	 *
+	 * @param afterId  The change id to start after.
+	 * @param beforeId The change id to stop before.
+	 * @return The changes in change id order.
+	 */
+	@Query("select c from CatalogueChange c where c.changeId > :afterId and c.changeId < :beforeId "
+			+ "order by c.changeId")
+	List<CatalogueChange> findChangesBetween(@Param("afterId") long afterId, @Param("beforeId") long beforeId);
+
+	/**
+	 * Delete the changes made before a point in time.
+	 *
+	 * @param cutoff The oldest change time to keep.
+	 * @return The number of deleted changes.
+	 */
+	@Modifying
+	@Query("delete from CatalogueChange c where c.changedAt < :cutoff")
+	int deleteChangesBefore(@Param("cutoff") Instant cutoff);
+
+}
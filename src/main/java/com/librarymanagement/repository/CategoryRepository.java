@@ -1,6 +1,13 @@
 package com.librarymanagement.repository;
 
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.librarymanagement.entity.*;
 
@@ -10,4 +17,59 @@ import com.librarymanagement.entity.*;
  */
 public interface CategoryRepository extends JpaRepository<Category, Long> {
 
+	/**
+	 * Retrieve every category together with its books in a single query, so that
+	 * serializing the books does not load them one category at a time.
+	 *
+	 * @return All categories, with their books initialized.
+	 */
+	@Override
+	@EntityGraph(attributePaths = "setOfBooks")
+	List<Category> findAll();
+
+	/**
+	 * Count the books of every category in a single GROUP BY pass. Categories
+	 * without books are included with a count of 0.
+	 *
+	 * @return Pairs of category ID and book count.
+	 */
+	@Query("select c.categoryId, count(b) from Category c left join c.setOfBooks b group by c.categoryId")
+	List<Object[]> countBooksPerCategory();
+
+	/**
+	 * Retrieve the id, name and version of every category in id order, without
+	 * loading entities.
+	 *
+	 * @return {categoryId, categoryName, version} rows.
+	 */
+	@Query("select c.categoryId, c.categoryName, c.version from Category c order by c.categoryId")
+	List<Object[]> findAllIdsAndNames();
+
+	/**
+	 * Retrieve the id, name and version of specific categories, without loading
+	 * entities.
+	 *
+	 * @param categoryIds The IDs of the categories.
+	 * @return {categoryId, categoryName, version} rows of the categories that
+	 *         exist.
+	 */
+	@Query("select c.categoryId, c.categoryName, c.version from Category c where c.categoryId in :categoryIds")
+	List<Object[]> findIdsAndNamesByIds(@Param("categoryIds") Collection<Long> categoryIds);
+
+	/**
+	 * Rename a category in a single statement if it still has the expected
+	 * version, incrementing the version.
+	 *
+	 * @param categoryId   The ID of the category.
+	 * @param version      The version the caller last saw.
+	 * @param categoryName The new name of the category.
+	 * @return 1 if the category was updated, 0 if it does not exist or its
+	 *         version differs.
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("update Category c set c.categoryName = :categoryName, c.version = c.version + 1 "
+			+ "where c.categoryId = :categoryId and c.version = :version")
+	int updateIfVersionMatches(@Param("categoryId") Long categoryId, @Param("version") long version,
+			@Param("categoryName") String categoryName);
+
 }
@@ -0,0 +1,88 @@
+package com.librarymanagement.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.librarymanagement.entity.GenreStatistics;
+import com.librarymanagement.projection.GenreCount;
+
+/**
+ * Repository interface for managing the per-genre book counters in the library
+ * management system. Counter changes are issued as single UPDATE statements so
+ * concurrent writers never lose increments.
+ */
+public interface GenreStatisticsRepository extends JpaRepository<GenreStatistics, Long> {
+
+	/**
+	 * Increment the counter of a category and record the book just added, in a
+	 * single upsert: a category without a counter row yet gets one with a count
+	 * of 1, so concurrent first inserts cannot collide on the primary key.
+	 *
+	 * @param categoryId The ID of the category.
+	 * @param bookId     The ID of the book that was added.
+	 * @param addedAt    When the book was added.
+	 * @return The affected row count as reported by the driver.
+	 */
+	@Modifying
+	@Query(nativeQuery = true, value = "insert into genre_statistics (category_id, book_count, last_book_id, "
+			+ "last_book_added_at) values (:categoryId, 1, :bookId, :addedAt) on duplicate key update "
+			+ "book_count = book_count + 1, last_book_id = :bookId, last_book_added_at = :addedAt")
+	int incrementBookCount(@Param("categoryId") Long categoryId, @Param("bookId") Long bookId,
+			@Param("addedAt") Instant addedAt);
+
+	/**
+	 * Create the counter of a category unless it already has one, leaving an
+	 * existing counter untouched.
+	 *
+	 * @param categoryId The ID of the category.
+	 * @param bookCount  The number of books in the category.
+	 * @return The affected row count as reported by the driver.
+	 */
+	@Modifying
+	@Query(nativeQuery = true, value = "insert into genre_statistics (category_id, book_count) "
+			+ "values (:categoryId, :bookCount) on duplicate key update category_id = category_id")
+	int createIfMissing(@Param("categoryId") Long categoryId, @Param("bookCount") long bookCount);
+
+	/**
+	 * Decrement the counter of a category.
+	 *
+	 * @param categoryId The ID of the category.
+	 * @return The number of rows updated.
+	 */
+	@Modifying
+	@Query("update GenreStatistics s set s.bookCount = s.bookCount - 1 "
+			+ "where s.categoryId = :categoryId and s.bookCount > 0")
+	int decrementBookCount(@Param("categoryId") Long categoryId);
+
+	/**
+	 * Overwrite the counter of a category, but only if it still holds the value
+	 * the caller observed. A concurrent increment or decrement makes the repair a
+	 * no-op, leaving the row for the next reconciliation pass.
+	 *
+	 * @param categoryId The ID of the category.
+	 * @param expected   The counter value observed by the caller.
+	 * @param bookCount  The actual number of books in the category.
+	 * @return The number of rows updated.
+	 */
+	@Modifying
+	@Query("update GenreStatistics s set s.bookCount = :bookCount "
+			+ "where s.categoryId = :categoryId and s.bookCount = :expected")
+	int repairBookCount(@Param("categoryId") Long categoryId, @Param("expected") long expected,
+			@Param("bookCount") long bookCount);
+
+	/**
+	 * Retrieve the counter of every category together with its name.
+	 *
+	 * @return A list of genre counters ordered by category ID.
+	 */
+	@Query("select new com.librarymanagement.projection.GenreCount(c.categoryId, c.categoryName, s.bookCount, "
+			+ "s.lastBookId, s.lastBookAddedAt) from GenreStatistics s join Category c on c.categoryId = s.categoryId "
+			+ "order by c.categoryId")
+	List<GenreCount> findGenreCounts();
+
+}
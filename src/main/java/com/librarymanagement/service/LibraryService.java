@@ -1,10 +1,13 @@
 package com.librarymanagement.service;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import com.librarymanagement.entity.Book;
 import com.librarymanagement.entity.Category;
+import com.librarymanagement.projection.BookField;
+import com.librarymanagement.projection.GenreStatisticsSummary;
 
 /**
  * Service interface for managing operations related to the library management
@@ -37,6 +40,19 @@ public interface LibraryService {
 	 */
 	public Book updateBook(Long bookId, Book updatedBook);
 
+	/**
+	 * Updates an existing book if it still has the expected version, in a single
+	 * conditional statement.
+	 *
+	 * @param bookId          The ID of the book to be updated.
+	 * @param updatedBook     The updated book details.
+	 * @param expectedVersion The version the caller last saw, or null to update
+	 *                        whatever version is current.
+	 * @return The updated book.
+	 * @throws VersionConflictException if the book has another version.
+	 */
+	public Book updateBook(Long bookId, Book updatedBook, Long expectedVersion);
+
 	/**
 	 * Retrieves all available genres (categories) from the system.
 	 *
@@ -66,6 +82,14 @@ public interface LibraryService {
 	 */
 	public List<Book> findAllBooks();
 
+	/**
+	 * Retrieves a single book by its ID.
+	 *
+	 * @param bookId The ID of the book.
+	 * @return The book with the given ID.
+	 */
+	public Book findBookById(Long bookId);
+
 	/**
 	 * Searches for books by their name.
 	 *
@@ -74,6 +98,33 @@ public interface LibraryService {
 	 */
 	public List<Book> findBookByName(String name);
 
+	/**
+	 * Retrieves all books in the system, selecting only the requested fields.
+	 *
+	 * @param fields The fields to include for each book.
+	 * @return List of books as field name to value maps.
+	 */
+	public List<Map<String, Object>> findAllBooks(Set<BookField> fields);
+
+	/**
+	 * Retrieves the books of a specific genre (category), selecting only the
+	 * requested fields.
+	 *
+	 * @param categoryId The ID of the category (genre).
+	 * @param fields     The fields to include for each book.
+	 * @return List of books as field name to value maps.
+	 */
+	public List<Map<String, Object>> getBooksByGenre(Long categoryId, Set<BookField> fields);
+
+	/**
+	 * Searches for books by their name, selecting only the requested fields.
+	 *
+	 * @param name   The name of the book to search for.
+	 * @param fields The fields to include for each book.
+	 * @return List of books as field name to value maps.
+	 */
+	public List<Map<String, Object>> findBookByName(String name, Set<BookField> fields);
+
 	/**
 	 * Updates an existing category in the system with the provided category
 	 * details.
@@ -85,6 +136,19 @@ public interface LibraryService {
 	 */
 	public Category updateCategory(Long categoryId, Category category);
 
+	/**
+	 * Updates an existing category if it still has the expected version, in a
+	 * single conditional statement.
+	 *
+	 * @param categoryId      The ID of the category to be updated.
+	 * @param category        The updated category details.
+	 * @param expectedVersion The version the caller last saw, or null to update
+	 *                        whatever version is current.
+	 * @return The updated category.
+	 * @throws VersionConflictException if the category has another version.
+	 */
+	public Category updateCategory(Long categoryId, Category category, Long expectedVersion);
+
 	/**
 	 * Deletes a category from the system.
 	 *
@@ -92,4 +156,11 @@ public interface LibraryService {
 	 */
 	public void deleteCategory(Long categoryId);
 
+	/**
+	 * Retrieves aggregate book statistics per genre (category).
+	 *
+	 * @return The per-genre counts, the total and the most recently added genres.
+	 */
+	public GenreStatisticsSummary getGenreStatistics();
+
 }
@@ -0,0 +1,233 @@
+package com.librarymanagement.service.impl;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import com.librarymanagement.archive.BookReadTracker;
+import com.librarymanagement.concurrent.SingleFlight;
+import com.librarymanagement.entity.Book;
+import com.librarymanagement.entity.Category;
+import com.librarymanagement.exceptions.EmptyFieldException;
+import com.librarymanagement.projection.BookField;
+import com.librarymanagement.projection.GenreStatisticsSummary;
+import com.librarymanagement.readmodel.CatalogueReadModel;
+import com.librarymanagement.readmodel.CatalogueSnapshot;
+import com.librarymanagement.service.LibraryService;
+
+/**
+ * LibraryService decorator in front of the transactional service. The listing,
+ * by-genre and by-id reads are answered from the in-memory
+ * {@link CatalogueReadModel} once it is loaded, without opening a transaction.
+ * Other reads, and all reads before the read model is ready, are coalesced:
+ * callers asking for the same data at the same moment share a single
+ * transaction and query through {@link SingleFlight}. Writes are passed
+ * straight through. Shared results are detached copies built by the leader:
+ * entities still attached to the leader's session would let a follower trigger
+ * lazy loads through it from another thread, possibly after it was closed. The
+ * collections are unmodifiable, so that no caller can change what another
+ * caller is about to serialize.
+ * <p>
+ * Reads by ID and by name are reported to the {@link BookReadTracker}. A book
+ * the read model does not hold is looked up through the transactional service,
+ * which also restores it from the archive: the read model of this node may not
+ * have caught up yet with a book written on another node.
+ */
+@Service
+@Primary
+public class CoalescingLibraryService implements LibraryService {
+
+	private final LibraryServiceImpl delegate;
+	private final SingleFlight singleFlight;
+	private final CatalogueReadModel readModel;
+	private final BookReadTracker readTracker;
+
+	/**
+	 * Constructs a CoalescingLibraryService around the transactional service.
+	 *
+	 * @param delegate     The service executing the actual reads and writes.
+	 * @param singleFlight The coalescer shared by all reads.
+	 * @param readModel    The in-memory copy of the catalogue.
+	 * @param readTracker  Records which books are read.
+	 */
+	public CoalescingLibraryService(LibraryServiceImpl delegate, SingleFlight singleFlight,
+			CatalogueReadModel readModel, BookReadTracker readTracker) {
+		this.delegate = delegate;
+		this.singleFlight = singleFlight;
+		this.readModel = readModel;
+		this.readTracker = readTracker;
+	}
+
+	@Override
+	public Category addNewCategory(Category category) {
+		return delegate.addNewCategory(category);
+	}
+
+	@Override
+	public Book addNewBook(Book book) {
+		return delegate.addNewBook(book);
+	}
+
+	@Override
+	public Book updateBook(Long bookId, Book updatedBook) {
+		return delegate.updateBook(bookId, updatedBook);
+	}
+
+	@Override
+	public Book updateBook(Long bookId, Book updatedBook, Long expectedVersion) {
+		return delegate.updateBook(bookId, updatedBook, expectedVersion);
+	}
+
+	@Override
+	public List<Category> getAllGenres() {
+		return singleFlight.execute(key("getAllGenres"),
+				() -> delegate.getAllGenres().stream().map(CoalescingLibraryService::detach).toList());
+	}
+
+	@Override
+	public Set<Book> getBooksByGenre(Long categoryId) {
+		CatalogueSnapshot snapshot = readModel.snapshot();
+		if (snapshot != null) {
+			Set<Book> books = snapshot.booksOfCategory(categoryId);
+			if (books == null) {
+				throw new RuntimeException("Category not found");
+			}
+			return books;
+		}
+		// The copy initializes the lazy collection on the leader's thread
+		return singleFlight.execute(key("getBooksByGenre", categoryId),
+				() -> Collections.unmodifiableSet(delegate.getBooksByGenre(categoryId).stream()
+						.map(CoalescingLibraryService::detach).collect(Collectors.toCollection(LinkedHashSet::new))));
+	}
+
+	@Override
+	public void deleteBook(Long bookId) {
+		delegate.deleteBook(bookId);
+	}
+
+	@Override
+	public List<Book> findAllBooks() {
+		CatalogueSnapshot snapshot = readModel.snapshot();
+		if (snapshot != null) {
+			if (snapshot.bookCount() == 0) {
+				throw new EmptyFieldException("602", "The list is empty");
+			}
+			return snapshot.allBooks();
+		}
+		return singleFlight.execute(key("findAllBooks"),
+				() -> delegate.findAllBooks().stream().map(CoalescingLibraryService::detach).toList());
+	}
+
+	@Override
+	public Book findBookById(Long bookId) {
+		CatalogueSnapshot snapshot = readModel.snapshot();
+		Book book = snapshot != null ? snapshot.findBook(bookId) : null;
+		if (book == null) {
+			// Archived, written on another node and not yet heard of here, or absent
+			book = singleFlight.execute(key("findBookById", bookId), () -> detach(delegate.findBookById(bookId)));
+		}
+		readTracker.recordRead(book.getBookId());
+		return book;
+	}
+
+	@Override
+	public List<Book> findBookByName(String name) {
+		List<Book> books = singleFlight.execute(key("findBookByName", name),
+				() -> delegate.findBookByName(name).stream().map(CoalescingLibraryService::detach).toList());
+		if (!books.isEmpty()) {
+			readTracker.recordReadByName(name);
+		}
+		return books;
+	}
+
+	@Override
+	public List<Map<String, Object>> findAllBooks(Set<BookField> fields) {
+		return singleFlight.execute(key("findAllBooks", fields), () -> List.copyOf(delegate.findAllBooks(fields)));
+	}
+
+	@Override
+	public List<Map<String, Object>> getBooksByGenre(Long categoryId, Set<BookField> fields) {
+		return singleFlight.execute(key("getBooksByGenre", categoryId, fields),
+				() -> List.copyOf(delegate.getBooksByGenre(categoryId, fields)));
+	}
+
+	@Override
+	public List<Map<String, Object>> findBookByName(String name, Set<BookField> fields) {
+		List<Map<String, Object>> books = singleFlight.execute(key("findBookByName", name, fields),
+				() -> List.copyOf(delegate.findBookByName(name, fields)));
+		if (!books.isEmpty()) {
+			readTracker.recordReadByName(name);
+		}
+		return books;
+	}
+
+	@Override
+	public Category updateCategory(Long categoryId, Category category) {
+		return delegate.updateCategory(categoryId, category);
+	}
+
+	@Override
+	public Category updateCategory(Long categoryId, Category category, Long expectedVersion) {
+		return delegate.updateCategory(categoryId, category, expectedVersion);
+	}
+
+	@Override
+	public void deleteCategory(Long categoryId) {
+		delegate.deleteCategory(categoryId);
+	}
+
+	@Override
+	public GenreStatisticsSummary getGenreStatistics() {
+		return singleFlight.execute(key("getGenreStatistics"), delegate::getGenreStatistics);
+	}
+
+	private static List<Object> key(Object... parts) {
+		return Arrays.asList(parts);
+	}
+
+	/**
+	 * Copies a book and its category, without the category's books, which are
+	 * never serialized through a book.
+	 */
+	private static Book detach(Book book) {
+		Category category = book.getCategories();
+		Category categoryCopy = null;
+		if (category != null) {
+			categoryCopy = new Category(category.getCategoryId(), category.getCategoryName(), new HashSet<>());
+			categoryCopy.setVersion(category.getVersion());
+		}
+		Book copy = new Book(book.getBookId(), book.getName(), book.getBookDescription(), categoryCopy,
+				book.getCategoryId());
+		copy.setVersion(book.getVersion());
+		return copy;
+	}
+
+	/**
+	 * Copies a category and its books, without the books' category, which is
+	 * never serialized through a category.
+	 */
+	private static Category detach(Category category) {
+		Set<Book> books = new LinkedHashSet<>();
+		if (category.getSetOfBooks() != null) {
+			for (Book book : category.getSetOfBooks()) {
+				Book bookCopy = new Book(book.getBookId(), book.getName(), book.getBookDescription(), null,
+						book.getCategoryId());
+				bookCopy.setVersion(book.getVersion());
+				books.add(bookCopy);
+			}
+		}
+		Category copy = new Category(category.getCategoryId(), category.getCategoryName(),
+				Collections.unmodifiableSet(books));
+		copy.setVersion(category.getVersion());
+		return copy;
+	}
+
+}
@@ -1,19 +1,38 @@
 package com.librarymanagement.service.impl;
 
+import java.time.Instant;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.regex.Pattern;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.librarymanagement.archive.BookArchive;
+import com.librarymanagement.entity.ArchivedBook;
 import com.librarymanagement.entity.Book;
+import com.librarymanagement.entity.CatalogueChange;
 import com.librarymanagement.entity.Category;
+import com.librarymanagement.entity.GenreStatistics;
+import com.librarymanagement.event.CatalogueChangeEvent;
 import com.librarymanagement.exceptions.*;
+import com.librarymanagement.index.BookNameIndex;
+import com.librarymanagement.projection.BookField;
+import com.librarymanagement.projection.GenreCount;
+import com.librarymanagement.projection.GenreStatisticsSummary;
 import com.librarymanagement.repository.BookRepository;
+import com.librarymanagement.repository.CatalogueChangeRepository;
 import com.librarymanagement.repository.CategoryRepository;
+import com.librarymanagement.repository.GenreStatisticsRepository;
 import com.librarymanagement.service.LibraryService;
 
 /**
@@ -23,6 +42,9 @@ import com.librarymanagement.service.LibraryService;
 @Service
 public class LibraryServiceImpl implements LibraryService {
 	private static final Logger logger = LoggerFactory.getLogger(LibraryServiceImpl.class.getName());
+	private static final int RECENTLY_ADDED_LIMIT = 5;
+	private static final List<String> NAME_CONSTRAINTS = List.of(Book.NAME_INDEX, Book.NAME_KEY_INDEX);
+	private static final Pattern INDEX_SUFFIX = Pattern.compile("_index_\\d+$", Pattern.CASE_INSENSITIVE);
 
 	@Autowired
 	private BookRepository bookRepository;
@@ -30,16 +52,49 @@ public class LibraryServiceImpl implements LibraryService {
 	@Autowired
 	private CategoryRepository categoryRepository;
 
+	@Autowired
+	private GenreStatisticsRepository genreStatisticsRepository;
+
+	@Autowired
+	private BookNameIndex bookNameIndex;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Autowired
+	private CatalogueChangeRepository catalogueChangeRepository;
+
+	@Autowired
+	private BookArchive bookArchive;
+
 	/**
 	 * Constructs a LibraryServiceImpl with the provided repositories.
 	 *
-	 * @param bookRepository     The repository for managing Book entities.
-	 * @param categoryRepository The repository for managing Category entities.
+	 * @param bookRepository            The repository for managing Book entities.
+	 * @param categoryRepository        The repository for managing Category
+	 *                                  entities.
+	 * @param genreStatisticsRepository The repository for the per-genre book
+	 *                                  counters.
+	 * @param bookNameIndex             The in-memory filter of existing book
+	 *                                  names.
+	 * @param eventPublisher            Publishes a CatalogueChangeEvent for every
+	 *                                  write.
+	 * @param catalogueChangeRepository The repository for the catalogue change
+	 *                                  log.
+	 * @param bookArchive               The cold tier books are restored from.
 	 */
-	public LibraryServiceImpl(BookRepository bookRepository, CategoryRepository categoryRepository) {
+	public LibraryServiceImpl(BookRepository bookRepository, CategoryRepository categoryRepository,
+			GenreStatisticsRepository genreStatisticsRepository, BookNameIndex bookNameIndex,
+			ApplicationEventPublisher eventPublisher, CatalogueChangeRepository catalogueChangeRepository,
+			BookArchive bookArchive) {
 		super();
 		this.bookRepository = bookRepository;
 		this.categoryRepository = categoryRepository;
+		this.genreStatisticsRepository = genreStatisticsRepository;
+		this.bookNameIndex = bookNameIndex;
+		this.eventPublisher = eventPublisher;
+		this.catalogueChangeRepository = catalogueChangeRepository;
+		this.bookArchive = bookArchive;
 	}
 
 	/**
@@ -50,8 +105,14 @@ public class LibraryServiceImpl implements LibraryService {
 	 */
 	@Transactional
 	public Category addNewCategory(Category category) {
-		logger.info("Adding new category: " + category.getCategoryName());
-		return categoryRepository.save(category);
+		logger.debug("Adding new category: {}", category.getCategoryName());
+		// A version from the request would make the repository merge instead of insert
+		category.setVersion(null);
+		// Flushed so that the change event carries the version the database holds
+		Category addedCategory = categoryRepository.saveAndFlush(category);
+		genreStatisticsRepository.save(new GenreStatistics(addedCategory.getCategoryId(), 0));
+		publishChange(CatalogueChangeEvent.categoryUpserted(addedCategory));
+		return addedCategory;
 	}
 
 	/**
@@ -64,27 +125,30 @@ public class LibraryServiceImpl implements LibraryService {
 	 */
 	@Transactional
 	public Book addNewBook(Book book) {
-		logger.info("Creating a new book: {}", book.getName());
+		logger.debug("Creating a new book: {}", book.getName());
 		// Logic to associate the book with an existing category
 		Category category = categoryRepository.findById(book.getCategoryId())
 				.orElseThrow(() -> new NotFoundException("Category not found "));
-		// Logic to check if book name already exists or not
-		/*
-		 * List<Book> existingBook = bookRepository.findBookByName(book.getName()); if
-		 * (!existingBook.isEmpty()) { throw new BookNamePresentException(); }
-		 */
-		if (!bookRepository.findBookByName(book.getName()).isEmpty()) {
-			throw new BookNamePresentException();
+		// Logic to check if book name already exists or not, the filter answers
+		// most checks without a query
+		if (isNameTaken(book.getName(), null)) {
+			throw new BookNamePresentException("606", String.format("Book name '%s' already present", book.getName()));
 		}
 
 		book.setCategories(category);
-		Book addedBook = bookRepository.save(book);
-		logger.info("Added new book: " + addedBook.getName());
+		// A version from the request would make the repository merge instead of insert
+		book.setVersion(null);
+		Book addedBook = saveUniqueName(book);
+		bookNameIndex.add(addedBook.getName());
+		incrementGenreCount(category.getCategoryId(), addedBook.getBookId());
+		publishChange(CatalogueChangeEvent.bookUpserted(addedBook));
+		logger.debug("Added new book: {}", addedBook.getName());
 		return addedBook;
 	}
 
 	/**
-	 * Updates an existing book in the system.
+	 * Updates an existing book in the system, restoring it from the archive
+	 * first if it is archived.
 	 *
 	 * @param bookId      The ID of the book to be updated.
 	 * @param updatedBook The updated book details.
@@ -93,14 +157,67 @@ public class LibraryServiceImpl implements LibraryService {
 	 */
 	@Transactional
 	public Book updateBook(Long bookId, Book updatedBook) {
-		logger.info("Updating book with ID: {}", updatedBook.getBookId());
-		Book existingBook = bookRepository.findById(bookId)
+		logger.debug("Updating book with ID: {}", bookId);
+		Book existingBook = bookRepository.findById(bookId).or(() -> bookArchive.restore(bookId))
 				.orElseThrow(() -> new NotFoundException(String.format("Book not found with ID %d", bookId)));
+		String previousName = existingBook.getName();
+		boolean renamed = updatedBook.getName() != null && !updatedBook.getName().equals(previousName);
+		if (renamed && isNameTaken(updatedBook.getName(), bookId)) {
+			throw new BookNamePresentException("606",
+					String.format("Book name '%s' already present", updatedBook.getName()));
+		}
 		// Update properties of the existing book with properties from updatedBook
 		existingBook.setName(updatedBook.getName());
 		existingBook.setBookDescription(updatedBook.getBookDescription());
-		Book updated = bookRepository.save(existingBook);
-		logger.info("Updated book details: " + updated);
+		Book updated = saveUniqueName(existingBook);
+		if (renamed) {
+			bookNameIndex.add(updated.getName());
+			bookNameIndex.remove(previousName);
+		}
+		publishChange(CatalogueChangeEvent.bookUpserted(updated));
+		logger.debug("Updated book details: {}", updated);
+		return updated;
+	}
+
+	/**
+	 * Updates an existing book if it still has the expected version. The update
+	 * is a single conditional statement without a preliminary select, and the
+	 * unique name index rejects duplicate names. The book is only read back
+	 * after the update, for the response and the change event.
+	 *
+	 * @param bookId          The ID of the book to be updated.
+	 * @param updatedBook     The updated book details.
+	 * @param expectedVersion The version the caller last saw, or null to update
+	 *                        whatever version is current.
+	 * @return The updated book.
+	 * @throws NotFoundException        if the specified book ID is not found.
+	 * @throws VersionConflictException if the book has another version.
+	 * @throws BookNamePresentException if another book has the new name.
+	 */
+	@Transactional
+	public Book updateBook(Long bookId, Book updatedBook, Long expectedVersion) {
+		if (expectedVersion == null) {
+			return updateBook(bookId, updatedBook);
+		}
+		logger.debug("Updating book with ID: {} at version {}", bookId, expectedVersion);
+		int updatedRows = updateIfVersionMatches(bookId, updatedBook, expectedVersion);
+		if (updatedRows == 0 && !bookRepository.existsById(bookId)) {
+			// An archived book keeps its version, so the update applies once it is restored
+			if (bookArchive.restore(bookId).isEmpty()) {
+				throw new NotFoundException(String.format("Book not found with ID %d", bookId));
+			}
+			updatedRows = updateIfVersionMatches(bookId, updatedBook, expectedVersion);
+		}
+		if (updatedRows == 0) {
+			throw new VersionConflictException("607",
+					String.format("Book %d is no longer at version %d", bookId, expectedVersion));
+		}
+		Book updated = bookRepository.findById(bookId)
+				.orElseThrow(() -> new NotFoundException(String.format("Book not found with ID %d", bookId)));
+		// The previous name is unknown here, so the name may stay behind as a stale filter entry
+		bookNameIndex.add(updated.getName());
+		publishChange(CatalogueChangeEvent.bookUpserted(updated));
+		logger.debug("Updated book details: {}", updated);
 		return updated;
 	}
 
@@ -112,12 +229,11 @@ public class LibraryServiceImpl implements LibraryService {
 	 */
 	@Transactional(readOnly = true)
 	public List<Category> getAllGenres() {
-		logger.info("Getting all categories");
+		logger.debug("Getting all categories");
 		List<Category> listOfCategories = categoryRepository.findAll();
 		if (listOfCategories.isEmpty()) {
 			throw new EmptyFieldException("602", "The list is empty");
 		} else {
-			logger.info("Total categories retrieved: {}", listOfCategories.size());
 			return listOfCategories;
 		}
 	}
@@ -131,25 +247,34 @@ public class LibraryServiceImpl implements LibraryService {
 	 */
 	@Transactional(readOnly = true)
 	public Set<Book> getBooksByGenre(Long categoryId) {
-		logger.info("Getting books for category with ID: " + categoryId);
+		logger.debug("Getting books for category with ID: {}", categoryId);
 		Category category = categoryRepository.findById(categoryId)
 				.orElseThrow(() -> new RuntimeException("Category not found"));
 		return category.getSetOfBooks();
 	}
 
 	/**
-	 * Deletes a book from the system by its ID.
+	 * Deletes a book from the system by its ID, whether it is in the books table
+	 * or archived.
 	 *
 	 * @param bookId The ID of the book to be deleted.
 	 * @throws NotFoundException if the specified book ID is not found.
 	 */
 	@Transactional
 	public void deleteBook(Long bookId) {
-		logger.info("Deleting book with ID: " + bookId);
-		Book book = bookRepository.findById(bookId)
-				.orElseThrow(() -> new NotFoundException(String.format("Book not found with ID %d", bookId)));
+		logger.debug("Deleting book with ID: {}", bookId);
+		Book book = bookRepository.findById(bookId).orElse(null);
+		if (book == null) {
+			deleteArchivedBook(bookId);
+			return;
+		}
 		bookRepository.deleteById(book.getBookId());
-		logger.info("Book deleted with ID: {}", bookId);
+		bookNameIndex.remove(book.getName());
+		publishChange(CatalogueChangeEvent.bookDeleted(bookId));
+		if (book.getCategories() != null) {
+			genreStatisticsRepository.decrementBookCount(book.getCategories().getCategoryId());
+		}
+		logger.debug("Book deleted with ID: {}", bookId);
 	}
 
 	/**
@@ -160,35 +285,110 @@ public class LibraryServiceImpl implements LibraryService {
 	 */
 	@Transactional(readOnly = true)
 	public List<Book> findAllBooks() {
-		logger.info("Getting all books");
+		logger.debug("Getting all books");
 		List<Book> listOfBooks = bookRepository.findAll();
 		if (listOfBooks.isEmpty()) {
 			throw new EmptyFieldException("602", "The list is empty");
 		} else {
-			logger.info("Total books retrieved: {}", listOfBooks.size());
 			return listOfBooks;
 		}
 	}
 
 	/**
-	 * Searches for books with a specific name.
+	 * Retrieves a single book by its ID, restoring it from the archive if it is
+	 * archived. Not transactional, so that the restore gets a read-write
+	 * transaction of its own, and only once the book is known to be archived.
+	 *
+	 * @param bookId The ID of the book.
+	 * @return The book with the specified ID.
+	 * @throws NotFoundException if the specified book ID is not found.
+	 */
+	public Book findBookById(Long bookId) {
+		logger.debug("Getting book with ID: {}", bookId);
+		return bookRepository.findById(bookId)
+				.or(() -> bookArchive.isArchived(bookId) ? bookArchive.restore(bookId) : Optional.<Book>empty())
+				.orElseThrow(() -> new NotFoundException(String.format("Book not found with ID %d", bookId)));
+	}
+
+	/**
+	 * Searches for books with a specific name, restoring the book from the
+	 * archive if only an archived book has the name. Not transactional, so that
+	 * the restore gets a read-write transaction of its own.
 	 *
 	 * @param name The name of the book to search for.
 	 * @return A list of books with the specified name.
 	 * @throws NullFieldException if the provided book name is null.
 	 */
-	@Transactional(readOnly = true)
 	public List<Book> findBookByName(String name) {
-		logger.info("Searching for books with name: " + name);
+		logger.debug("Searching for books with name: {}", name);
 		List<Book> book = bookRepository.findBookByName(name);
 		if (name == null) {
 			throw new NullFieldException("601", "name of the book is null");
+		} else if (book.isEmpty() && isNameArchived(name)) {
+			return bookArchive.restoreByName(name).map(List::of).orElse(book);
 		} else {
-			logger.info("Total books retrieved for name '{}': {}", name, book.size());
 			return book;
 		}
 	}
 
+	/**
+	 * Retrieves all books, selecting only the requested columns from the database.
+	 *
+	 * @param fields The fields to include for each book.
+	 * @return A list of books as field name to value maps.
+	 * @throws EmptyFieldException if the list of books is empty.
+	 */
+	@Transactional(readOnly = true)
+	public List<Map<String, Object>> findAllBooks(Set<BookField> fields) {
+		logger.debug("Getting all books with fields: {}", fields);
+		List<Map<String, Object>> listOfBooks = bookRepository.findProjected(fields, null, null);
+		if (listOfBooks.isEmpty()) {
+			throw new EmptyFieldException("602", "The list is empty");
+		}
+		return listOfBooks;
+	}
+
+	/**
+	 * Retrieves the books of a specific category, selecting only the requested
+	 * columns from the database.
+	 *
+	 * @param categoryId The ID of the category.
+	 * @param fields     The fields to include for each book.
+	 * @return A list of books as field name to value maps.
+	 * @throws RuntimeException if the category with the given ID is not found.
+	 */
+	@Transactional(readOnly = true)
+	public List<Map<String, Object>> getBooksByGenre(Long categoryId, Set<BookField> fields) {
+		logger.debug("Getting books for category with ID: {} and fields: {}", categoryId, fields);
+		if (!categoryRepository.existsById(categoryId)) {
+			throw new RuntimeException("Category not found");
+		}
+		return bookRepository.findProjected(fields, categoryId, null);
+	}
+
+	/**
+	 * Searches for books with a specific name, selecting only the requested
+	 * columns from the database. An archived book with the name is restored and
+	 * then selected like any other. Not transactional, so that the restore gets a
+	 * read-write transaction of its own.
+	 *
+	 * @param name   The name of the book to search for.
+	 * @param fields The fields to include for each book.
+	 * @return A list of books as field name to value maps.
+	 * @throws NullFieldException if the provided book name is null.
+	 */
+	public List<Map<String, Object>> findBookByName(String name, Set<BookField> fields) {
+		logger.debug("Searching for books with name: {} and fields: {}", name, fields);
+		if (name == null) {
+			throw new NullFieldException("601", "name of the book is null");
+		}
+		List<Map<String, Object>> book = bookRepository.findProjected(fields, null, name);
+		if (book.isEmpty() && isNameArchived(name) && bookArchive.restoreByName(name).isPresent()) {
+			book = bookRepository.findProjected(fields, null, name);
+		}
+		return book;
+	}
+
 	/**
 	 * Updates an existing category in the system.
 	 *
@@ -199,14 +399,49 @@ public class LibraryServiceImpl implements LibraryService {
 	 */
 	@Transactional
 	public Category updateCategory(Long categoryId, Category updatedCategory) {
-		logger.info("Updating category with ID: " + categoryId);
+		logger.debug("Updating category with ID: {}", categoryId);
 		Category existingCategory = categoryRepository.findById(categoryId)
 				.orElseThrow(() -> new NotFoundException(String.format("Category not found with ID %d", categoryId)));
 		// Update properties of the existing Category with properties from
 		// updatedCategory
 		existingCategory.setCategoryName(updatedCategory.getCategoryName());
-		return categoryRepository.save(existingCategory);
+		// Flushed so that the version is incremented before it goes into the change event
+		Category updated = categoryRepository.saveAndFlush(existingCategory);
+		publishChange(CatalogueChangeEvent.categoryUpserted(updated));
+		return updated;
+	}
 
+	/**
+	 * Updates an existing category if it still has the expected version, in a
+	 * single conditional statement without a preliminary select.
+	 *
+	 * @param categoryId      The ID of the category to be updated.
+	 * @param updatedCategory The updated category details.
+	 * @param expectedVersion The version the caller last saw, or null to update
+	 *                        whatever version is current.
+	 * @return The updated category.
+	 * @throws NotFoundException        if the specified category ID is not found.
+	 * @throws VersionConflictException if the category has another version.
+	 */
+	@Transactional
+	public Category updateCategory(Long categoryId, Category updatedCategory, Long expectedVersion) {
+		if (expectedVersion == null) {
+			return updateCategory(categoryId, updatedCategory);
+		}
+		logger.debug("Updating category with ID: {} at version {}", categoryId, expectedVersion);
+		int updatedRows = categoryRepository.updateIfVersionMatches(categoryId, expectedVersion,
+				updatedCategory.getCategoryName());
+		if (updatedRows == 0) {
+			if (!categoryRepository.existsById(categoryId)) {
+				throw new NotFoundException(String.format("Category not found with ID %d", categoryId));
+			}
+			throw new VersionConflictException("607",
+					String.format("Category %d is no longer at version %d", categoryId, expectedVersion));
+		}
+		Category updated = categoryRepository.findById(categoryId)
+				.orElseThrow(() -> new NotFoundException(String.format("Category not found with ID %d", categoryId)));
+		publishChange(CatalogueChangeEvent.categoryUpserted(updated));
+		return updated;
 	}
 
 	/**
@@ -217,10 +452,156 @@ public class LibraryServiceImpl implements LibraryService {
 	 */
 	@Transactional
 	public void deleteCategory(Long categoryId) {
-		logger.info("Deleting category with ID: " + categoryId);
+		logger.debug("Deleting category with ID: {}", categoryId);
 		Category category = categoryRepository.findById(categoryId)
 				.orElseThrow(() -> new NotFoundException(String.format("Category not found with ID %d", categoryId)));
 		categoryRepository.deleteById(category.getCategoryId());
-		logger.info("Category deleted with ID: {}", categoryId);
+		genreStatisticsRepository.deleteById(category.getCategoryId());
+		publishChange(CatalogueChangeEvent.categoryDeleted(categoryId));
+		logger.debug("Category deleted with ID: {}", categoryId);
+	}
+
+	/**
+	 * Retrieves the book count of every genre from the counter table, without
+	 * loading any book.
+	 *
+	 * @return The per-genre counts, the total and the most recently added genres.
+	 */
+	@Transactional(readOnly = true)
+	public GenreStatisticsSummary getGenreStatistics() {
+		logger.debug("Getting genre statistics");
+		List<GenreCount> genres = genreStatisticsRepository.findGenreCounts();
+		long totalBooks = genres.stream().mapToLong(GenreCount::getBookCount).sum();
+		List<GenreCount> recentlyAdded = genres.stream().filter(genre -> genre.getLastBookAddedAt() != null)
+				.sorted(Comparator.comparing(GenreCount::getLastBookAddedAt).reversed()).limit(RECENTLY_ADDED_LIMIT)
+				.toList();
+		return new GenreStatisticsSummary(totalBooks, genres, recentlyAdded);
+	}
+
+	/**
+	 * Checks whether a book name is already used, by a book in the books table or
+	 * an archived one. Names are the same when their {@link Book#nameKey(String)
+	 * name keys} are. The in-memory filter covers both tables and rules out most
+	 * names; only a possible hit is confirmed through the unique name key indexes.
+	 *
+	 * @param name          The name to check.
+	 * @param excludeBookId The ID of the book being renamed, or null on insert.
+	 */
+	private boolean isNameTaken(String name, Long excludeBookId) {
+		if (name == null || !bookNameIndex.mightContain(name)) {
+			return false;
+		}
+		String nameKey = Book.nameKey(name);
+		boolean taken = (excludeBookId == null ? bookRepository.existsByNameKey(nameKey)
+				: bookRepository.existsByNameKeyAndBookIdNot(nameKey, excludeBookId))
+				|| bookArchive.isNameArchived(name, excludeBookId);
+		if (!taken) {
+			bookNameIndex.recordFalsePositive();
+		}
+		return taken;
+	}
+
+	/**
+	 * Checks whether a lookup by name that missed the books table should try the
+	 * archive. The in-memory filter covers archived names as well, so it rules
+	 * out most misses; a possible hit is confirmed without locking before the
+	 * restore locks the archived row.
+	 *
+	 * @param name The name looked up.
+	 */
+	private boolean isNameArchived(String name) {
+		return bookNameIndex.mightContain(name) && bookArchive.isArchivedByName(name);
+	}
+
+	/**
+	 * Updates a book if it still has the expected version, turning a violation of
+	 * the unique name index into a BookNamePresentException.
+	 */
+	private int updateIfVersionMatches(Long bookId, Book updatedBook, long expectedVersion) {
+		try {
+			return bookRepository.updateIfVersionMatches(bookId, expectedVersion, updatedBook.getName(),
+					updatedBook.getName() == null ? null : Book.nameKey(updatedBook.getName()),
+					updatedBook.getBookDescription());
+		} catch (DataIntegrityViolationException e) {
+			throw duplicateNameOr(e, updatedBook.getName());
+		}
+	}
+
+	/**
+	 * Deletes an archived book. It still counted towards its genre, so the
+	 * counter is decremented like for any other book.
+	 */
+	private void deleteArchivedBook(Long bookId) {
+		ArchivedBook archived = bookArchive.delete(bookId)
+				.orElseThrow(() -> new NotFoundException(String.format("Book not found with ID %d", bookId)));
+		bookNameIndex.remove(archived.getName());
+		publishChange(CatalogueChangeEvent.bookDeleted(bookId));
+		if (archived.getCategoryId() != null) {
+			genreStatisticsRepository.decrementBookCount(archived.getCategoryId());
+		}
+		logger.debug("Archived book deleted with ID: {}", bookId);
+	}
+
+	/**
+	 * Saves a book, turning a violation of the unique name index by a concurrent
+	 * writer into a BookNamePresentException.
+	 */
+	private Book saveUniqueName(Book book) {
+		try {
+			return bookRepository.saveAndFlush(book);
+		} catch (DataIntegrityViolationException e) {
+			throw duplicateNameOr(e, book.getName());
+		}
+	}
+
+	/**
+	 * Translates a violation of a unique name index into a
+	 * BookNamePresentException, and returns any other violation unchanged.
+	 */
+	static RuntimeException duplicateNameOr(DataIntegrityViolationException e, String name) {
+		for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+			if (cause instanceof ConstraintViolationException violation) {
+				if (isNameConstraint(violation.getConstraintName())) {
+					return new BookNamePresentException("606",
+							String.format("Book name '%s' already present", name));
+				}
+				break;
+			}
+		}
+		return e;
+	}
+
+	/**
+	 * Tests whether a constraint name reported by the driver is one of the unique
+	 * name indexes. MySQL qualifies it with the table, H2 with the schema and
+	 * reports the backing index with an {@code _INDEX_<n>} suffix, and the case
+	 * differs between both.
+	 */
+	private static boolean isNameConstraint(String constraintName) {
+		if (constraintName == null) {
+			return false;
+		}
+		String unqualified = constraintName.strip().split("\\s", 2)[0];
+		unqualified = unqualified.substring(unqualified.lastIndexOf('.') + 1).replaceAll("[`\"']", "");
+		unqualified = INDEX_SUFFIX.matcher(unqualified).replaceFirst("");
+		return NAME_CONSTRAINTS.stream().anyMatch(unqualified::equalsIgnoreCase);
+	}
+
+	/**
+	 * Records a change in the change log and publishes it, stamped with its
+	 * change log id, to the listeners that run after commit.
+	 */
+	private void publishChange(CatalogueChangeEvent event) {
+		CatalogueChange change = catalogueChangeRepository
+				.save(new CatalogueChange(event.getType(), event.getId(), Instant.now()));
+		eventPublisher.publishEvent(event.withChangeId(change.getChangeId()));
+	}
+
+	/**
+	 * Bumps the counter of a category for a newly added book. The upsert creates
+	 * the counter row if the category predates the statistics table.
+	 */
+	private void incrementGenreCount(Long categoryId, Long bookId) {
+		genreStatisticsRepository.incrementBookCount(categoryId, bookId, Instant.now());
 	}
 }
\ No newline at end of file
@@ -0,0 +1,84 @@
+package com.librarymanagement.startup;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.RuntimeMXBean;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+
+/**
+ * Measures how long the application took to become ready, from JVM start and
+ * from the start of the Spring context, and records whether the run used the
+ * AOT-processed context and a class-data-sharing archive. The figures are
+ * logged and exported as the {@code library.startup.time} gauge so startups of
+ * new instances during scale-out can be compared across build modes.
+ * <p>
+ * Runs after every other ready listener, so the time includes warming the read
+ * model and the book name filter.
+ */
+@Component
+public class StartupTimingListener {
+	private static final Logger logger = LoggerFactory.getLogger(StartupTimingListener.class);
+
+	private final MeterRegistry meterRegistry;
+	private final boolean exitWhenReady;
+
+	/**
+	 * Constructs a StartupTimingListener.
+	 *
+	 * @param meterRegistry The registry for the startup gauge.
+	 * @param exitWhenReady Whether to shut down once ready, for CDS training runs.
+	 */
+	public StartupTimingListener(MeterRegistry meterRegistry,
+			@Value("${library.startup.exit-when-ready:false}") boolean exitWhenReady) {
+		this.meterRegistry = meterRegistry;
+		this.exitWhenReady = exitWhenReady;
+	}
+
+	/**
+	 * Records the startup time once the application is ready.
+	 *
+	 * @param event The ready event.
+	 */
+	@EventListener
+	@Order(Ordered.LOWEST_PRECEDENCE)
+	public void onReady(ApplicationReadyEvent event) {
+		RuntimeMXBean runtime = ManagementFactory.getRuntimeMXBean();
+		long sinceJvmStart = runtime.getUptime();
+		Duration sinceContextStart = event.getTimeTaken();
+		boolean aot = AotDetector.useGeneratedArtifacts();
+		boolean cds = usesSharedArchive(runtime.getInputArguments());
+
+		TimeGauge.builder("library.startup.time", () -> sinceJvmStart, TimeUnit.MILLISECONDS)
+				.tags(Tags.of("aot", String.valueOf(aot), "cds", String.valueOf(cds)))
+				.description("Time from JVM start until the application was ready").register(meterRegistry);
+		logger.info("Application ready {} ms after JVM start, {} ms after context start (aot={}, cds={})",
+				sinceJvmStart, sinceContextStart == null ? -1 : sinceContextStart.toMillis(), aot, cds);
+
+		if (exitWhenReady) {
+			logger.info("Exiting after startup as requested by library.startup.exit-when-ready");
+			System.exit(SpringApplication.exit(event.getApplicationContext()));
+		}
+	}
+
+	private static boolean usesSharedArchive(List<String> arguments) {
+		return arguments.stream().anyMatch(argument -> argument.startsWith("-XX:SharedArchiveFile")
+				|| argument.startsWith("-XX:ArchiveClassesAtExit"));
+	}
+
+}
@@ -0,0 +1,86 @@
+package db.migration;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import com.librarymanagement.entity.Book;
+
+/**
+ * Adds the normalised name key to books and archived books and makes it
+ * unique, so the database and the in-memory name filter agree on which names
+ * are the same. The key is computed by {@link Book#nameKey(String)}, which SQL
+ * cannot express, hence a Java migration.
+ * <p>
+ * Books whose names only differ in case, width or whitespace were allowed
+ * before. Of every such group the book with the lowest ID keeps its name; the
+ * others get their ID appended, like the duplicate cleanup before the unique
+ * name index did.
+ */
+public class V6__Add_book_name_keys extends BaseJavaMigration {
+
+	private static final int NAME_LENGTH = 100;
+
+	@Override
+	public void migrate(Context context) throws Exception {
+		Connection connection = context.getConnection();
+		// Compare keys byte for byte, like Book.nameKey does, rather than by the
+		// case and accent insensitive default collation of MySQL
+		String product = connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT);
+		String keyType = product.contains("mysql") ? "VARCHAR(400) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin"
+				: "VARCHAR(400)";
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("ALTER TABLE books ADD COLUMN book_name_key " + keyType);
+			statement.execute("ALTER TABLE books_archive ADD COLUMN book_name_key " + keyType);
+		}
+
+		Set<String> keys = new HashSet<>();
+		fillKeys(connection, "books", keys);
+		fillKeys(connection, "books_archive", keys);
+
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("ALTER TABLE books MODIFY COLUMN book_name_key " + keyType + " NOT NULL");
+			statement.execute("ALTER TABLE books_archive MODIFY COLUMN book_name_key " + keyType + " NOT NULL");
+			statement.execute("ALTER TABLE books ADD CONSTRAINT " + Book.NAME_KEY_INDEX + " UNIQUE (book_name_key)");
+			statement.execute("ALTER TABLE books_archive ADD CONSTRAINT uk_books_archive_book_name_key "
+					+ "UNIQUE (book_name_key)");
+		}
+	}
+
+	/**
+	 * Computes the key of every row of a table in ID order, renaming the rows
+	 * whose key was already taken.
+	 */
+	private static void fillKeys(Connection connection, String table, Set<String> keys) throws SQLException {
+		try (Statement select = connection.createStatement();
+				ResultSet rows = select.executeQuery("SELECT book_id, book_name FROM " + table + " ORDER BY book_id");
+				PreparedStatement update = connection
+						.prepareStatement("UPDATE " + table + " SET book_name = ?, book_name_key = ? WHERE book_id = ?")) {
+			while (rows.next()) {
+				long bookId = rows.getLong(1);
+				String original = rows.getString(2);
+				String name = original;
+				String key = Book.nameKey(name);
+				for (int attempt = 1; !keys.add(key); attempt++) {
+					String suffix = attempt == 1 ? " (" + bookId + ")" : " (" + bookId + "-" + attempt + ")";
+					name = original.substring(0, Math.min(original.length(), NAME_LENGTH - suffix.length())) + suffix;
+					key = Book.nameKey(name);
+				}
+				update.setString(1, name);
+				update.setString(2, key);
+				update.setLong(3, bookId);
+				update.addBatch();
+			}
+			update.executeBatch();
+		}
+	}
+
+}
@@ -0,0 +1,20 @@
+-- Catalogue schema exactly as previously generated by ddl-auto: update, only
+-- with named constraints. Databases that already hold these tables are
+-- baselined at version 1 and skip this script, so everything added since lives
+-- in the later migrations.
+
+CREATE TABLE categories (
+    category_id   BIGINT      NOT NULL AUTO_INCREMENT,
+    category_name VARCHAR(50) NOT NULL,
+    PRIMARY KEY (category_id),
+    CONSTRAINT uk_categories_category_name UNIQUE (category_name)
+) ENGINE = InnoDB;
+
+CREATE TABLE books (
+    book_id          BIGINT       NOT NULL AUTO_INCREMENT,
+    book_name        VARCHAR(100) NOT NULL,
+    book_description VARCHAR(250) NOT NULL,
+    category_id      BIGINT,
+    PRIMARY KEY (book_id),
+    CONSTRAINT fk_books_category_id FOREIGN KEY (category_id) REFERENCES categories (category_id)
+) ENGINE = InnoDB;
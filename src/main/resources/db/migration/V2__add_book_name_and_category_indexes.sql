@@ -0,0 +1,12 @@
+-- Book names become unique. Names were not unique before, so of every group of
+-- books sharing a name the one with the lowest ID keeps it and the others get
+-- their ID appended. The derived table lets MySQL read the table it updates.
+
+UPDATE books
+SET book_name = CONCAT(LEFT(book_name, 100 - CHAR_LENGTH(CONCAT(' (', book_id, ')'))), ' (', book_id, ')')
+WHERE book_id NOT IN (SELECT keep_id FROM (SELECT MIN(book_id) AS keep_id FROM books GROUP BY book_name) AS kept);
+
+ALTER TABLE books ADD CONSTRAINT uk_books_book_name UNIQUE (book_name);
+
+-- Backs the per-genre listings and the foreign key
+CREATE INDEX idx_books_category_id ON books (category_id);
@@ -0,0 +1,27 @@
+-- Per-genre counters, kept current by the service and corrected by the
+-- reconciler. Categories that already exist start with their current count.
+
+CREATE TABLE genre_statistics (
+    category_id        BIGINT      NOT NULL,
+    book_count         BIGINT      NOT NULL,
+    last_book_id       BIGINT,
+    last_book_added_at DATETIME(6),
+    PRIMARY KEY (category_id)
+) ENGINE = InnoDB;
+
+INSERT INTO genre_statistics (category_id, book_count, last_book_id)
+SELECT c.category_id, COUNT(b.book_id), MAX(b.book_id)
+FROM categories c LEFT JOIN books b ON b.category_id = c.category_id
+GROUP BY c.category_id;
+
+-- Catalogue change log, read by the read model catch-up and the invalidation bus
+CREATE TABLE catalogue_changes (
+    change_id   BIGINT      NOT NULL AUTO_INCREMENT,
+    change_type ENUM ('BOOK_UPSERTED', 'BOOK_DELETED', 'CATEGORY_UPSERTED', 'CATEGORY_DELETED') NOT NULL,
+    entity_id   BIGINT      NOT NULL,
+    changed_at  DATETIME(6) NOT NULL,
+    PRIMARY KEY (change_id)
+) ENGINE = InnoDB;
+
+-- Backs the catch-up window lookups and the retention pruning
+CREATE INDEX idx_catalogue_changes_changed_at ON catalogue_changes (changed_at);
@@ -0,0 +1,6 @@
+-- Optimistic locking: every update increments the version and conditional
+-- updates only apply while the version is unchanged.
+
+ALTER TABLE books ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE categories ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
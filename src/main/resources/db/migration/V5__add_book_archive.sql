@@ -0,0 +1,27 @@
+-- Cold tier: books nobody has read for a while are moved out of the books
+-- table with their description deflated, and moved back when read again.
+
+CREATE TABLE books_archive (
+    book_id                   BIGINT          NOT NULL,
+    book_name                 VARCHAR(100)    NOT NULL,
+    book_description_deflated VARBINARY(1024) NOT NULL,
+    category_id               BIGINT,
+    version                   BIGINT          NOT NULL,
+    archived_at               DATETIME(6)     NOT NULL,
+    PRIMARY KEY (book_id),
+    CONSTRAINT uk_books_archive_book_name UNIQUE (book_name),
+    CONSTRAINT fk_books_archive_category_id FOREIGN KEY (category_id) REFERENCES categories (category_id)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_books_archive_category_id ON books_archive (category_id);
+
+-- When each book in the books table was last read, flushed periodically from
+-- memory. Books without a row are adopted with the time they were first seen.
+CREATE TABLE book_reads (
+    book_id      BIGINT      NOT NULL,
+    last_read_at DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+    PRIMARY KEY (book_id)
+) ENGINE = InnoDB;
+
+-- Backs the selection of cold books
+CREATE INDEX idx_book_reads_last_read_at ON book_reads (last_read_at);
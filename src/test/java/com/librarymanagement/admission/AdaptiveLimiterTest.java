@@ -0,0 +1,130 @@
+package com.librarymanagement.admission;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The AIMD limit adaptation of {@link AdaptiveLimiter}.
+ */
+class AdaptiveLimiterTest {
+
+	private static final long TARGET = 100_000_000L;
+	private static final long FAST = TARGET / 10;
+	private static final long SLOW = TARGET * 2;
+
+	@Test
+	void admitsUpToTheLimit() {
+		AdaptiveLimiter limiter = new AdaptiveLimiter(3, 1, 10, TARGET, 0.5);
+
+		assertThat(acquire(limiter, 3)).isEqualTo(3);
+		assertThat(limiter.tryAcquire()).isFalse();
+		limiter.release(FAST, false);
+		assertThat(limiter.tryAcquire()).isTrue();
+		assertThat(limiter.getInFlight()).isEqualTo(3);
+	}
+
+	@Test
+	void fastCallsRaiseASaturatedLimitByAboutOnePerRoundTrip() {
+		AdaptiveLimiter limiter = new AdaptiveLimiter(10, 1, 100, TARGET, 0.5);
+		acquire(limiter, limiter.getLimit());
+
+		// Every completed call is replaced at once, as under sustained load
+		for (int roundTrip = 0; roundTrip < 5; roundTrip++) {
+			for (int call = limiter.getLimit(); call > 0; call--) {
+				limiter.release(FAST, false);
+				acquire(limiter, limiter.getLimit() - limiter.getInFlight());
+			}
+		}
+
+		assertThat(limiter.getLimit()).isBetween(13, 15);
+	}
+
+	@Test
+	void fastCallsDoNotRaiseAnIdleLimit() {
+		AdaptiveLimiter limiter = new AdaptiveLimiter(10, 1, 100, TARGET, 0.5);
+
+		for (int i = 0; i < 100; i++) {
+			acquire(limiter, 1);
+			release(limiter, 1, FAST, false);
+		}
+
+		assertThat(limiter.getLimit()).isEqualTo(10);
+	}
+
+	@Test
+	void slowCallsLowerTheLimitByTheBackoffRatio() {
+		AdaptiveLimiter limiter = new AdaptiveLimiter(40, 1, 100, TARGET, 0.5);
+
+		acquire(limiter, 2);
+		release(limiter, 2, SLOW, false);
+
+		assertThat(limiter.getLimit()).isEqualTo(10);
+	}
+
+	@Test
+	void timedOutCallsLowerTheLimitEvenWhenFast() {
+		AdaptiveLimiter limiter = new AdaptiveLimiter(40, 1, 100, TARGET, 0.5);
+
+		acquire(limiter, 1);
+		release(limiter, 1, FAST, true);
+
+		assertThat(limiter.getLimit()).isEqualTo(20);
+	}
+
+	@Test
+	void limitNeverDropsBelowTheMinimum() {
+		AdaptiveLimiter limiter = new AdaptiveLimiter(16, 4, 100, TARGET, 0.5);
+
+		for (int i = 0; i < 20; i++) {
+			acquire(limiter, 1);
+			release(limiter, 1, SLOW, false);
+		}
+
+		assertThat(limiter.getLimit()).isEqualTo(4);
+	}
+
+	@Test
+	void limitNeverGrowsAboveTheMaximum() {
+		AdaptiveLimiter limiter = new AdaptiveLimiter(8, 1, 10, TARGET, 0.5);
+
+		for (int i = 0; i < 1_000; i++) {
+			int admitted = acquire(limiter, limiter.getLimit());
+			release(limiter, admitted, FAST, false);
+		}
+
+		assertThat(limiter.getLimit()).isEqualTo(10);
+	}
+
+	@Test
+	void initialLimitIsClampedIntoTheRange() {
+		assertThat(new AdaptiveLimiter(500, 2, 50, TARGET, 0.5).getLimit()).isEqualTo(50);
+		assertThat(new AdaptiveLimiter(0, 2, 50, TARGET, 0.5).getLimit()).isEqualTo(2);
+	}
+
+	@Test
+	void rejectsAnEmptyRange() {
+		assertThatThrownBy(() -> new AdaptiveLimiter(1, 0, 10, TARGET, 0.5))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new AdaptiveLimiter(1, 5, 4, TARGET, 0.5))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static int acquire(AdaptiveLimiter limiter, int calls) {
+		int admitted = 0;
+		for (int i = 0; i < calls; i++) {
+			if (limiter.tryAcquire()) {
+				admitted++;
+			}
+		}
+		return admitted;
+	}
+
+	private static void release(AdaptiveLimiter limiter, int calls, long latencyNanos, boolean timedOut) {
+		for (int i = 0; i < calls; i++) {
+			limiter.release(latencyNanos, timedOut);
+		}
+	}
+
+}
@@ -0,0 +1,116 @@
+package com.librarymanagement.admission;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Method;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import com.librarymanagement.exceptions.NotFoundException;
+import com.librarymanagement.exceptions.ServiceBusyException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Which request outcomes make {@link AdmissionControlInterceptor} shrink a
+ * limit: only timeouts and latency above the target do. Also the cap of each
+ * limit at its share of the connection pool.
+ */
+class AdmissionControlInterceptorTest {
+
+	private AdmissionControlInterceptor interceptor;
+	private HandlerMethod listingHandler;
+
+	@BeforeEach
+	void setUp() throws NoSuchMethodException {
+		AdmissionControlProperties properties = new AdmissionControlProperties();
+		properties.setListing(new AdmissionControlProperties.Limits(20, 1, 32, Duration.ofMinutes(1)));
+		properties.getListing().setBackoffRatio(0.5);
+		interceptor = new AdmissionControlInterceptor(properties, 128, new SimpleMeterRegistry());
+		Method listing = Handlers.class.getMethod("listing");
+		listingHandler = new HandlerMethod(new Handlers(), listing);
+	}
+
+	@Test
+	void aFailureThatIsNoTimeoutKeepsTheLimit() {
+		complete(new NotFoundException("Book not found with ID 1"));
+		completeHandled(new ServiceBusyException("604", "Timed out waiting for an identical request", 1), 503);
+		completeHandled(new IllegalArgumentException("bad request"), 400);
+
+		assertThat(limit()).isEqualTo(20);
+	}
+
+	@Test
+	void aQueryTimeoutLowersTheLimit() {
+		complete(new QueryTimeoutException("statement timed out"));
+
+		assertThat(limit()).isEqualTo(10);
+	}
+
+	@Test
+	void aHandledPoolTimeoutLowersTheLimit() {
+		completeHandled(new CannotCreateTransactionException("no connection",
+				new SQLTransientConnectionException("Connection is not available, request timed out")), 500);
+
+		assertThat(limit()).isEqualTo(10);
+	}
+
+	@Test
+	void listingAndWriteLimitsAreCappedAtTheirShareOfThePool() {
+		AdmissionControlInterceptor pooled = new AdmissionControlInterceptor(new AdmissionControlProperties(), 20,
+				new SimpleMeterRegistry());
+
+		assertThat(pooled.limiterOf(BulkheadType.LISTING).getLimit()).isEqualTo(5);
+		assertThat(pooled.limiterOf(BulkheadType.WRITE).getLimit()).isEqualTo(5);
+		assertThat(pooled.limiterOf(BulkheadType.LOOKUP).getLimit()).isEqualTo(64);
+	}
+
+	@Test
+	void aSmallPoolStillAdmitsTheMinimumLimit() {
+		AdmissionControlInterceptor pooled = new AdmissionControlInterceptor(new AdmissionControlProperties(), 4,
+				new SimpleMeterRegistry());
+
+		assertThat(pooled.limiterOf(BulkheadType.LISTING).getLimit()).isEqualTo(1);
+		assertThat(pooled.limiterOf(BulkheadType.WRITE).getLimit()).isEqualTo(2);
+	}
+
+	/** A request whose exception was not handled by the advice. */
+	private void complete(Exception ex) {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		interceptor.preHandle(request, response, listingHandler);
+		interceptor.afterCompletion(request, response, listingHandler, ex);
+	}
+
+	/** A request whose exception was turned into a response by the advice. */
+	private void completeHandled(Exception handled, int status) {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		interceptor.preHandle(request, response, listingHandler);
+		request.setAttribute(DispatcherServlet.EXCEPTION_ATTRIBUTE, handled);
+		response.setStatus(status);
+		interceptor.afterCompletion(request, response, listingHandler, null);
+	}
+
+	private int limit() {
+		return interceptor.limiterOf(BulkheadType.LISTING).getLimit();
+	}
+
+	static class Handlers {
+
+		@Bulkhead(BulkheadType.LISTING)
+		public void listing() {
+		}
+
+	}
+
+}
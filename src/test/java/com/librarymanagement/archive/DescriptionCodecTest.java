@@ -0,0 +1,48 @@
+package com.librarymanagement.archive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link DescriptionCodec} round trips, and the errors on bytes that are not a
+ * complete deflate stream.
+ */
+class DescriptionCodecTest {
+
+	@Test
+	void roundTripsDescriptions() {
+		for (String description : new String[] { "", "Desert planet",
+				"Caf\u00e9 \u00fcber \u4e66 \ud83d\udcda", "A\n\tB \"quoted\" \\ end" }) {
+			assertThat(DescriptionCodec.inflate(DescriptionCodec.deflate(description))).isEqualTo(description);
+		}
+	}
+
+	@Test
+	void roundTripsLongDescriptionsAcrossBuffers() {
+		String description = "The spice must flow. ".repeat(500);
+
+		byte[] deflated = DescriptionCodec.deflate(description);
+
+		assertThat(deflated.length).isLessThan(description.length() / 10);
+		assertThat(DescriptionCodec.inflate(deflated)).isEqualTo(description);
+	}
+
+	@Test
+	void rejectsTruncatedBytes() {
+		byte[] deflated = DescriptionCodec.deflate("The spice must flow. ".repeat(50) + "Desert planet");
+
+		assertThatThrownBy(() -> DescriptionCodec.inflate(Arrays.copyOf(deflated, deflated.length / 2)))
+				.isInstanceOf(IllegalStateException.class).hasMessageContaining("truncated");
+	}
+
+	@Test
+	void rejectsBytesThatAreNotDeflated() {
+		assertThatThrownBy(() -> DescriptionCodec.inflate(new byte[] { 1, 2, 3, 4, 5, 6 }))
+				.isInstanceOf(IllegalStateException.class).hasMessageContaining("corrupt");
+	}
+
+}
@@ -0,0 +1,194 @@
+package com.librarymanagement.concurrent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.librarymanagement.advice.LibraryControllerAdvice;
+import com.librarymanagement.exceptions.ServiceBusyException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Coalescing of concurrent calls by {@link SingleFlight}. Every test holds the
+ * leader inside its loader until the followers have joined, so the calls
+ * overlap deterministically.
+ */
+class SingleFlightTest {
+
+	private static final int FOLLOWERS = 8;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+
+	@AfterEach
+	void shutdown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void concurrentCallsWithTheSameKeyRunTheLoaderOnce() throws Exception {
+		SingleFlight singleFlight = new SingleFlight(meterRegistry, true, 5_000);
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		Object result = new Object();
+
+		Future<Object> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+			loads.incrementAndGet();
+			await(release);
+			return result;
+		}));
+		awaitLeaders(1);
+		List<Future<Object>> followers = startFollowers(singleFlight, "key", () -> {
+			loads.incrementAndGet();
+			return new Object();
+		});
+		awaitFollowers(FOLLOWERS);
+		release.countDown();
+
+		assertThat(leader.get(5, TimeUnit.SECONDS)).isSameAs(result);
+		for (Future<Object> follower : followers) {
+			assertThat(follower.get(5, TimeUnit.SECONDS)).isSameAs(result);
+		}
+		assertThat(loads).hasValue(1);
+		assertThat(singleFlight.collapseRatio()).isEqualTo(FOLLOWERS / (FOLLOWERS + 1.0));
+	}
+
+	@Test
+	void callsWithDifferentKeysAreNotCollapsed() {
+		SingleFlight singleFlight = new SingleFlight(meterRegistry, true, 5_000);
+
+		assertThat(singleFlight.execute("a", () -> "a")).isEqualTo("a");
+		assertThat(singleFlight.execute("b", () -> "b")).isEqualTo("b");
+		// A finished call no longer collapses later ones
+		assertThat(singleFlight.execute("a", () -> "a again")).isEqualTo("a again");
+		assertThat(singleFlight.collapseRatio()).isZero();
+	}
+
+	@Test
+	void followersReceiveTheLeadersException() throws Exception {
+		SingleFlight singleFlight = new SingleFlight(meterRegistry, true, 5_000);
+		CountDownLatch release = new CountDownLatch(1);
+		IllegalStateException failure = new IllegalStateException("database down");
+
+		Future<Object> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+			await(release);
+			throw failure;
+		}));
+		awaitLeaders(1);
+		List<Future<Object>> followers = startFollowers(singleFlight, "key", Object::new);
+		awaitFollowers(FOLLOWERS);
+		release.countDown();
+
+		assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class)
+				.hasCauseReference(failure);
+		for (Future<Object> follower : followers) {
+			assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class)
+					.hasCauseReference(failure);
+		}
+	}
+
+	@Test
+	void followerGivesUpAfterTheMaximumWaitWithA503() throws Exception {
+		SingleFlight singleFlight = new SingleFlight(meterRegistry, true, 50);
+		CountDownLatch release = new CountDownLatch(1);
+
+		Future<Object> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+			await(release);
+			return "late";
+		}));
+		awaitLeaders(1);
+		try {
+			assertThatThrownBy(() -> singleFlight.execute("key", () -> "unused"))
+					.isInstanceOfSatisfying(ServiceBusyException.class, e -> {
+						assertThat(e.getErrorCode()).isEqualTo("604");
+						ResponseEntity<String> response = new LibraryControllerAdvice().handleServiceBusyException(e);
+						assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+						assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+					});
+			assertThat(meterRegistry.get("library.coalescing.timeouts").counter().count()).isEqualTo(1);
+		} finally {
+			release.countDown();
+		}
+		assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("late");
+	}
+
+	@Test
+	void disabledCoalescingRunsEveryCall() throws Exception {
+		SingleFlight singleFlight = new SingleFlight(meterRegistry, false, 5_000);
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch started = new CountDownLatch(2);
+		CountDownLatch release = new CountDownLatch(1);
+
+		List<Future<Integer>> calls = new ArrayList<>();
+		for (int i = 0; i < 2; i++) {
+			calls.add(executor.submit(() -> singleFlight.execute("key", () -> {
+				started.countDown();
+				await(release);
+				return loads.incrementAndGet();
+			})));
+		}
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+		release.countDown();
+
+		for (Future<Integer> call : calls) {
+			call.get(5, TimeUnit.SECONDS);
+		}
+		assertThat(loads).hasValue(2);
+	}
+
+	private List<Future<Object>> startFollowers(SingleFlight singleFlight, String key,
+			Supplier<Object> loader) {
+		List<Future<Object>> followers = new ArrayList<>();
+		for (int i = 0; i < FOLLOWERS; i++) {
+			followers.add(executor.submit(() -> singleFlight.execute(key, loader)));
+		}
+		return followers;
+	}
+
+	private void awaitLeaders(int leaders) throws InterruptedException {
+		awaitCount("leader", leaders);
+	}
+
+	private void awaitFollowers(int followers) throws InterruptedException {
+		awaitCount("follower", followers);
+	}
+
+	private void awaitCount(String role, int expected) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (meterRegistry.get("library.coalescing.calls").tag("role", role).counter().count() < expected) {
+			if (System.nanoTime() > deadline) {
+				throw new AssertionError("Expected " + expected + " " + role + " calls");
+			}
+			Thread.sleep(1);
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			if (!latch.await(5, TimeUnit.SECONDS)) {
+				throw new AssertionError("Latch not released");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
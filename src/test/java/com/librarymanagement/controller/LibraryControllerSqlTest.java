@@ -0,0 +1,425 @@
+package com.librarymanagement.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.librarymanagement.archive.BookArchive;
+import com.librarymanagement.entity.Book;
+import com.librarymanagement.exceptions.NotFoundException;
+import com.librarymanagement.index.BookNameIndex;
+import com.librarymanagement.readmodel.CatalogueReadModel;
+
+/**
+ * Pins the SQL each {@link LibraryController} endpoint issues: the exact number
+ * of statements per call and the number of rows they read, on an embedded H2
+ * database in MySQL mode with the schema from the Flyway migrations. The seeded
+ * catalogue has several categories with several books each, so a lazy load per
+ * category or per book (an N+1) changes the counts and fails the build. The
+ * name and category lookups are also checked to use an index.
+ * <p>
+ * Reads served from the in-memory read model are expected to issue no SQL at
+ * all. A budget that changes on purpose is updated here together with the
+ * change that explains it.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("sqltest")
+class LibraryControllerSqlTest {
+
+	private static final String[] GENRES = { "genre-a", "genre-b", "genre-c" };
+	private static final int BOOKS_PER_GENRE = 4;
+	private static final int BOOKS = GENRES.length * BOOKS_PER_GENRE;
+	/** The seeded genres plus one without books. */
+	private static final int CATEGORIES = GENRES.length + 1;
+
+	@TestConfiguration
+	static class RecordingConfiguration {
+
+		@Bean
+		static BeanPostProcessor sqlRecordingDataSource() {
+			return new BeanPostProcessor() {
+				@Override
+				public Object postProcessAfterInitialization(Object bean, String beanName) {
+					return bean instanceof DataSource dataSource && !(bean instanceof SqlRecorder)
+							? new SqlRecorder(dataSource)
+							: bean;
+				}
+			};
+		}
+
+	}
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private CatalogueReadModel readModel;
+
+	@Autowired
+	private BookNameIndex bookNameIndex;
+
+	@Autowired
+	private BookArchive bookArchive;
+
+	private SqlRecorder recorder;
+
+	@BeforeEach
+	void seed() {
+		recorder = (SqlRecorder) dataSource;
+		jdbcTemplate.update("delete from catalogue_changes");
+		jdbcTemplate.update("delete from books");
+		jdbcTemplate.update("delete from books_archive");
+		jdbcTemplate.update("delete from book_reads");
+		jdbcTemplate.update("delete from genre_statistics");
+		jdbcTemplate.update("delete from categories");
+		for (String genre : GENRES) {
+			jdbcTemplate.update("insert into categories (category_name, version) values (?, 0)", genre);
+			long categoryId = categoryId(genre);
+			for (int i = 1; i <= BOOKS_PER_GENRE; i++) {
+				String name = genre + "-book-" + i;
+				jdbcTemplate.update("insert into books (book_name, book_name_key, book_description, category_id, "
+						+ "version) values (?, ?, ?, ?, 0)", name, Book.nameKey(name), "Book " + i + " of " + genre,
+						categoryId);
+			}
+		}
+		jdbcTemplate.update("insert into categories (category_name, version) values ('genre-empty', 0)");
+		jdbcTemplate.update("insert into genre_statistics (category_id, book_count) select c.category_id, "
+				+ "count(b.book_id) from categories c left join books b on b.category_id = c.category_id "
+				+ "group by c.category_id");
+		readModel.refreshAll();
+		bookNameIndex.refreshAll();
+	}
+
+	// Reads
+
+	@Test
+	void getAllGenresLoadsCategoriesAndBooksInOneQuery() throws Exception {
+		List<SqlRecorder.Execution> sql = perform(get("/library/category/genres"), status().isOk());
+		// One row per book plus one for the category without books
+		assertBudget(sql, 1, BOOKS + 1);
+	}
+
+	@Test
+	void getGenreStatisticsReadsOnlyTheCounterTable() throws Exception {
+		List<SqlRecorder.Execution> sql = perform(get("/library/category/statistics"), status().isOk());
+		assertBudget(sql, 1, CATEGORIES);
+	}
+
+	@Test
+	void getBooksByGenreIsServedFromTheReadModel() throws Exception {
+		assertBudget(perform(get("/library/books/{categoryId}", categoryId("genre-a")), status().isOk()), 0, 0);
+	}
+
+	@Test
+	void getBooksByGenreWithFieldsUsesTheCategoryIndex() throws Exception {
+		List<SqlRecorder.Execution> sql = perform(
+				get("/library/books/{categoryId}", categoryId("genre-a")).param("fields", "bookId,name"),
+				status().isOk());
+		// Existence check of the category, then the projected books
+		assertBudget(sql, 2, 1 + BOOKS_PER_GENRE);
+		assertUsesIndex(sql.get(1), "(idx|fk)_books_category_id");
+	}
+
+	@Test
+	void getAllBooksIsServedFromTheReadModel() throws Exception {
+		assertBudget(perform(get("/library/getallbook"), status().isOk()), 0, 0);
+	}
+
+	@Test
+	void getAllBooksWithFieldsSelectsOnce() throws Exception {
+		List<SqlRecorder.Execution> sql = perform(get("/library/getallbook").param("fields", "bookId,name"),
+				status().isOk());
+		assertBudget(sql, 1, BOOKS);
+	}
+
+	@Test
+	void getBookByIdIsServedFromTheReadModel() throws Exception {
+		assertBudget(perform(get("/library/getbookbyid/{bookId}", bookId("genre-a-book-1")), status().isOk()), 0,
+				0);
+	}
+
+	@Test
+	void getBookByNameUsesTheNameIndex() throws Exception {
+		List<SqlRecorder.Execution> sql = perform(get("/library/getbookbyname/{name}", "genre-b-book-2"),
+				status().isOk());
+		// The book, then its eagerly fetched category
+		assertBudget(sql, 2, 2);
+		assertUsesIndex(sql.get(0), "uk_books_book_name");
+	}
+
+	@Test
+	void getBookByNameWithFieldsUsesTheNameIndex() throws Exception {
+		List<SqlRecorder.Execution> sql = perform(
+				get("/library/getbookbyname/{name}", "genre-b-book-2").param("fields", "bookId,name"),
+				status().isOk());
+		assertBudget(sql, 1, 1);
+		assertUsesIndex(sql.get(0), "uk_books_book_name");
+	}
+
+	// Lookup misses and the archive
+
+	@Test
+	void getBookByIdMissChecksTheArchiveWithoutLocking() throws Exception {
+		List<SqlRecorder.Execution> sql = performNotFound(get("/library/getbookbyid/{bookId}", Long.MAX_VALUE));
+		// The read model misses, then the book with its category, then the archive is only counted
+		assertBudget(sql, 2, 1);
+		assertNoLocks(sql);
+	}
+
+	@Test
+	void getBookByIdFindsABookTheReadModelHasNotHeardOf() throws Exception {
+		// As committed by another node whose change has not reached this one yet
+		String name = "genre-a-book-elsewhere";
+		jdbcTemplate.update("insert into books (book_name, book_name_key, book_description, category_id, version) "
+				+ "values (?, ?, 'Written elsewhere', ?, 0)", name, Book.nameKey(name), categoryId("genre-a"));
+		List<SqlRecorder.Execution> sql = perform(get("/library/getbookbyid/{bookId}", bookId(name)),
+				status().isOk());
+		// The book with its category
+		assertBudget(sql, 1, 1);
+	}
+
+	@Test
+	void getBookByNameMissRuledOutByTheNameFilter() throws Exception {
+		String name = filterMiss("genre-a-book-none");
+		List<SqlRecorder.Execution> sql = perform(get("/library/getbookbyname/{name}", name), status().isOk());
+		// The books table only
+		assertBudget(sql, 1, 0);
+	}
+
+	@Test
+	void getBookByNameMissOnNameFilterFalsePositive() throws Exception {
+		String name = "genre-a-book-false-positive";
+		bookNameIndex.add(name);
+		List<SqlRecorder.Execution> sql = perform(get("/library/getbookbyname/{name}", name), status().isOk());
+		// The books table, then an existence check in the archive
+		assertBudget(sql, 2, 0);
+		assertNoLocks(sql);
+	}
+
+	@Test
+	void getBookByIdRestoresAnArchivedBook() throws Exception {
+		long bookId = bookId("genre-a-book-3");
+		assertThat(bookArchive.archive(List.of(bookId))).isEqualTo(1);
+
+		perform(get("/library/getbookbyid/{bookId}", bookId), status().isOk());
+
+		assertRestored(bookId, "genre-a-book-3");
+		assertBudget(perform(get("/library/getbookbyid/{bookId}", bookId), status().isOk()), 0, 0);
+	}
+
+	@Test
+	void getBookByNameRestoresAnArchivedBook() throws Exception {
+		long bookId = bookId("genre-b-book-3");
+		assertThat(bookArchive.archive(List.of(bookId))).isEqualTo(1);
+
+		perform(get("/library/getbookbyname/{name}", "genre-b-book-3"), status().isOk());
+
+		assertRestored(bookId, "genre-b-book-3");
+	}
+
+	// Writes
+
+	@Test
+	void addNewCategory() throws Exception {
+		List<SqlRecorder.Execution> sql = perform(post("/library/category/addcategory")
+				.contentType(MediaType.APPLICATION_JSON).content("{\"categoryName\":\"genre-new\"}"),
+				status().isCreated());
+		// Category insert, counter lookup and insert, change log insert
+		assertBudget(sql, 4, 0);
+	}
+
+	@Test
+	void addNewBook() throws Exception {
+		String name = filterMiss("genre-a-book-new");
+		List<SqlRecorder.Execution> sql = addBook(name);
+		// Category lookup, book insert, counter update, change log insert
+		assertBudget(sql, 4, 1);
+	}
+
+	@Test
+	void addNewBookOnNameFilterFalsePositive() throws Exception {
+		String name = "genre-a-book-false-positive";
+		// A stale filter entry, as left behind by a rename
+		bookNameIndex.add(name);
+		List<SqlRecorder.Execution> sql = addBook(name);
+		// Existence checks in the books table and the archive, then as above
+		assertBudget(sql, 6, 1);
+	}
+
+	@Test
+	void updateBook() throws Exception {
+		List<SqlRecorder.Execution> sql = perform(put("/library/books/{bookId}", bookId("genre-a-book-1"))
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"name\":\"genre-a-book-1\",\"bookDescription\":\"Revised\"}"), status().isOk());
+		// Book with its category, book update, change log insert
+		assertBudget(sql, 3, 1);
+	}
+
+	@Test
+	void updateBookIfMatch() throws Exception {
+		List<SqlRecorder.Execution> sql = perform(put("/library/books/{bookId}", bookId("genre-a-book-1"))
+				.header(HttpHeaders.IF_MATCH, "\"0\"").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"name\":\"genre-a-book-1\",\"bookDescription\":\"Revised\"}"), status().isOk());
+		// Conditional update, book read back with its category, change log insert
+		assertBudget(sql, 3, 1);
+	}
+
+	@Test
+	void updateCategory() throws Exception {
+		List<SqlRecorder.Execution> sql = perform(put("/library/updatecategory/{categoryId}", categoryId("genre-a"))
+				.contentType(MediaType.APPLICATION_JSON).content("{\"categoryName\":\"genre-a-renamed\"}"),
+				status().is2xxSuccessful());
+		// Category, category update, change log insert, then its books for the response
+		assertBudget(sql, 4, 1 + BOOKS_PER_GENRE);
+	}
+
+	@Test
+	void updateCategoryPublishesTheIncrementedVersion() throws Exception {
+		long categoryId = categoryId("genre-a");
+		perform(put("/library/updatecategory/{categoryId}", categoryId).contentType(MediaType.APPLICATION_JSON)
+				.content("{\"categoryName\":\"genre-a-renamed\"}"), status().is2xxSuccessful());
+
+		long version = jdbcTemplate.queryForObject("select version from categories where category_id = ?",
+				Long.class, categoryId);
+		assertThat(version).isEqualTo(1);
+		assertThat(readModel.snapshot().findBook(bookId("genre-a-book-1")).getCategories().getVersion())
+				.isEqualTo(version);
+	}
+
+	@Test
+	void updateCategoryIfMatch() throws Exception {
+		List<SqlRecorder.Execution> sql = perform(put("/library/updatecategory/{categoryId}", categoryId("genre-a"))
+				.header(HttpHeaders.IF_MATCH, "\"0\"").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"categoryName\":\"genre-a-renamed\"}"), status().is2xxSuccessful());
+		// Conditional update, category read back, change log insert, then its books for the response
+		assertBudget(sql, 4, 1 + BOOKS_PER_GENRE);
+	}
+
+	@Test
+	void deleteBook() throws Exception {
+		List<SqlRecorder.Execution> sql = perform(delete("/library/deletebook/{bookId}", bookId("genre-c-book-4")),
+				status().isAccepted());
+		// Book with its category, book delete, change log insert, counter update
+		assertBudget(sql, 4, 1);
+	}
+
+	@Test
+	void deleteCategory() throws Exception {
+		List<SqlRecorder.Execution> sql = perform(
+				delete("/library/deletecategory/{categoryId}", categoryId("genre-empty")), status().isAccepted());
+		// Category lookup and delete, counter lookup and delete, change log insert
+		assertBudget(sql, 5, 2);
+	}
+
+	private List<SqlRecorder.Execution> perform(MockHttpServletRequestBuilder request, ResultMatcher expectedStatus)
+			throws Exception {
+		recorder.start();
+		try {
+			mockMvc.perform(request).andExpect(expectedStatus);
+		} catch (Exception | AssertionError e) {
+			recorder.stop();
+			throw e;
+		}
+		return recorder.stop();
+	}
+
+	private List<SqlRecorder.Execution> performNotFound(MockHttpServletRequestBuilder request) {
+		recorder.start();
+		try {
+			assertThatThrownBy(() -> mockMvc.perform(request)).hasRootCauseInstanceOf(NotFoundException.class);
+		} catch (AssertionError e) {
+			recorder.stop();
+			throw e;
+		}
+		return recorder.stop();
+	}
+
+	private static void assertBudget(List<SqlRecorder.Execution> sql, int statements, int rows) {
+		String description = sql.stream().map(SqlRecorder.Execution::toString)
+				.collect(Collectors.joining("\n  ", "statements:\n  ", ""));
+		assertThat(sql).as(description).hasSize(statements);
+		assertThat(sql.stream().mapToInt(SqlRecorder.Execution::rows).sum()).as(description).isEqualTo(rows);
+	}
+
+	private static void assertNoLocks(List<SqlRecorder.Execution> sql) {
+		assertThat(sql).extracting(execution -> execution.sql().toLowerCase(Locale.ROOT))
+				.noneMatch(statement -> statement.contains("for update"));
+	}
+
+	private void assertRestored(long bookId, String name) {
+		assertThat(jdbcTemplate.queryForObject("select book_name from books where book_id = ?", String.class, bookId))
+				.isEqualTo(name);
+		assertThat(jdbcTemplate.queryForObject("select count(*) from books_archive", Integer.class)).isZero();
+	}
+
+	private void assertUsesIndex(SqlRecorder.Execution execution, String indexPattern) {
+		String plan = jdbcTemplate.queryForObject("EXPLAIN " + execution.sql(), String.class,
+				execution.parameters().toArray());
+		assertThat(plan.toLowerCase(Locale.ROOT)).as(plan).doesNotContain("tablescan").containsPattern(indexPattern);
+	}
+
+	private long categoryId(String name) {
+		return jdbcTemplate.queryForObject("select category_id from categories where category_name = ?", Long.class,
+				name);
+	}
+
+	private List<SqlRecorder.Execution> addBook(String name) throws Exception {
+		return perform(post("/library/books/addbook").contentType(MediaType.APPLICATION_JSON)
+				.content(String.format("{\"name\":\"%s\",\"bookDescription\":\"New\",\"categoryId\":%d}", name,
+						categoryId("genre-a"))),
+				status().isCreated());
+	}
+
+	/**
+	 * Returns the first of the names prefix-0, prefix-1, ... the name filter
+	 * rules out, so inserts and lookups skip the existence checks. The filter is
+	 * rebuilt from the same seed before every test, so the name is stable.
+	 */
+	private String filterMiss(String prefix) {
+		for (int i = 0; i < 1000; i++) {
+			String name = prefix + "-" + i;
+			if (!bookNameIndex.mightContain(name)) {
+				return name;
+			}
+		}
+		throw new AssertionError("The name filter rules out no name starting with " + prefix);
+	}
+
+	private long bookId(String name) {
+		return jdbcTemplate.queryForObject("select book_id from books where book_name = ?", Long.class, name);
+	}
+
+}
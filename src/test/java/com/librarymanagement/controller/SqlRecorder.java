@@ -0,0 +1,173 @@
+package com.librarymanagement.controller;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * DataSource wrapper that records every statement executed on one thread,
+ * together with its bind parameters and the number of rows read from its
+ * results. Statements of other threads, such as scheduled jobs, are ignored,
+ * so a recording covers exactly the work of one request handled on the
+ * recording thread.
+ */
+final class SqlRecorder extends DelegatingDataSource {
+
+	/**
+	 * One executed statement.
+	 */
+	static final class Execution {
+		private final String sql;
+		private final List<Object> parameters;
+		private int rows;
+
+		private Execution(String sql, List<Object> parameters) {
+			this.sql = sql;
+			this.parameters = parameters;
+		}
+
+		String sql() {
+			return sql;
+		}
+
+		/**
+		 * @return The bind parameters in index order.
+		 */
+		List<Object> parameters() {
+			return parameters;
+		}
+
+		/**
+		 * @return The number of rows read from the result.
+		 */
+		int rows() {
+			return rows;
+		}
+
+		@Override
+		public String toString() {
+			return sql + " " + parameters + " -> " + rows + " rows";
+		}
+	}
+
+	private interface Handler {
+		Object invoke(Method method, Object[] args) throws Throwable;
+	}
+
+	private final List<Execution> executions = Collections.synchronizedList(new ArrayList<>());
+	private volatile Thread recordingThread;
+
+	SqlRecorder(DataSource target) {
+		super(target);
+	}
+
+	/**
+	 * Starts recording the statements of the calling thread.
+	 */
+	void start() {
+		executions.clear();
+		recordingThread = Thread.currentThread();
+	}
+
+	/**
+	 * Stops recording.
+	 *
+	 * @return The statements executed since {@link #start()}, in order.
+	 */
+	List<Execution> stop() {
+		recordingThread = null;
+		return List.copyOf(executions);
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return wrap(super.getConnection());
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return wrap(super.getConnection(username, password));
+	}
+
+	private Connection wrap(Connection connection) {
+		return proxy(Connection.class, connection, (method, args) -> {
+			Object result = invoke(connection, method, args);
+			if (result instanceof Statement statement) {
+				// prepareStatement and prepareCall carry the SQL, createStatement passes it to execute
+				String sql = method.getName().startsWith("prepare") ? (String) args[0] : null;
+				return wrap(method.getReturnType().asSubclass(Statement.class), statement, sql);
+			}
+			return result;
+		});
+	}
+
+	private <S extends Statement> S wrap(Class<S> type, Statement statement, String preparedSql) {
+		Map<Integer, Object> parameters = new TreeMap<>();
+		Execution[] last = new Execution[1];
+		return proxy(type, statement, (method, args) -> {
+			String name = method.getName();
+			if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+				parameters.put(index, name.equals("setNull") ? null : args[1]);
+			} else if (name.equals("clearParameters")) {
+				parameters.clear();
+			}
+			Object result = invoke(statement, method, args);
+			if (name.startsWith("execute")) {
+				String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+				last[0] = record(sql, parameters);
+			}
+			// Generated keys are not counted as rows read
+			if (result instanceof ResultSet resultSet && last[0] != null
+					&& (name.equals("executeQuery") || name.equals("getResultSet"))) {
+				return wrap(resultSet, last[0]);
+			}
+			return result;
+		});
+	}
+
+	private ResultSet wrap(ResultSet resultSet, Execution execution) {
+		return proxy(ResultSet.class, resultSet, (method, args) -> {
+			Object result = invoke(resultSet, method, args);
+			if (method.getName().equals("next") && Boolean.TRUE.equals(result)) {
+				execution.rows++;
+			}
+			return result;
+		});
+	}
+
+	private Execution record(String sql, Map<Integer, Object> parameters) {
+		if (Thread.currentThread() != recordingThread) {
+			return null;
+		}
+		Execution execution = new Execution(sql, new ArrayList<>(parameters.values()));
+		executions.add(execution);
+		return execution;
+	}
+
+	private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+	private static <T> T proxy(Class<T> type, Object target, Handler handler) {
+		return type.cast(Proxy.newProxyInstance(SqlRecorder.class.getClassLoader(), new Class<?>[] { type },
+				(proxy, method, args) -> handler.invoke(method, args)));
+	}
+
+}
@@ -0,0 +1,36 @@
+package com.librarymanagement.entity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The name key under which {@link Book} names are unique.
+ */
+class BookTest {
+
+	@Test
+	void namesDifferingInCaseWidthOrWhitespaceShareAKey() {
+		String key = Book.nameKey("War and Peace");
+
+		assertThat(Book.nameKey("war and peace")).isEqualTo(key);
+		assertThat(Book.nameKey("  War \t and\n Peace ")).isEqualTo(key);
+		assertThat(Book.nameKey("\uFF37ar and Peace")).isEqualTo(key);
+	}
+
+	@Test
+	void differentNamesKeepDifferentKeys() {
+		assertThat(Book.nameKey("War and Peace")).isNotEqualTo(Book.nameKey("War and Peace 2"));
+		assertThat(Book.nameKey("Warand Peace")).isNotEqualTo(Book.nameKey("War and Peace"));
+	}
+
+	@Test
+	void keyIsComputedOnWrite() {
+		Book book = new Book(null, " Dune  Messiah", "Sequel", null, null);
+
+		book.updateNameKey();
+
+		assertThat(book.getNameKey()).isEqualTo("dune messiah");
+	}
+
+}
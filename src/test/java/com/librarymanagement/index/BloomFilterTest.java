@@ -0,0 +1,90 @@
+package com.librarymanagement.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The sizing and the false positive rate of {@link BloomFilter}.
+ */
+class BloomFilterTest {
+
+	private static final int PROBES = 100_000;
+
+	@Test
+	void neverForgetsAString() {
+		BloomFilter filter = new BloomFilter(10_000, 0.01);
+		fill(filter, 10_000);
+
+		for (int i = 0; i < 10_000; i++) {
+			assertThat(filter.mightContain("book-" + i)).isTrue();
+		}
+	}
+
+	@Test
+	void falsePositiveRateAtCapacityStaysNearTheTarget() {
+		BloomFilter filter = new BloomFilter(10_000, 0.01);
+		fill(filter, 10_000);
+
+		assertThat(falsePositiveRate(filter)).isLessThan(0.015);
+	}
+
+	@Test
+	void tighterTargetGivesFewerFalsePositives() {
+		BloomFilter filter = new BloomFilter(10_000, 0.001);
+		fill(filter, 10_000);
+
+		assertThat(falsePositiveRate(filter)).isLessThan(0.0015);
+	}
+
+	@Test
+	void emptyFilterContainsNothing() {
+		BloomFilter filter = new BloomFilter(1_000, 0.01);
+
+		assertThat(falsePositiveRate(filter)).isZero();
+	}
+
+	@Test
+	void saturatesOnlyBeyondItsCapacity() {
+		BloomFilter filter = new BloomFilter(1_000, 0.01);
+
+		assertThat(filter.getCapacity()).isEqualTo(1_000);
+		fill(filter, 1_000);
+		assertThat(filter.isSaturated()).isFalse();
+		filter.put("one-too-many");
+		assertThat(filter.isSaturated()).isTrue();
+	}
+
+	@Test
+	void overfilledFilterMissesItsTarget() {
+		BloomFilter filter = new BloomFilter(10_000, 0.01);
+		fill(filter, 20_000);
+
+		assertThat(falsePositiveRate(filter)).isGreaterThan(0.05);
+	}
+
+	@Test
+	void rejectsInvalidSizing() {
+		assertThatThrownBy(() -> new BloomFilter(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new BloomFilter(1_000, 0)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new BloomFilter(1_000, 1)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static void fill(BloomFilter filter, int count) {
+		for (int i = 0; i < count; i++) {
+			filter.put("book-" + i);
+		}
+	}
+
+	private static double falsePositiveRate(BloomFilter filter) {
+		int positives = 0;
+		for (int i = 0; i < PROBES; i++) {
+			if (filter.mightContain("absent-" + i)) {
+				positives++;
+			}
+		}
+		return (double) positives / PROBES;
+	}
+
+}
@@ -0,0 +1,265 @@
+package com.librarymanagement.invalidation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.librarymanagement.entity.CatalogueChange;
+import com.librarymanagement.event.CatalogueChangeEvent;
+import com.librarymanagement.readmodel.CatalogueReadModel;
+import com.librarymanagement.repository.CatalogueChangeRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Several {@link InvalidationBus} nodes connected by the
+ * {@link LoopbackInvalidationTransport}, receiving messages reordered,
+ * duplicated or not at all, over an in-memory change log.
+ */
+class InvalidationBusTest {
+
+	private final ConcurrentSkipListMap<Long, CatalogueChange> changeLog = new ConcurrentSkipListMap<>();
+	private final List<Node> nodes = new ArrayList<>();
+	private CatalogueChangeRepository repository;
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(CatalogueChangeRepository.class);
+		when(repository.findMaxChangeId()).thenAnswer(call -> changeLog.isEmpty() ? 0L : changeLog.lastKey());
+		when(repository.findMinChangeId()).thenAnswer(call -> changeLog.isEmpty() ? 0L : changeLog.firstKey());
+		when(repository.findChangesBetween(anyLong(), anyLong())).thenAnswer(call -> List
+				.copyOf(changeLog.subMap(call.<Long>getArgument(0), false, call.<Long>getArgument(1), false).values()));
+		when(repository.findAllById(any())).thenAnswer(call -> {
+			List<CatalogueChange> found = new ArrayList<>();
+			for (Long id : call.<Iterable<Long>>getArgument(0)) {
+				if (changeLog.containsKey(id)) {
+					found.add(changeLog.get(id));
+				}
+			}
+			return found;
+		});
+	}
+
+	@AfterEach
+	void tearDown() {
+		nodes.forEach(node -> node.bus.stop());
+	}
+
+	@Test
+	void reorderedAndDuplicatedMessagesReachEveryNodeOnceInOrder() {
+		Node first = node(Duration.ofHours(1));
+		Node second = node(Duration.ofHours(1));
+		commit(1, 2, 3);
+
+		publish(3, 1, 3, 2, 1, 2);
+
+		for (Node node : List.of(first, second)) {
+			node.awaitReceived(6);
+			assertThat(node.listener.versions).containsExactly(1L, 2L, 3L);
+			assertThat(node.bus.getPosition()).isEqualTo(3);
+		}
+	}
+
+	@Test
+	void localChangesOnlyAdvanceThePosition() {
+		Node writer = node(Duration.ofHours(1));
+		Node reader = node(Duration.ofHours(1));
+		commit(1);
+
+		writer.bus.onCatalogueChange(
+				CatalogueChangeEvent.bookUpserted(101, null, "Dune", "Desert planet", 0).withChangeId(1));
+
+		writer.awaitReceived(1);
+		reader.awaitReceived(1);
+		assertThat(writer.listener.versions).isEmpty();
+		assertThat(writer.bus.getPosition()).isEqualTo(1);
+		assertThat(reader.listener.versions).containsExactly(1L);
+	}
+
+	@Test
+	void missingVersionIsWaitedForDuringTheCommitLag() {
+		Node node = node(Duration.ofHours(1));
+		commit(1, 3);
+
+		publish(1, 3);
+		node.awaitReceived(2);
+		node.bus.checkGap();
+
+		assertThat(node.listener.versions).containsExactly(1L);
+		assertThat(node.bus.getPosition()).isEqualTo(1);
+	}
+
+	@Test
+	void rolledBackVersionIsSkippedAfterTheCommitLag() {
+		Node first = node(Duration.ZERO);
+		Node second = node(Duration.ZERO);
+		// Version 2 was taken by a transaction that rolled back
+		commit(1, 3, 4);
+
+		publish(4, 1, 3);
+
+		for (Node node : List.of(first, second)) {
+			node.awaitReceived(3);
+			node.bus.checkGap();
+			assertThat(node.listener.versions).containsExactly(1L, 3L, 4L);
+			assertThat(node.listener.refreshes).hasValue(0);
+			assertThat(node.bus.getPosition()).isEqualTo(4);
+		}
+	}
+
+	@Test
+	void lostMessageIsReadFromTheChangeLog() {
+		Node node = node(Duration.ZERO);
+		commit(1, 2, 3);
+
+		publish(1, 3);
+		node.awaitReceived(2);
+		node.bus.checkGap();
+
+		assertThat(node.listener.versions).containsExactly(1L, 2L, 3L);
+		assertThat(node.listener.refreshes).hasValue(0);
+		assertThat(node.bus.getPosition()).isEqualTo(3);
+	}
+
+	@Test
+	void skippedVersionThatCommitsLateIsStillApplied() {
+		Node node = node(Duration.ZERO);
+		commit(1, 3);
+		publish(1, 3);
+		node.awaitReceived(2);
+		node.bus.checkGap();
+
+		commit(2);
+		node.bus.checkGap();
+		// Its message arriving as well changes nothing
+		publish(2);
+		node.awaitReceived(3);
+
+		assertThat(node.listener.versions).containsExactly(1L, 3L, 2L);
+		assertThat(node.bus.getPosition()).isEqualTo(3);
+	}
+
+	@Test
+	void rolledBackVersionAfterPrunedChangesIsSkipped() {
+		Node node = node(Duration.ZERO);
+		commit(1);
+		publish(1);
+		node.awaitReceived(1);
+		// Version 1 was pruned after this node saw it, version 2 rolled back
+		changeLog.remove(1L);
+		commit(3);
+
+		publish(3);
+		node.awaitReceived(2);
+		node.bus.checkGap();
+
+		assertThat(node.listener.refreshes).hasValue(0);
+		assertThat(node.listener.versions).containsExactly(1L, 3L);
+		assertThat(node.bus.getPosition()).isEqualTo(3);
+	}
+
+	@Test
+	void prunedChangesForceAFullRefresh() {
+		// No retention: anything the position has not reached may be pruned already
+		Node node = node(Duration.ZERO, Duration.ZERO);
+		// Versions 1 to 4 were pruned before this node saw them
+		commit(5, 6);
+
+		publish(6);
+		node.awaitReceived(1);
+		node.bus.checkGap();
+
+		assertThat(node.listener.refreshes).hasValue(1);
+		assertThat(node.listener.versions).isEmpty();
+		assertThat(node.bus.getPosition()).isEqualTo(6);
+	}
+
+	private Node node(Duration commitLag) {
+		return node(commitLag, Duration.ofDays(7));
+	}
+
+	private Node node(Duration commitLag, Duration changeLogRetention) {
+		Node node = new Node(commitLag, changeLogRetention);
+		nodes.add(node);
+		return node;
+	}
+
+	private void commit(long... versions) {
+		for (long version : versions) {
+			CatalogueChange change = new CatalogueChange(CatalogueChangeEvent.Type.BOOK_UPSERTED, 100 + version,
+					Instant.now());
+			change.setChangeId(version);
+			changeLog.put(version, change);
+		}
+	}
+
+	/**
+	 * Sends messages as a node that is not under test, in the given order.
+	 */
+	private void publish(long... versions) {
+		LoopbackInvalidationTransport sender = new LoopbackInvalidationTransport();
+		for (long version : versions) {
+			sender.publish(new InvalidationMessage(InvalidationMessage.EntityType.BOOK, 100 + version, version));
+		}
+	}
+
+	private final class Node {
+		final RecordingListener listener = new RecordingListener();
+		final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		final InvalidationBus bus;
+
+		Node(Duration commitLag, Duration changeLogRetention) {
+			// A disabled read model has no snapshot, so the bus starts at the newest change
+			CatalogueReadModel readModel = new CatalogueReadModel(null, null, null, null, null, null, false);
+			bus = new InvalidationBus(new LoopbackInvalidationTransport(), List.of(listener), readModel, repository,
+					meterRegistry, commitLag, Duration.ofSeconds(10), changeLogRetention);
+			bus.start();
+		}
+
+		void awaitReceived(int messages) {
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+			while (meterRegistry.get("library.invalidation.messages").tag("result", "received").counter()
+					.count() < messages) {
+				if (System.nanoTime() > deadline) {
+					throw new AssertionError("Expected " + messages + " received messages");
+				}
+				Thread.onSpinWait();
+			}
+			// The count is taken as a batch starts; the bus monitor is held until it is handled
+			synchronized (bus) {
+				assertThat(bus.getPosition()).isNotNegative();
+			}
+		}
+	}
+
+	private static final class RecordingListener implements InvalidationListener {
+		final List<Long> versions = new CopyOnWriteArrayList<>();
+		final AtomicInteger refreshes = new AtomicInteger();
+
+		@Override
+		public void invalidate(List<InvalidationMessage> messages) {
+			messages.forEach(message -> versions.add(message.getVersion()));
+		}
+
+		@Override
+		public void refreshAll() {
+			refreshes.incrementAndGet();
+		}
+	}
+
+}
@@ -0,0 +1,135 @@
+package com.librarymanagement.job;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.librarymanagement.entity.ArchivedBook;
+import com.librarymanagement.entity.Book;
+import com.librarymanagement.entity.Category;
+import com.librarymanagement.entity.GenreStatistics;
+import com.librarymanagement.repository.ArchivedBookRepository;
+import com.librarymanagement.repository.BookReadRepository;
+import com.librarymanagement.repository.BookRepository;
+import com.librarymanagement.repository.CategoryRepository;
+import com.librarymanagement.repository.GenreStatisticsRepository;
+
+/**
+ * {@link GenreStatisticsReconciler} on the H2 database of the {@code sqltest}
+ * profile, starting every test from an empty catalogue that is rolled back
+ * afterwards.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("sqltest")
+@Import(GenreStatisticsReconciler.class)
+class GenreStatisticsReconcilerTest {
+
+	@Autowired
+	private GenreStatisticsReconciler reconciler;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private CategoryRepository categoryRepository;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private ArchivedBookRepository archivedBookRepository;
+
+	@Autowired
+	private BookReadRepository bookReadRepository;
+
+	@Autowired
+	private GenreStatisticsRepository genreStatisticsRepository;
+
+	private long poetry;
+	private long drama;
+	private long empty;
+
+	@BeforeEach
+	void seed() {
+		bookReadRepository.deleteAllInBatch();
+		archivedBookRepository.deleteAllInBatch();
+		bookRepository.deleteAllInBatch();
+		genreStatisticsRepository.deleteAllInBatch();
+		categoryRepository.deleteAllInBatch();
+
+		Category poetryCategory = entityManager.persist(new Category(null, "reconcile-poetry", null));
+		Category dramaCategory = entityManager.persist(new Category(null, "reconcile-drama", null));
+		poetry = poetryCategory.getCategoryId();
+		drama = dramaCategory.getCategoryId();
+		empty = entityManager.persist(new Category(null, "reconcile-empty", null)).getCategoryId();
+		entityManager.persist(new Book(null, "reconcile-odes", "Odes", poetryCategory, null));
+		entityManager.persist(new Book(null, "reconcile-sonnets", "Sonnets", poetryCategory, null));
+		entityManager.persist(new Book(null, "reconcile-tragedies", "Tragedies", dramaCategory, null));
+		// Archived books keep counting towards their genre
+		entityManager.persist(new ArchivedBook(900_001L, "reconcile-comedies", new byte[] { 1 }, drama, 0L,
+				Instant.now()));
+		entityManager.flush();
+	}
+
+	@Test
+	void leavesCorrectCountersAlone() {
+		counter(poetry, 2);
+		counter(drama, 2);
+		counter(empty, 0);
+
+		assertThat(reconciler.reconcile()).isZero();
+	}
+
+	@Test
+	void repairsDriftedCountersIncludingArchivedBooks() {
+		counter(poetry, 5);
+		counter(drama, 1);
+		counter(empty, 0);
+
+		assertThat(reconciler.reconcile()).isEqualTo(2);
+		assertThat(bookCount(poetry)).isEqualTo(2);
+		assertThat(bookCount(drama)).isEqualTo(2);
+	}
+
+	@Test
+	void createsMissingCounters() {
+		counter(poetry, 2);
+
+		assertThat(reconciler.reconcile()).isEqualTo(2);
+		assertThat(bookCount(drama)).isEqualTo(2);
+		assertThat(bookCount(empty)).isZero();
+	}
+
+	@Test
+	void removesCountersOfDeletedCategories() {
+		counter(poetry, 2);
+		counter(drama, 2);
+		counter(empty, 0);
+		counter(empty + 1000, 3);
+
+		assertThat(reconciler.reconcile()).isEqualTo(1);
+		entityManager.clear();
+		assertThat(genreStatisticsRepository.existsById(empty + 1000)).isFalse();
+	}
+
+	private void counter(long categoryId, long bookCount) {
+		entityManager.persist(new GenreStatistics(categoryId, bookCount));
+		entityManager.flush();
+	}
+
+	private long bookCount(long categoryId) {
+		entityManager.clear();
+		return genreStatisticsRepository.findById(categoryId).orElseThrow().getBookCount();
+	}
+
+}
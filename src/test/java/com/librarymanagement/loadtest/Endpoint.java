@@ -0,0 +1,102 @@
+package com.librarymanagement.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Random;
+
+/**
+ * The {@code LibraryController} endpoints driven by the load test, each with
+ * the request it sends. Ids and names are drawn from the
+ * {@link SyntheticCatalogue} by popularity.
+ */
+enum Endpoint {
+
+	BOOK_BY_ID {
+		@Override
+		HttpRequest.Builder request(URI base, SyntheticCatalogue catalogue, Random random) {
+			return get(base, "/library/getbookbyid/" + catalogue.bookId(catalogue.popularBook(random)));
+		}
+	},
+
+	BOOK_BY_NAME {
+		@Override
+		HttpRequest.Builder request(URI base, SyntheticCatalogue catalogue, Random random) {
+			String name = URLEncoder.encode(catalogue.bookName(catalogue.popularBook(random)), StandardCharsets.UTF_8);
+			return get(base, "/library/getbookbyname/" + name);
+		}
+	},
+
+	BOOKS_BY_CATEGORY {
+		@Override
+		HttpRequest.Builder request(URI base, SyntheticCatalogue catalogue, Random random) {
+			return get(base, "/library/books/" + catalogue.popularCategoryId(random) + "?fields=bookId,name");
+		}
+	},
+
+	GENRES {
+		@Override
+		HttpRequest.Builder request(URI base, SyntheticCatalogue catalogue, Random random) {
+			return get(base, "/library/category/genres");
+		}
+	},
+
+	STATISTICS {
+		@Override
+		HttpRequest.Builder request(URI base, SyntheticCatalogue catalogue, Random random) {
+			return get(base, "/library/category/statistics");
+		}
+	},
+
+	ALL_BOOKS {
+		@Override
+		HttpRequest.Builder request(URI base, SyntheticCatalogue catalogue, Random random) {
+			return get(base, "/library/getallbook?fields=bookId,name");
+		}
+	},
+
+	ADD_BOOK {
+		@Override
+		HttpRequest.Builder request(URI base, SyntheticCatalogue catalogue, Random random) {
+			String body = String.format("{\"name\":\"%s\",\"bookDescription\":\"Added under load\",\"categoryId\":%d}",
+					catalogue.newBookName(), catalogue.popularCategoryId(random));
+			return json(base, "/library/books/addbook").POST(HttpRequest.BodyPublishers.ofString(body));
+		}
+	},
+
+	UPDATE_BOOK {
+		@Override
+		HttpRequest.Builder request(URI base, SyntheticCatalogue catalogue, Random random) {
+			int book = catalogue.popularBook(random);
+			// Keeps the name, so concurrent updates of the same book never collide on it
+			String body = String.format("{\"name\":\"%s\",\"bookDescription\":\"Updated under load %d\"}",
+					catalogue.bookName(book), random.nextInt());
+			return json(base, "/library/books/" + catalogue.bookId(book))
+					.PUT(HttpRequest.BodyPublishers.ofString(body));
+		}
+	};
+
+	private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+	/**
+	 * Builds the next request to this endpoint.
+	 *
+	 * @param base      The address of the application.
+	 * @param catalogue The catalogue to draw ids and names from.
+	 * @param random    The random source of this run.
+	 * @return The request, ready to be built.
+	 */
+	abstract HttpRequest.Builder request(URI base, SyntheticCatalogue catalogue, Random random);
+
+	private static HttpRequest.Builder get(URI base, String path) {
+		return HttpRequest.newBuilder(base.resolve(path)).timeout(TIMEOUT).GET();
+	}
+
+	private static HttpRequest.Builder json(URI base, String path) {
+		return HttpRequest.newBuilder(base.resolve(path)).timeout(TIMEOUT).header("Content-Type",
+				"application/json");
+	}
+
+}
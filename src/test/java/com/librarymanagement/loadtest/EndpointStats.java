@@ -0,0 +1,69 @@
+package com.librarymanagement.loadtest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Outcomes and latencies of the requests to one endpoint. Latencies are taken
+ * from the time a request was scheduled to be sent rather than the time it was
+ * sent, so waiting behind a slow server is counted instead of omitted.
+ */
+final class EndpointStats {
+
+	private static final long HIGHEST_LATENCY = TimeUnit.MINUTES.toNanos(1);
+
+	private final Histogram latencies = new ConcurrentHistogram(HIGHEST_LATENCY, 3);
+	private final LongAdder succeeded = new LongAdder();
+	private final LongAdder shed = new LongAdder();
+	private final LongAdder failed = new LongAdder();
+	private final LongAdder dropped = new LongAdder();
+
+	/**
+	 * Records a completed request.
+	 *
+	 * @param status       The HTTP status, or 0 if no response arrived.
+	 * @param latencyNanos The time from the scheduled send to the end of the
+	 *                     response.
+	 */
+	void record(int status, long latencyNanos) {
+		if (status >= 200 && status < 300) {
+			succeeded.increment();
+			latencies.recordValue(Math.min(latencyNanos, HIGHEST_LATENCY));
+		} else if (status == 503) {
+			shed.increment();
+		} else {
+			failed.increment();
+		}
+	}
+
+	/**
+	 * Records a request that was not sent because too many were outstanding.
+	 */
+	void drop() {
+		dropped.increment();
+	}
+
+	Histogram latencies() {
+		return latencies;
+	}
+
+	long succeeded() {
+		return succeeded.sum();
+	}
+
+	long shed() {
+		return shed.sum();
+	}
+
+	long failed() {
+		return failed.sum();
+	}
+
+	long dropped() {
+		return dropped.sum();
+	}
+
+}
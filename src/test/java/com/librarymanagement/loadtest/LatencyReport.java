@@ -0,0 +1,81 @@
+package com.librarymanagement.loadtest;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Formats the throughput and the latency percentiles per endpoint as a plain
+ * text table.
+ */
+final class LatencyReport {
+
+	private static final String ROW = "%-18s %9s %9s %7s %7s %7s %10s %9s %9s %9s %9s%n";
+
+	private LatencyReport() {
+	}
+
+	/**
+	 * Formats the report.
+	 *
+	 * @param settings The settings of the run, printed as the header.
+	 * @param stats    The outcomes per endpoint of the measured period.
+	 * @param measured The length of the measured period.
+	 * @return The report text.
+	 */
+	static String format(LoadTestSettings settings, Map<Endpoint, EndpointStats> stats, Duration measured) {
+		StringWriter text = new StringWriter();
+		PrintWriter out = new PrintWriter(text);
+		double seconds = measured.toNanos() / 1e9;
+		out.println("Load test: " + settings);
+		out.printf(ROW, "endpoint", "requests", "ok", "shed", "failed", "dropped", "ok/s", "p50 ms", "p99 ms",
+				"p99.9 ms", "max ms");
+		Histogram total = new Histogram(3);
+		long[] totals = new long[4];
+		for (Map.Entry<Endpoint, EndpointStats> entry : stats.entrySet()) {
+			EndpointStats endpoint = entry.getValue();
+			row(out, entry.getKey().name(), endpoint.latencies(), endpoint.succeeded(), endpoint.shed(),
+					endpoint.failed(), endpoint.dropped(), seconds);
+			total.add(endpoint.latencies());
+			totals[0] += endpoint.succeeded();
+			totals[1] += endpoint.shed();
+			totals[2] += endpoint.failed();
+			totals[3] += endpoint.dropped();
+		}
+		row(out, "TOTAL", total, totals[0], totals[1], totals[2], totals[3], seconds);
+		out.flush();
+		return text.toString();
+	}
+
+	/**
+	 * Writes the report to a file.
+	 *
+	 * @param report The report text.
+	 * @param path   The target file.
+	 * @throws IOException if the file cannot be written.
+	 */
+	static void write(String report, Path path) throws IOException {
+		Files.createDirectories(path.toAbsolutePath().getParent());
+		Files.writeString(path, report, StandardCharsets.UTF_8);
+	}
+
+	private static void row(PrintWriter out, String name, Histogram latencies, long succeeded, long shed, long failed,
+			long dropped, double seconds) {
+		out.printf(ROW, name, succeeded + shed + failed + dropped, succeeded, shed, failed, dropped,
+				String.format("%.1f", succeeded / seconds), millis(latencies.getValueAtPercentile(50)),
+				millis(latencies.getValueAtPercentile(99)), millis(latencies.getValueAtPercentile(99.9)),
+				millis(latencies.getMaxValue()));
+	}
+
+	private static String millis(long nanos) {
+		return String.format("%.2f", nanos / 1e6);
+	}
+
+}
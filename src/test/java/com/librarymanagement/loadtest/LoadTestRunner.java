@@ -0,0 +1,70 @@
+package com.librarymanagement.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.librarymanagement.LibrarymanagementApplication;
+import com.librarymanagement.index.BookNameIndex;
+import com.librarymanagement.readmodel.CatalogueReadModel;
+
+/**
+ * Starts the application against an in-memory H2 database in MySQL mode (the
+ * {@code loadtest} profile), seeds a synthetic catalogue, and drives the
+ * {@code LibraryController} endpoints with an open-loop request mix. After a
+ * warm-up whose results are discarded, it prints the throughput and the p50,
+ * p99 and p99.9 latency per endpoint and writes the same table to
+ * {@code target/loadtest-report.txt}.
+ * <p>
+ * Run it with {@code mvn -Pload-test verify}, setting the parameters described
+ * in {@link LoadTestSettings} as {@code -Dloadtest.*} properties.
+ */
+public final class LoadTestRunner {
+	private static final Logger logger = LoggerFactory.getLogger(LoadTestRunner.class);
+
+	private LoadTestRunner() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+		logger.info("Starting load test with {}", settings);
+
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(LibrarymanagementApplication.class)
+				.profiles("loadtest").run(args)) {
+			SyntheticCatalogue catalogue = SyntheticCatalogue.seed(context.getBean(JdbcTemplate.class), settings);
+			// The caches were built from the empty database before seeding
+			context.getBean(CatalogueReadModel.class).refreshAll();
+			context.getBean(BookNameIndex.class).refreshAll();
+
+			URI base = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+			ExecutorService responses = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+			try {
+				HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+						.connectTimeout(Duration.ofSeconds(5)).executor(responses).build();
+				OpenLoopDriver driver = new OpenLoopDriver(client, base, catalogue, settings);
+
+				logger.info("Warming up for {}", settings.warmup);
+				driver.run(settings.warmup);
+				logger.info("Measuring for {}", settings.duration);
+				Map<Endpoint, EndpointStats> stats = driver.run(settings.duration);
+
+				String report = LatencyReport.format(settings, stats, settings.duration);
+				System.out.print(report);
+				LatencyReport.write(report, Path.of("target", "loadtest-report.txt"));
+			} finally {
+				responses.shutdownNow();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,88 @@
+package com.librarymanagement.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Parameters of a load test run, read from {@code loadtest.*} system
+ * properties so that every run can be reproduced from its command line:
+ *
+ * <pre>
+ * loadtest.categories  number of synthetic categories         (50)
+ * loadtest.books       number of synthetic books              (100000)
+ * loadtest.skew        Zipf exponent of category sizes and of
+ *                      the popularity of books and categories (1.1)
+ * loadtest.rate        arrivals per second, all endpoints     (500)
+ * loadtest.warmup      warm-up before measuring               (PT10S)
+ * loadtest.duration    measured period                        (PT60S)
+ * loadtest.seed        random seed of catalogue and traffic   (42)
+ * loadtest.mix         endpoint weights, e.g. BOOK_BY_ID:40,ADD_BOOK:5
+ * loadtest.max-in-flight  requests outstanding before arrivals
+ *                      are dropped and counted as such        (10000)
+ * </pre>
+ */
+final class LoadTestSettings {
+
+	private static final String DEFAULT_MIX = "BOOK_BY_ID:40,BOOK_BY_NAME:25,BOOKS_BY_CATEGORY:10,GENRES:5,"
+			+ "STATISTICS:5,ALL_BOOKS:1,ADD_BOOK:8,UPDATE_BOOK:6";
+
+	final int categories;
+	final int books;
+	final double skew;
+	final double rate;
+	final Duration warmup;
+	final Duration duration;
+	final long seed;
+	final Map<Endpoint, Integer> mix;
+	final int maxInFlight;
+
+	private LoadTestSettings(int categories, int books, double skew, double rate, Duration warmup,
+			Duration duration, long seed, Map<Endpoint, Integer> mix, int maxInFlight) {
+		this.categories = categories;
+		this.books = books;
+		this.skew = skew;
+		this.rate = rate;
+		this.warmup = warmup;
+		this.duration = duration;
+		this.seed = seed;
+		this.mix = mix;
+		this.maxInFlight = maxInFlight;
+	}
+
+	static LoadTestSettings fromSystemProperties() {
+		return new LoadTestSettings(Integer.getInteger("loadtest.categories", 50),
+				Integer.getInteger("loadtest.books", 100_000),
+				Double.parseDouble(System.getProperty("loadtest.skew", "1.1")),
+				Double.parseDouble(System.getProperty("loadtest.rate", "500")),
+				Duration.parse(System.getProperty("loadtest.warmup", "PT10S")),
+				Duration.parse(System.getProperty("loadtest.duration", "PT60S")), Long.getLong("loadtest.seed", 42),
+				parseMix(System.getProperty("loadtest.mix", DEFAULT_MIX)),
+				Integer.getInteger("loadtest.max-in-flight", 10_000));
+	}
+
+	private static Map<Endpoint, Integer> parseMix(String mix) {
+		Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+		for (String entry : mix.split(",")) {
+			String[] parts = entry.trim().split(":");
+			if (parts.length != 2) {
+				throw new IllegalArgumentException("Invalid loadtest.mix entry: " + entry);
+			}
+			int weight = Integer.parseInt(parts[1].trim());
+			if (weight > 0) {
+				weights.put(Endpoint.valueOf(parts[0].trim()), weight);
+			}
+		}
+		if (weights.isEmpty()) {
+			throw new IllegalArgumentException("loadtest.mix selects no endpoint");
+		}
+		return weights;
+	}
+
+	@Override
+	public String toString() {
+		return "categories=" + categories + ", books=" + books + ", skew=" + skew + ", rate=" + rate + "/s, warmup="
+				+ warmup + ", duration=" + duration + ", seed=" + seed + ", mix=" + mix;
+	}
+
+}
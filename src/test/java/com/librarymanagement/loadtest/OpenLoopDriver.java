@@ -0,0 +1,106 @@
+package com.librarymanagement.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends requests at a fixed average arrival rate regardless of how fast the
+ * application answers. Arrivals form a Poisson process and each picks an
+ * endpoint by the configured weights. A request that is due while the driver
+ * is behind is sent at once and keeps its original schedule time, so a stalled
+ * server shows up as latency instead of a lower request rate.
+ */
+final class OpenLoopDriver {
+
+	private final HttpClient client;
+	private final URI base;
+	private final SyntheticCatalogue catalogue;
+	private final LoadTestSettings settings;
+	private final Random random;
+	private final Endpoint[] endpoints;
+	private final int[] cumulativeWeights;
+	private final AtomicInteger inFlight = new AtomicInteger();
+
+	OpenLoopDriver(HttpClient client, URI base, SyntheticCatalogue catalogue, LoadTestSettings settings) {
+		this.client = client;
+		this.base = base;
+		this.catalogue = catalogue;
+		this.settings = settings;
+		this.random = new Random(settings.seed);
+		this.endpoints = settings.mix.keySet().toArray(new Endpoint[0]);
+		this.cumulativeWeights = new int[endpoints.length];
+		int sum = 0;
+		for (int i = 0; i < endpoints.length; i++) {
+			sum += settings.mix.get(endpoints[i]);
+			cumulativeWeights[i] = sum;
+		}
+	}
+
+	/**
+	 * Drives the application for the given time and waits for the outstanding
+	 * requests.
+	 *
+	 * @param duration How long to send requests.
+	 * @return The outcomes per endpoint.
+	 */
+	Map<Endpoint, EndpointStats> run(Duration duration) {
+		Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+		for (Endpoint endpoint : endpoints) {
+			stats.put(endpoint, new EndpointStats());
+		}
+		double meanInterval = TimeUnit.SECONDS.toNanos(1) / settings.rate;
+		long next = System.nanoTime();
+		long end = next + duration.toNanos();
+		while (next < end) {
+			long wait = next - System.nanoTime();
+			if (wait > 0) {
+				LockSupport.parkNanos(wait);
+			}
+			Endpoint endpoint = pick();
+			send(endpoint, stats.get(endpoint), next);
+			next += (long) (-Math.log(1 - random.nextDouble()) * meanInterval);
+		}
+		awaitOutstanding();
+		return stats;
+	}
+
+	private Endpoint pick() {
+		int ticket = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+		for (int i = 0; i < cumulativeWeights.length; i++) {
+			if (ticket < cumulativeWeights[i]) {
+				return endpoints[i];
+			}
+		}
+		throw new IllegalStateException("No endpoint for ticket " + ticket);
+	}
+
+	private void send(Endpoint endpoint, EndpointStats stats, long scheduledAt) {
+		if (inFlight.get() >= settings.maxInFlight) {
+			stats.drop();
+			return;
+		}
+		HttpRequest request = endpoint.request(base, catalogue, random).build();
+		inFlight.incrementAndGet();
+		client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, failure) -> {
+			stats.record(failure == null ? response.statusCode() : 0, System.nanoTime() - scheduledAt);
+			inFlight.decrementAndGet();
+		});
+	}
+
+	private void awaitOutstanding() {
+		long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+		while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+			LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+		}
+	}
+
+}
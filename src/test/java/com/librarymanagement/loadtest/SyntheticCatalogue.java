@@ -0,0 +1,127 @@
+package com.librarymanagement.loadtest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.librarymanagement.entity.Book;
+
+/**
+ * Seeds the database with a synthetic catalogue and draws the books and
+ * categories the generated requests refer to. Category sizes follow a Zipf
+ * distribution, and so does the popularity of books and categories, so that a
+ * few genres and titles receive most of the traffic as in a real library.
+ * Popularity is assigned in a shuffled order, so hot books are spread over the
+ * whole id space rather than clustered at the lowest ids.
+ */
+final class SyntheticCatalogue {
+	private static final Logger logger = LoggerFactory.getLogger(SyntheticCatalogue.class);
+
+	private static final int BATCH_SIZE = 1000;
+
+	private final long[] categoryIds;
+	private final long[] bookIds;
+	private final String[] bookNames;
+	private final ZipfSampler categoryPopularity;
+	private final ZipfSampler bookPopularity;
+	private final String runId;
+	private final AtomicLong addedBooks = new AtomicLong();
+
+	private SyntheticCatalogue(long[] categoryIds, long[] bookIds, String[] bookNames, double skew, long seed) {
+		this.categoryIds = categoryIds;
+		this.bookIds = bookIds;
+		this.bookNames = bookNames;
+		this.categoryPopularity = new ZipfSampler(categoryIds.length, skew);
+		this.bookPopularity = new ZipfSampler(bookIds.length, skew);
+		this.runId = Long.toString(seed, 36) + "-" + Long.toString(System.currentTimeMillis(), 36);
+	}
+
+	/**
+	 * Inserts the categories, the books and their genre statistics. Expects
+	 * empty tables.
+	 *
+	 * @param jdbcTemplate The template for the inserts.
+	 * @param settings     The catalogue size and skew.
+	 * @return The seeded catalogue, with popularity ranks assigned.
+	 */
+	static SyntheticCatalogue seed(JdbcTemplate jdbcTemplate, LoadTestSettings settings) {
+		long started = System.nanoTime();
+		Random random = new Random(settings.seed);
+
+		List<Object[]> categories = new ArrayList<>(settings.categories);
+		for (int i = 0; i < settings.categories; i++) {
+			categories.add(new Object[] { "genre-" + i });
+		}
+		jdbcTemplate.batchUpdate("insert into categories (category_name, version) values (?, 0)", categories);
+		long[] categoryIds = jdbcTemplate
+				.queryForList("select category_id from categories order by category_id", Long.class).stream()
+				.mapToLong(Long::longValue).toArray();
+
+		ZipfSampler categorySizes = new ZipfSampler(categoryIds.length, settings.skew);
+		List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+		for (int i = 0; i < settings.books; i++) {
+			long categoryId = categoryIds[categorySizes.sample(random)];
+			String name = "book-" + i;
+			batch.add(new Object[] { name, Book.nameKey(name), "Synthetic book " + i + " in genre " + categoryId,
+					categoryId });
+			if (batch.size() == BATCH_SIZE || i == settings.books - 1) {
+				jdbcTemplate.batchUpdate("insert into books (book_name, book_name_key, book_description, "
+						+ "category_id, version) values (?, ?, ?, ?, 0)", batch);
+				batch.clear();
+			}
+		}
+		jdbcTemplate.update("insert into genre_statistics (category_id, book_count, last_book_id) "
+				+ "select c.category_id, count(b.book_id), max(b.book_id) from categories c "
+				+ "left join books b on b.category_id = c.category_id group by c.category_id");
+
+		List<Long> ids = new ArrayList<>(settings.books);
+		List<String> names = new ArrayList<>(settings.books);
+		jdbcTemplate.query("select book_id, book_name from books", row -> {
+			ids.add(row.getLong(1));
+			names.add(row.getString(2));
+		});
+		// The same shuffle for ids and names keeps them aligned
+		Collections.shuffle(ids, new Random(settings.seed));
+		Collections.shuffle(names, new Random(settings.seed));
+		long[] bookIds = ids.stream().mapToLong(Long::longValue).toArray();
+		String[] bookNames = names.toArray(new String[0]);
+
+		logger.info("Seeded {} categories and {} books in {} ms", categoryIds.length, bookIds.length,
+				(System.nanoTime() - started) / 1_000_000);
+		return new SyntheticCatalogue(categoryIds, bookIds, bookNames, settings.skew, settings.seed);
+	}
+
+	long popularCategoryId(Random random) {
+		return categoryIds[categoryPopularity.sample(random)];
+	}
+
+	/**
+	 * @return The index of a popular seeded book, for {@link #bookId(int)} and
+	 *         {@link #bookName(int)}.
+	 */
+	int popularBook(Random random) {
+		return bookPopularity.sample(random);
+	}
+
+	long bookId(int book) {
+		return bookIds[book];
+	}
+
+	String bookName(int book) {
+		return bookNames[book];
+	}
+
+	/**
+	 * @return A book name no earlier run against the same database has used.
+	 */
+	String newBookName() {
+		return "load-" + runId + "-" + addedBooks.incrementAndGet();
+	}
+
+}
@@ -0,0 +1,40 @@
+package com.librarymanagement.loadtest;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Draws ranks 0 .. n-1 with probability proportional to 1 / (rank + 1)^s from a
+ * precomputed cumulative distribution. An exponent of 0 gives a uniform
+ * distribution.
+ */
+final class ZipfSampler {
+
+	private final double[] cumulative;
+
+	ZipfSampler(int n, double exponent) {
+		cumulative = new double[n];
+		double sum = 0;
+		for (int rank = 0; rank < n; rank++) {
+			sum += 1 / Math.pow(rank + 1, exponent);
+			cumulative[rank] = sum;
+		}
+		for (int rank = 0; rank < n; rank++) {
+			cumulative[rank] /= sum;
+		}
+	}
+
+	int sample(Random random) {
+		int position = Arrays.binarySearch(cumulative, random.nextDouble());
+		int rank = position >= 0 ? position : -position - 1;
+		return Math.min(rank, cumulative.length - 1);
+	}
+
+	/**
+	 * @return The probability of each rank.
+	 */
+	double probability(int rank) {
+		return rank == 0 ? cumulative[0] : cumulative[rank] - cumulative[rank - 1];
+	}
+
+}
@@ -0,0 +1,50 @@
+package com.librarymanagement.projection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+import com.librarymanagement.exceptions.InvalidFieldException;
+
+/**
+ * Parsing of the {@code fields} request parameter.
+ */
+class BookFieldTest {
+
+	@Test
+	void parsesFieldsInDeclarationOrder() {
+		assertThat(BookField.parse(" categories,name , bookId")).containsExactly(BookField.BOOK_ID, BookField.NAME,
+				BookField.CATEGORIES);
+	}
+
+	@Test
+	void ignoresRepeatedFieldsAndEmptyTokens() {
+		assertThat(BookField.parse("name,,name,")).containsExactly(BookField.NAME);
+	}
+
+	@Test
+	void rejectsAnUnknownField() {
+		assertThatThrownBy(() -> BookField.parse("bookId,isbn")).isInstanceOfSatisfying(InvalidFieldException.class,
+				e -> {
+					assertThat(e.getErrorCode()).isEqualTo("603");
+					assertThat(e.getErrorMessage()).contains("isbn");
+				});
+	}
+
+	@Test
+	void rejectsFieldNamesInTheWrongCase() {
+		assertThatThrownBy(() -> BookField.parse("BookId")).isInstanceOfSatisfying(InvalidFieldException.class,
+				e -> assertThat(e.getErrorCode()).isEqualTo("603"));
+	}
+
+	@Test
+	void rejectsAnEmptyValue() {
+		for (String fields : new String[] { null, "", "   ", ",", " , ," }) {
+			assertThatThrownBy(() -> BookField.parse(fields)).as("fields=%s", fields)
+					.isInstanceOfSatisfying(InvalidFieldException.class,
+							e -> assertThat(e.getErrorCode()).isEqualTo("603"));
+		}
+	}
+
+}
@@ -0,0 +1,123 @@
+package com.librarymanagement.readmodel;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.librarymanagement.bulk.BulkScanner;
+import com.librarymanagement.entity.CatalogueChange;
+import com.librarymanagement.event.CatalogueChangeEvent;
+import com.librarymanagement.repository.BookRepository;
+import com.librarymanagement.repository.CatalogueChangeRepository;
+import com.librarymanagement.repository.CategoryRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * {@link CatalogueReadModel} loading the whole catalogue with a parallel scan
+ * while another node's transaction, holding a change id below the watermark,
+ * commits after its book was scanned.
+ */
+class CatalogueReadModelTest {
+
+	private static final long CATEGORY_ID = 1L;
+
+	/** The committed book rows: {bookId, categoryId, name, bookDescription, version}. */
+	private final Map<Long, Object[]> books = new ConcurrentHashMap<>();
+	private final ConcurrentSkipListMap<Long, CatalogueChange> changeLog = new ConcurrentSkipListMap<>();
+	private BookRepository bookRepository;
+	private CatalogueChangeRepository catalogueChangeRepository;
+	private BulkScanner bulkScanner;
+	private CatalogueReadModel readModel;
+
+	@BeforeEach
+	void setUp() {
+		bookRepository = mock(BookRepository.class);
+		catalogueChangeRepository = mock(CatalogueChangeRepository.class);
+		CategoryRepository categoryRepository = mock(CategoryRepository.class);
+		when(categoryRepository.findAllIdsAndNames())
+				.thenReturn(List.<Object[]>of(new Object[] { CATEGORY_ID, "fiction", 0L }));
+		when(bookRepository.count()).thenAnswer(call -> (long) books.size());
+		when(bookRepository.findBookIdBounds()).thenReturn(new long[] { 1, 2 });
+		when(bookRepository.findCatalogueRowsByIds(anyCollection())).thenAnswer(call -> call
+				.<Collection<Long>>getArgument(0).stream().map(books::get).filter(Objects::nonNull).toList());
+		when(catalogueChangeRepository.findMaxChangeId()).thenAnswer(call -> changeLog.lastKey());
+		when(catalogueChangeRepository.findChangesSince(anyLong(), any())).thenAnswer(call -> {
+			long watermark = call.<Long>getArgument(0);
+			Instant since = call.getArgument(1);
+			return changeLog.values().stream()
+					.filter(change -> change.getChangeId() > watermark || !change.getChangedAt().isBefore(since))
+					.toList();
+		});
+		bulkScanner = new BulkScanner(bookRepository, mock(PlatformTransactionManager.class),
+				new SimpleMeterRegistry(), 2, 1, 10, 10);
+		readModel = new CatalogueReadModel(bookRepository, categoryRepository, catalogueChangeRepository, null,
+				bulkScanner, Duration.ofMinutes(5), true);
+
+		book(1, "Dune", 0);
+		book(2, "Emma", 0);
+		change(1, 1);
+		change(2, 2);
+	}
+
+	@AfterEach
+	void tearDown() {
+		bulkScanner.shutdown();
+	}
+
+	@Test
+	void changeBelowTheWatermarkCommittedAfterItsRangeWasScannedIsCaughtUp() {
+		// Change 3 is recorded before the load reads the watermark, but commits later
+		CatalogueChange late = new CatalogueChange(CatalogueChangeEvent.Type.BOOK_UPSERTED, 1L, Instant.now());
+		late.setChangeId(3L);
+		change(4, 2);
+		when(bookRepository.streamCatalogueRange(anyLong(), anyLong(), anyInt())).thenAnswer(call -> {
+			long bookId = call.<Long>getArgument(0);
+			Object[] scanned = books.get(bookId);
+			if (bookId == 1) {
+				book(1, "Dune Messiah", 1);
+				changeLog.put(late.getChangeId(), late);
+			}
+			return Stream.<Object[]>of(scanned);
+		});
+
+		readModel.refreshAll();
+
+		CatalogueSnapshot snapshot = readModel.snapshot();
+		assertThat(snapshot.findBook(1).getName()).isEqualTo("Dune Messiah");
+		assertThat(snapshot.findBook(1).getVersion()).isEqualTo(1);
+		assertThat(snapshot.findBook(2).getName()).isEqualTo("Emma");
+		assertThat(snapshot.getWatermark()).isEqualTo(4);
+	}
+
+	private void book(long bookId, String name, long version) {
+		books.put(bookId, new Object[] { bookId, CATEGORY_ID, name, "Book " + bookId, version });
+	}
+
+	private void change(long changeId, long bookId) {
+		CatalogueChange change = new CatalogueChange(CatalogueChangeEvent.Type.BOOK_UPSERTED, bookId,
+				Instant.now().minus(Duration.ofHours(1)));
+		change.setChangeId(changeId);
+		changeLog.put(changeId, change);
+	}
+
+}
@@ -0,0 +1,146 @@
+package com.librarymanagement.readmodel;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.librarymanagement.entity.Book;
+
+/**
+ * Writing {@link CatalogueSnapshot}s with {@link CatalogueSnapshotFile} and
+ * reading them back, including files that must be rejected.
+ */
+class CatalogueSnapshotFileTest {
+
+	private static final Instant WRITTEN_AT = Instant.ofEpochMilli(1_700_000_000_123L);
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void roundTrip() throws IOException {
+		Path path = directory.resolve("catalogue.snapshot");
+		CatalogueSnapshotFile.write(snapshot(), path, WRITTEN_AT);
+
+		CatalogueSnapshotFile.Content content = CatalogueSnapshotFile.read(path);
+
+		CatalogueSnapshot read = content.getSnapshot();
+		assertThat(content.getWrittenAt()).isEqualTo(WRITTEN_AT);
+		assertThat(read.getWatermark()).isEqualTo(42);
+		assertThat(read.bookCount()).isEqualTo(3);
+		assertThat(read.categoryCount()).isEqualTo(2);
+		Book book = read.findBook(11);
+		assertThat(book.getName()).isEqualTo("Gedichte \u00FCber B\u00E4ume");
+		assertThat(book.getBookDescription()).isEmpty();
+		assertThat(book.getVersion()).isEqualTo(4);
+		assertThat(book.getCategories().getCategoryName()).isEqualTo("poetry");
+		assertThat(book.getCategories().getVersion()).isEqualTo(2);
+		assertThat(read.findBook(12).getCategories()).isNull();
+		assertThat(read.booksOfCategory(1)).extracting(Book::getBookId).containsExactly(10L, 11L);
+		assertThat(read.booksOfCategory(2)).isEmpty();
+	}
+
+	@Test
+	void emptySnapshotRoundTrip() throws IOException {
+		Path path = directory.resolve("empty.snapshot");
+		CatalogueSnapshotFile.write(CatalogueSnapshot.empty(), path, WRITTEN_AT);
+
+		CatalogueSnapshot read = CatalogueSnapshotFile.read(path).getSnapshot();
+
+		assertThat(read.bookCount()).isZero();
+		assertThat(read.categoryCount()).isZero();
+	}
+
+	@Test
+	void rejectsABadChecksum() throws IOException {
+		Path path = written();
+		byte[] bytes = Files.readAllBytes(path);
+		bytes[bytes.length / 2] ^= 1;
+		Files.write(path, bytes);
+
+		assertThatThrownBy(() -> CatalogueSnapshotFile.read(path)).isInstanceOf(IOException.class)
+				.hasMessageContaining("checksum");
+	}
+
+	@Test
+	void rejectsAWrongMagic() throws IOException {
+		Path path = written();
+		byte[] bytes = Files.readAllBytes(path);
+		ByteBuffer.wrap(bytes).putInt(0, 0x12345678);
+		Files.write(path, checksummed(bytes));
+
+		assertThatThrownBy(() -> CatalogueSnapshotFile.read(path)).isInstanceOf(IOException.class)
+				.hasMessage("Not a catalogue snapshot file");
+	}
+
+	@Test
+	void rejectsAnotherFormatVersion() throws IOException {
+		Path path = written();
+		byte[] bytes = Files.readAllBytes(path);
+		ByteBuffer.wrap(bytes).putInt(Integer.BYTES, 1);
+		Files.write(path, checksummed(bytes));
+
+		assertThatThrownBy(() -> CatalogueSnapshotFile.read(path)).isInstanceOf(IOException.class)
+				.hasMessage("Unsupported snapshot format version 1");
+	}
+
+	@Test
+	void rejectsATruncatedFile() throws IOException {
+		Path path = written();
+		byte[] bytes = Files.readAllBytes(path);
+		Files.write(path, Arrays.copyOf(bytes, bytes.length - 20));
+
+		assertThatThrownBy(() -> CatalogueSnapshotFile.read(path)).isInstanceOf(IOException.class)
+				.hasMessageContaining("checksum");
+
+		Files.write(path, Arrays.copyOf(bytes, 16));
+
+		assertThatThrownBy(() -> CatalogueSnapshotFile.read(path)).isInstanceOf(IOException.class)
+				.hasMessageContaining("invalid size");
+	}
+
+	@Test
+	void rejectsATruncatedFileWithAMatchingChecksum() throws IOException {
+		Path path = written();
+		byte[] bytes = Files.readAllBytes(path);
+		// Cut the body short and checksum what is left, as if written by a broken writer
+		Files.write(path, checksummed(Arrays.copyOfRange(bytes, 0, bytes.length - 20)));
+
+		assertThatThrownBy(() -> CatalogueSnapshotFile.read(path)).isInstanceOf(IOException.class)
+				.hasMessageContaining("truncated or corrupt");
+	}
+
+	private Path written() throws IOException {
+		Path path = directory.resolve("catalogue.snapshot");
+		CatalogueSnapshotFile.write(snapshot(), path, WRITTEN_AT);
+		return path;
+	}
+
+	private static CatalogueSnapshot snapshot() {
+		return new CatalogueSnapshot.Builder(3, 2).watermark(42).addCategory(1, "poetry", 2)
+				.addCategory(2, "drama", 0).addBook(10, 1L, "Sonnets", "Shakespeare", 1)
+				.addBook(11, 1L, "Gedichte \u00FCber B\u00E4ume", "", 4).addBook(12, null, "Uncategorised", "None", 0)
+				.build();
+	}
+
+	/**
+	 * Replaces the trailing checksum with the one over the preceding bytes.
+	 */
+	private static byte[] checksummed(byte[] bytes) {
+		CRC32 crc = new CRC32();
+		crc.update(bytes, 0, bytes.length - Long.BYTES);
+		ByteBuffer.wrap(bytes).putLong(bytes.length - Long.BYTES, crc.getValue());
+		return bytes;
+	}
+
+}
@@ -0,0 +1,107 @@
+package com.librarymanagement.readmodel;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.librarymanagement.entity.Book;
+import com.librarymanagement.event.CatalogueChangeEvent;
+
+/**
+ * {@link CatalogueSnapshot#apply} with changes queued in another order than
+ * they committed in.
+ */
+class CatalogueSnapshotTest {
+
+	private static final long CATEGORY_ID = 1L;
+	private static final long BOOK_ID = 10L;
+
+	@Test
+	void highestChangeIdWinsWithinABatch() {
+		CatalogueSnapshot snapshot = base().apply(List.of(renamed("second", 2, 21), renamed("first", 1, 20)));
+
+		assertThat(snapshot.findBook(BOOK_ID).getName()).isEqualTo("second");
+		assertThat(snapshot.findBook(BOOK_ID).getVersion()).isEqualTo(2);
+		assertThat(snapshot.getWatermark()).isEqualTo(21);
+	}
+
+	@Test
+	void deletionCommittedLastWinsOverALaterQueuedUpsert() {
+		CatalogueSnapshot snapshot = base()
+				.apply(List.of(CatalogueChangeEvent.bookDeleted(BOOK_ID).withChangeId(22), renamed("first", 1, 20)));
+
+		assertThat(snapshot.findBook(BOOK_ID)).isNull();
+		assertThat(snapshot.booksOfCategory(CATEGORY_ID)).isEmpty();
+	}
+
+	@Test
+	void upsertCommittedLastWinsOverALaterQueuedDeletion() {
+		CatalogueSnapshot snapshot = base()
+				.apply(List.of(renamed("second", 1, 23), CatalogueChangeEvent.bookDeleted(BOOK_ID).withChangeId(22)));
+
+		assertThat(snapshot.findBook(BOOK_ID).getName()).isEqualTo("second");
+	}
+
+	@Test
+	void olderVersionFromALaterBatchIsDropped() {
+		CatalogueSnapshot snapshot = base().apply(List.of(renamed("second", 2, 21)))
+				.apply(List.of(renamed("first", 1, 20)));
+
+		assertThat(snapshot.findBook(BOOK_ID).getName()).isEqualTo("second");
+		assertThat(snapshot.findBook(BOOK_ID).getVersion()).isEqualTo(2);
+		assertThat(snapshot.getWatermark()).isEqualTo(21);
+	}
+
+	@Test
+	void olderCategoryVersionIsDropped() {
+		CatalogueSnapshot snapshot = base()
+				.apply(List.of(CatalogueChangeEvent.categoryUpserted(CATEGORY_ID, "renamed", 3).withChangeId(30)))
+				.apply(List.of(CatalogueChangeEvent.categoryUpserted(CATEGORY_ID, "stale", 1).withChangeId(25)));
+
+		Book book = snapshot.findBook(BOOK_ID);
+		assertThat(book.getCategories().getCategoryName()).isEqualTo("renamed");
+		assertThat(book.getCategories().getVersion()).isEqualTo(3);
+	}
+
+	@Test
+	void sameVersionIsReapplied() {
+		CatalogueSnapshot snapshot = base().apply(List.of(renamed("original", 0, 20)));
+
+		assertThat(snapshot.findBook(BOOK_ID).getName()).isEqualTo("original");
+		assertThat(snapshot.bookCount()).isEqualTo(1);
+	}
+
+	@Test
+	void explicitWatermarkIsTaken() {
+		CatalogueSnapshot caughtUp = base().apply(List.of(renamed("caught up", 1, 30)), 40);
+
+		assertThat(caughtUp.getWatermark()).isEqualTo(40);
+		assertThat(caughtUp.apply(List.of(), 35).getWatermark()).isEqualTo(40);
+		assertThat(base().apply(List.of(), 50).getWatermark()).isEqualTo(50);
+	}
+
+	@Test
+	void readModelAppliesChangesInCommitOrder() {
+		CatalogueReadModel readModel = new CatalogueReadModel(null, null, null, null, null, null, true);
+		readModel.replace(base());
+
+		readModel.onCatalogueChange(renamed("second", 2, 21));
+		readModel.onCatalogueChange(renamed("first", 1, 20));
+
+		assertThat(readModel.snapshot().findBook(BOOK_ID).getName()).isEqualTo("second");
+		assertThat(readModel.snapshot().getWatermark()).isEqualTo(21);
+	}
+
+	private static CatalogueSnapshot base() {
+		return new CatalogueSnapshot.Builder(1, 1).watermark(5).addCategory(CATEGORY_ID, "poetry", 0)
+				.addBook(BOOK_ID, CATEGORY_ID, "original", "description", 0).build();
+	}
+
+	private static CatalogueChangeEvent renamed(String name, long version, long changeId) {
+		return CatalogueChangeEvent.bookUpserted(BOOK_ID, CATEGORY_ID, name, "description", version)
+				.withChangeId(changeId);
+	}
+
+}
@@ -0,0 +1,92 @@
+package com.librarymanagement.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.librarymanagement.entity.Book;
+import com.librarymanagement.entity.Category;
+import com.librarymanagement.projection.BookField;
+
+/**
+ * {@link BookRepositoryCustom#findProjected} on the H2 database of the
+ * {@code sqltest} profile. Every test runs in a transaction that is rolled
+ * back, and only looks at the rows it created.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("sqltest")
+class BookRepositoryProjectionTest {
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	private Category poetry;
+	private Category drama;
+	private Book odes;
+	private Book uncategorised;
+
+	@BeforeEach
+	void seed() {
+		poetry = entityManager.persist(new Category(null, "projection-poetry", null));
+		drama = entityManager.persist(new Category(null, "projection-drama", null));
+		odes = entityManager.persist(new Book(null, "projection-odes", "Odes", poetry, null));
+		entityManager.persist(new Book(null, "projection-sonnets", "Sonnets", poetry, null));
+		entityManager.persist(new Book(null, "projection-tragedies", "Tragedies", drama, null));
+		uncategorised = entityManager.persist(new Book(null, "projection-loose-leaves", "Loose leaves", null, null));
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Test
+	void selectsOnlyTheRequestedFieldsInDeclarationOrder() {
+		List<Map<String, Object>> books = bookRepository.findProjected(EnumSet.of(BookField.NAME, BookField.BOOK_ID),
+				poetry.getCategoryId(), null);
+
+		assertThat(books).hasSize(2).allSatisfy(book -> assertThat(book).containsOnlyKeys("bookId", "name"));
+		assertThat(books.get(0).keySet()).containsExactly("bookId", "name");
+		assertThat(books).extracting(book -> book.get("name")).containsExactlyInAnyOrder("projection-odes",
+				"projection-sonnets");
+	}
+
+	@Test
+	void combinesTheCategoryAndTheNameFilter() {
+		List<Map<String, Object>> books = bookRepository.findProjected(
+				EnumSet.of(BookField.BOOK_ID, BookField.BOOK_DESCRIPTION, BookField.CATEGORIES),
+				poetry.getCategoryId(), "projection-odes");
+
+		assertThat(books).containsExactly(Map.of("bookId", odes.getBookId(), "bookDescription", "Odes", "categories",
+				Map.of("categoryId", poetry.getCategoryId(), "categoryName", "projection-poetry")));
+	}
+
+	@Test
+	void findsNothingWhenTheNameIsInAnotherCategory() {
+		assertThat(bookRepository.findProjected(EnumSet.of(BookField.BOOK_ID), drama.getCategoryId(),
+				"projection-odes")).isEmpty();
+	}
+
+	@Test
+	void keepsBooksWithoutACategory() {
+		List<Map<String, Object>> books = bookRepository.findProjected(
+				EnumSet.of(BookField.BOOK_ID, BookField.CATEGORY_ID, BookField.CATEGORIES), null,
+				"projection-loose-leaves");
+
+		assertThat(books).hasSize(1);
+		assertThat(books.get(0)).containsEntry("bookId", uncategorised.getBookId()).containsEntry("categoryId", null)
+				.containsEntry("categories", null);
+	}
+
+}
@@ -0,0 +1,69 @@
+package com.librarymanagement.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.librarymanagement.entity.GenreStatistics;
+
+/**
+ * The counter upserts of {@link GenreStatisticsRepository} on the H2 database
+ * of the {@code sqltest} profile.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("sqltest")
+class GenreStatisticsRepositoryTest {
+
+	private static final long CATEGORY_ID = 910_001L;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private GenreStatisticsRepository genreStatisticsRepository;
+
+	@Test
+	void incrementCreatesAMissingCounter() {
+		Instant addedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+		genreStatisticsRepository.incrementBookCount(CATEGORY_ID, 7L, addedAt);
+
+		GenreStatistics counter = counter();
+		assertThat(counter.getBookCount()).isEqualTo(1);
+		assertThat(counter.getLastBookId()).isEqualTo(7L);
+		assertThat(counter.getLastBookAddedAt()).isEqualTo(addedAt);
+	}
+
+	@Test
+	void incrementBumpsAnExistingCounter() {
+		entityManager.persistAndFlush(new GenreStatistics(CATEGORY_ID, 4));
+		genreStatisticsRepository.incrementBookCount(CATEGORY_ID, 8L, Instant.now());
+		genreStatisticsRepository.incrementBookCount(CATEGORY_ID, 9L, Instant.now());
+
+		GenreStatistics counter = counter();
+		assertThat(counter.getBookCount()).isEqualTo(6);
+		assertThat(counter.getLastBookId()).isEqualTo(9L);
+	}
+
+	@Test
+	void createIfMissingLeavesAnExistingCounterUntouched() {
+		genreStatisticsRepository.createIfMissing(CATEGORY_ID, 3);
+		genreStatisticsRepository.createIfMissing(CATEGORY_ID, 10);
+
+		assertThat(counter().getBookCount()).isEqualTo(3);
+	}
+
+	private GenreStatistics counter() {
+		entityManager.clear();
+		return genreStatisticsRepository.findById(CATEGORY_ID).orElseThrow();
+	}
+
+}
@@ -0,0 +1,57 @@
+package com.librarymanagement.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.SQLException;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import com.librarymanagement.exceptions.BookNamePresentException;
+
+/**
+ * The translation of unique name index violations into 606 responses, for the
+ * constraint names MySQL and H2 report.
+ */
+class DuplicateNameTest {
+
+	@Test
+	void mysqlTableQualifiedNameIndex() {
+		assertThat(translate("books.uk_books_book_name")).isInstanceOf(BookNamePresentException.class);
+		assertThat(translate("books.uk_books_book_name_key")).isInstanceOf(BookNamePresentException.class);
+	}
+
+	@Test
+	void h2BackingIndexInUpperCase() {
+		assertThat(translate("\"PUBLIC.UK_BOOKS_BOOK_NAME_KEY_INDEX_3 ON PUBLIC.BOOKS(BOOK_NAME_KEY NULLS FIRST) "
+				+ "VALUES ( /* 2 */ 'dune' )\"")).isInstanceOf(BookNamePresentException.class);
+	}
+
+	@Test
+	void otherConstraintsAreKept() {
+		DataIntegrityViolationException e = violation("books.fk_books_category_id");
+
+		assertThat(LibraryServiceImpl.duplicateNameOr(e, "Dune")).isSameAs(e);
+		assertThat(translate("uk_books_book_name_suffix")).isInstanceOf(DataIntegrityViolationException.class);
+		assertThat(translate(null)).isInstanceOf(DataIntegrityViolationException.class);
+	}
+
+	@Test
+	void violationWithoutConstraintCauseIsKept() {
+		DataIntegrityViolationException e = new DataIntegrityViolationException("uk_books_book_name");
+
+		assertThat(LibraryServiceImpl.duplicateNameOr(e, "Dune")).isSameAs(e);
+	}
+
+	private static RuntimeException translate(String constraintName) {
+		return LibraryServiceImpl.duplicateNameOr(violation(constraintName), "Dune");
+	}
+
+	private static DataIntegrityViolationException violation(String constraintName) {
+		return new DataIntegrityViolationException("could not execute statement",
+				new ConstraintViolationException("could not execute statement", new SQLException("Duplicate entry"),
+						constraintName));
+	}
+
+}